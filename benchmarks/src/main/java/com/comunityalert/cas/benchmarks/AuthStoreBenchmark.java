@@ -0,0 +1,72 @@
+package com.comunityalert.cas.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.comunityalert.cas.model.User;
+import com.comunityalert.cas.service.JwtService;
+import com.comunityalert.cas.service.OtpService;
+
+/**
+ * Token and OTP store operations under contention (every authenticated request resolves its token)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class AuthStoreBenchmark {
+
+    private static final int SESSIONS = 100_000;
+
+    private JwtService jwtService;
+    private OtpService otpService;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        otpService = new OtpService();
+        List<String> issued = new ArrayList<>(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            User user = new User();
+            user.setId(UUID.randomUUID());
+            issued.add(jwtService.generateToken(user));
+        }
+        tokens = issued.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public String resolveToken() {
+        return jwtService.getUserIdFromToken(tokens[ThreadLocalRandom.current().nextInt(SESSIONS)]);
+    }
+
+    @Benchmark
+    public String resolveUnknownToken() {
+        return jwtService.getUserIdFromToken("not-a-token");
+    }
+
+    @Benchmark
+    public boolean otpRoundTrip() {
+        UUID userId = new UUID(Thread.currentThread().getId(), ThreadLocalRandom.current().nextLong());
+        otpService.saveOTP(userId, "123456", 5);
+        return otpService.verifyOTP(userId, "123456");
+    }
+}
@@ -0,0 +1,86 @@
+package com.comunityalert.cas.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * Streams rows into one table with COPY ... FROM STDIN (text format), flushing every ~1 MB.
+ * Usage: writer.value(a).value(b).endRow() per row, then close().
+ */
+final class CopyWriter implements AutoCloseable {
+
+    private static final int FLUSH_BYTES = 1 << 20;
+    private static final DateTimeFormatter TIMESTAMP =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSSx").withZone(ZoneOffset.UTC);
+
+    private final CopyIn copy;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 4096);
+    private boolean firstColumn = true;
+    private long rows;
+
+    CopyWriter(Connection connection, String table, String columns) throws SQLException {
+        this.copy = connection.unwrap(PGConnection.class).getCopyAPI()
+            .copyIn("COPY " + table + " (" + columns + ") FROM STDIN");
+    }
+
+    CopyWriter value(Object value) {
+        if (!firstColumn) {
+            buffer.append('\t');
+        }
+        firstColumn = false;
+        if (value == null) {
+            buffer.append("\\N");
+        } else if (value instanceof Instant instant) {
+            // Explicit +00 offset so the value is right for timestamp and timestamptz columns alike
+            buffer.append(TIMESTAMP.format(instant));
+        } else {
+            escape(value.toString());
+        }
+        return this;
+    }
+
+    void endRow() throws SQLException {
+        buffer.append('\n');
+        firstColumn = true;
+        rows++;
+        if (buffer.length() >= FLUSH_BYTES) {
+            flush();
+        }
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    private void escape(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+    }
+
+    private void flush() throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        flush();
+        copy.endCopy();
+    }
+}
@@ -0,0 +1,60 @@
+package com.comunityalert.cas.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.comunityalert.cas.model.IssueReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson serialization of an issue page, as returned by the issue and dashboard endpoints
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IssuePageSerializationBenchmark {
+
+    @Param({"10", "50"})
+    private int pageSize;
+
+    private ObjectMapper mapper;
+    private Page<IssueReport> page;
+    private List<IssueReport> content;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to the MVC ObjectMapper (java.time support, ISO dates)
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        content = SampleIssues.build(pageSize, pageSize);
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public byte[] page() throws Exception {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] list() throws Exception {
+        return mapper.writeValueAsBytes(content);
+    }
+}
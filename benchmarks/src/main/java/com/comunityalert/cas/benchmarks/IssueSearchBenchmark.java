@@ -0,0 +1,108 @@
+package com.comunityalert.cas.benchmarks;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.core.env.StandardEnvironment;
+
+import com.comunityalert.cas.archive.ColdArchive;
+import com.comunityalert.cas.datasource.ShardRouter;
+import com.comunityalert.cas.dedup.DuplicateIssueIndex;
+import com.comunityalert.cas.enums.Role;
+import com.comunityalert.cas.geo.GeoIndex;
+import com.comunityalert.cas.history.IssueStatusHistory;
+import com.comunityalert.cas.model.IssueReport;
+import com.comunityalert.cas.model.User;
+import com.comunityalert.cas.repository.IssueRepository;
+import com.comunityalert.cas.service.IssueService;
+import com.comunityalert.cas.startup.StartupReport;
+import com.comunityalert.cas.triage.TriageQueue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * In-memory filtering done by IssueService.search once the repository has returned every issue
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IssueSearchBenchmark {
+
+    @Param({"1000", "100000"})
+    private int issueCount;
+
+    private IssueService service;
+    private User admin;
+    private User resident;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<IssueReport> issues = SampleIssues.build(issueCount, 200);
+        UUID residentId = issues.get(0).getReportedBy().getId();
+        List<IssueReport> residentIssues = issues.stream()
+            .filter(i -> i.getReportedBy().getId().equals(residentId))
+            .toList();
+
+        // Repository stub that hands back the in-memory issues, so only the service code is measured
+        IssueRepository repo = (IssueRepository) Proxy.newProxyInstance(
+            IssueRepository.class.getClassLoader(),
+            new Class<?>[] {IssueRepository.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "findAll" -> issues;
+                case "findByReportedById" -> residentIssues;
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+        // Without shards every query runs once on the calling thread; the indexes are disabled and never loaded
+        MeterRegistry registry = new SimpleMeterRegistry();
+        StartupReport startupReport = new StartupReport();
+        ShardRouter shards = new ShardRouter(new StandardEnvironment(), repo, null, null, null, registry, false, 1);
+        service = new IssueService(repo, null, null, null, null, null,
+            new DuplicateIssueIndex(repo, shards, startupReport, registry, false, 0.5, Duration.ofDays(7)),
+            new GeoIndex(repo, shards, startupReport, registry, false),
+            new IssueStatusHistory(null, null, shards, startupReport, null),
+            new TriageQueue(repo, shards, startupReport, registry, new StandardEnvironment(), 0, 24),
+            new ColdArchive(repo, shards, startupReport, registry, ""),
+            shards);
+
+        admin = new User();
+        admin.setId(UUID.randomUUID());
+        admin.setRole(Role.ADMIN);
+
+        resident = issues.get(0).getReportedBy();
+    }
+
+    @Benchmark
+    public List<IssueReport> adminSearchCommonWord() {
+        return service.search("pipe", admin);
+    }
+
+    @Benchmark
+    public List<IssueReport> adminSearchNoMatch() {
+        return service.search("volcano", admin);
+    }
+
+    @Benchmark
+    public List<IssueReport> residentSearch() {
+        return service.search("leak", resident);
+    }
+}
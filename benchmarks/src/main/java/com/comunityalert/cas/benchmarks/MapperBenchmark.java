@@ -0,0 +1,90 @@
+package com.comunityalert.cas.benchmarks;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.comunityalert.cas.dto.LocationDTO;
+import com.comunityalert.cas.dto.UserDTO;
+import com.comunityalert.cas.enums.LocationType;
+import com.comunityalert.cas.enums.Role;
+import com.comunityalert.cas.mapper.LocationMapper;
+import com.comunityalert.cas.mapper.UserMapper;
+import com.comunityalert.cas.model.Location;
+import com.comunityalert.cas.model.User;
+
+/**
+ * Entity to DTO mapping done for every user and location in list responses
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private UserMapper userMapper;
+    private LocationMapper locationMapper;
+    private User namedUser;
+    private User emailOnlyUser;
+    private Location village;
+
+    @Setup
+    public void setUp() {
+        // toDTO never touches the repository
+        userMapper = new UserMapper(null);
+        locationMapper = new LocationMapper();
+
+        Location cell = new Location();
+        cell.setId(UUID.randomUUID());
+        cell.setName("Rugando");
+        cell.setType(LocationType.CELL);
+
+        village = new Location();
+        village.setId(UUID.randomUUID());
+        village.setName("Amahoro");
+        village.setType(LocationType.VILLAGE);
+        village.setParent(cell);
+
+        namedUser = new User();
+        namedUser.setId(UUID.randomUUID());
+        namedUser.setFullName("Aline Uwase");
+        namedUser.setEmail("aline@example.rw");
+        namedUser.setPhoneNumber("+250788000000");
+        namedUser.setRole(Role.RESIDENT);
+        namedUser.setCreatedAt(Instant.now());
+        namedUser.setLocation(village);
+
+        emailOnlyUser = new User();
+        emailOnlyUser.setId(UUID.randomUUID());
+        emailOnlyUser.setEmail("jean.bosco@example.rw");
+        emailOnlyUser.setCreatedAt(Instant.now());
+    }
+
+    @Benchmark
+    public UserDTO userToDTO() {
+        return userMapper.toDTO(namedUser);
+    }
+
+    @Benchmark
+    public UserDTO userToDTODerivedName() {
+        return userMapper.toDTO(emailOnlyUser);
+    }
+
+    @Benchmark
+    public LocationDTO locationToDTO() {
+        return locationMapper.toDTO(village);
+    }
+}
@@ -0,0 +1,75 @@
+package com.comunityalert.cas.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.comunityalert.cas.utils.RwandaLocations;
+
+/**
+ * Location hierarchy lookups used by issue creation, signup and the location selector
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RwandaLocationsBenchmark {
+
+    private RwandaLocations locations;
+    private int firstVillageCode;
+    private int lastVillageCode;
+    private int cellCode;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        locations = new RwandaLocations(SyntheticLocations.locationsFile().toString()).load();
+        List<Map<String, Object>> villages = locations.getVillages(null);
+        firstVillageCode = (Integer) villages.get(0).get("code");
+        lastVillageCode = (Integer) villages.get(villages.size() - 1).get("code");
+        cellCode = (Integer) villages.get(villages.size() / 2).get("cell_code");
+    }
+
+    @Benchmark
+    public Map<String, Object> villageLookupFirst() throws Exception {
+        return locations.getLocationByVillageCode(firstVillageCode);
+    }
+
+    @Benchmark
+    public Map<String, Object> villageLookupLast() throws Exception {
+        return locations.getLocationByVillageCode(lastVillageCode);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> villagesOfCell() throws Exception {
+        return locations.getVillages(cellCode);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> districtsOfProvince() throws Exception {
+        return locations.getDistricts(1);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> searchAllLevels() throws Exception {
+        return locations.search("kig", "all");
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> searchVillages() throws Exception {
+        return locations.search("village1000", "village");
+    }
+}
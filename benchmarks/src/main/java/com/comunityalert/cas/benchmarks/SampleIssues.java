@@ -0,0 +1,90 @@
+package com.comunityalert.cas.benchmarks;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import com.comunityalert.cas.enums.LocationType;
+import com.comunityalert.cas.enums.Role;
+import com.comunityalert.cas.enums.Status;
+import com.comunityalert.cas.model.IssueReport;
+import com.comunityalert.cas.model.Location;
+import com.comunityalert.cas.model.Tag;
+import com.comunityalert.cas.model.User;
+
+/**
+ * Deterministic in-memory issues with reporters, villages and tags
+ */
+final class SampleIssues {
+
+    private static final String[] CATEGORIES = {"WATER", "ROADS", "ELECTRICITY", "SECURITY", "SANITATION", "HEALTH"};
+    private static final String[] WORDS = {"burst", "pipe", "pothole", "blackout", "flooding", "broken",
+        "streetlight", "garbage", "leak", "market", "school", "bridge", "drain", "clinic", "noise"};
+
+    private SampleIssues() {
+    }
+
+    static List<IssueReport> build(int count, int reporters) {
+        Random random = new Random(7);
+
+        List<Tag> tags = new ArrayList<>();
+        for (String name : new String[] {"urgent", "water", "roads", "night", "children", "recurring"}) {
+            Tag tag = new Tag();
+            tag.setId(UUID.randomUUID());
+            tag.setName(name);
+            tags.add(tag);
+        }
+
+        List<Location> villages = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Location village = new Location();
+            village.setId(UUID.randomUUID());
+            village.setName("Village" + i);
+            village.setType(LocationType.VILLAGE);
+            villages.add(village);
+        }
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < reporters; i++) {
+            User user = new User();
+            user.setId(UUID.randomUUID());
+            user.setFullName("Resident " + i);
+            user.setEmail("resident" + i + "@example.rw");
+            user.setRole(Role.RESIDENT);
+            user.setLocation(villages.get(i % villages.size()));
+            users.add(user);
+        }
+
+        Instant now = Instant.now();
+        Status[] statuses = Status.values();
+        List<IssueReport> issues = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            IssueReport issue = new IssueReport();
+            issue.setId(UUID.randomUUID());
+            issue.setTitle(sentence(random, 4));
+            issue.setDescription(sentence(random, 30));
+            issue.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            issue.setStatus(statuses[random.nextInt(statuses.length)]);
+            issue.setDateReported(now.minus(random.nextInt(365 * 24), ChronoUnit.HOURS));
+            issue.setReportedBy(users.get(random.nextInt(users.size())));
+            issue.setLocation(villages.get(random.nextInt(villages.size())));
+            for (int t = random.nextInt(3); t > 0; t--) {
+                issue.getTags().add(tags.get(random.nextInt(tags.size())));
+            }
+            issues.add(issue);
+        }
+        return issues;
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,641 @@
+package com.comunityalert.cas.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.comunityalert.cas.enums.LocationType;
+import com.comunityalert.cas.enums.Role;
+import com.comunityalert.cas.enums.Status;
+import com.comunityalert.cas.utils.RwandaLocations;
+
+/**
+ * Fills a CAS database with realistic volumes of locations, users, tags, issues (with tag links),
+ * comments and notifications for scale testing.
+ *
+ * The data is skewed the way production is: a few hot villages get most of the reports, reports come
+ * in bursts around incidents, a handful of admins receive every "new issue" notification, and a few
+ * residents report far more than the rest. Every value is derived from cas.gen.seed and the row's index,
+ * so the same settings always produce the same rows (ids included) and benchmarks stay comparable.
+ *
+ * Rows are streamed with COPY ... FROM STDIN. The schema must already exist: start the application
+ * against the target database once (its Flyway migrations create the tables), then stop it and run
+ *
+ *   java -cp benchmarks/target/benchmarks.jar com.comunityalert.cas.benchmarks.ScaleDataGenerator
+ *
+ * Settings (system properties, defaults in brackets):
+ *   cas.gen.url / cas.gen.user / cas.gen.password   [jdbc:postgresql://localhost:5432/community_alert, postgres, 123]
+ *   cas.gen.seed [42]      cas.gen.now [2026-01-01T00:00:00Z]   cas.gen.days [730] of history before "now"
+ *   cas.gen.issues [1000000]   cas.gen.users [100000]   cas.gen.admins [15]   cas.gen.tags [40]
+ *   cas.gen.villages [0 = every village in locations.json]
+ *   cas.gen.commentsPerIssue [2.0] mean   cas.gen.notifyAdmins [true] one notification per admin per issue
+ *   cas.gen.villageSkew [1.1]   cas.gen.burstShare [0.3] share of issues reported during incident bursts
+ *   cas.gen.threads [4] parallel COPY streams   cas.gen.truncate [false] empty the tables first
+ *   cas.locations [src/main/resources/locations.json, else a synthetic file of the same shape]
+ */
+public final class ScaleDataGenerator {
+
+    private static final String PASSWORD = "scale-pass";
+
+    private static final String[] CATEGORIES = {"Infrastructure", "Utilities", "Sanitation", "Safety", "Environment", "Other"};
+    private static final String[][] TITLES = {
+        {"Pothole on the main road", "Collapsed bridge on the footpath", "Blocked drainage channel", "Broken street light"},
+        {"Water pipe burst", "No running water since yesterday", "Power outage in the area", "Leaking water meter"},
+        {"Uncollected garbage", "Overflowing public toilet", "Illegal dumping near the market", "Sewage leak"},
+        {"Fallen electricity pole", "Unlit path at night", "Open manhole", "Damaged guard rail"},
+        {"Trees cut down illegally", "Flooding after heavy rain", "Soil erosion on the hillside", "Smoke from burning waste"},
+        {"Stray animals on the road", "Noise from a bar at night", "Request for a community meeting", "Vandalised signboard"}
+    };
+    private static final String[] TAG_NAMES = {
+        "urgent", "water", "roads", "electricity", "sanitation", "security", "night", "children", "school", "market",
+        "health", "flooding", "drainage", "garbage", "streetlight", "bridge", "erosion", "noise", "animals", "fire",
+        "recurring", "elderly", "transport", "pipes", "public-toilet", "trees", "smoke", "meeting", "signage", "footpath"
+    };
+    private static final String[] COMMENTS = {
+        "Same problem on our street.", "This has been going on for a week now.", "Thanks for reporting this.",
+        "The team will visit tomorrow morning.", "Any update on this?", "It got worse after last night's rain.",
+        "Work has started, please keep children away from the site.", "Fixed as far as I can see.",
+        "Please share a photo so we can assess it.", "Reported this to the cell leader as well."
+    };
+    private static final String[] FIRST_NAMES = {
+        "Jean", "Marie", "Eric", "Aline", "Patrick", "Grace", "Emmanuel", "Diane", "Claude", "Alice",
+        "Olivier", "Josiane", "Fabrice", "Sandrine", "Innocent", "Clarisse", "Samuel", "Chantal", "David", "Esther"
+    };
+    private static final String[] LAST_NAMES = {
+        "Uwimana", "Niyonzima", "Mukamana", "Habimana", "Uwase", "Nshimiyimana", "Ingabire", "Mugisha",
+        "Iradukunda", "Hakizimana", "Umutoni", "Ndayisaba", "Mukeshimana", "Bizimana", "Uwera", "Tuyishime"
+    };
+    // Relative report volume per UTC hour (Rwanda is UTC+2): quiet at night, peaks morning and evening
+    private static final double[] HOURLY = {
+        1, 1, 1, 1, 2, 4, 7, 9, 8, 6, 5, 5, 6, 5, 4, 4, 5, 7, 8, 6, 4, 3, 2, 1
+    };
+
+    // Row kinds, mixed into the seed so each kind gets its own id and random stream
+    private static final long LOCATION = 1, USER = 2, TAG = 3, ISSUE = 4, COMMENT = 5, NOTIFICATION = 6, NAME = 7;
+    // Comments and notifications of issue i get keys i * CHILD_SLOTS + j
+    private static final int CHILD_SLOTS = 1024;
+    private static final int MAX_COMMENTS = 63;
+
+    private final String url = System.getProperty("cas.gen.url", "jdbc:postgresql://localhost:5432/community_alert");
+    private final String user = System.getProperty("cas.gen.user", "postgres");
+    private final String password = System.getProperty("cas.gen.password", "123");
+    private final long seed = Long.getLong("cas.gen.seed", 42L);
+    private final Instant now = Instant.parse(System.getProperty("cas.gen.now", "2026-01-01T00:00:00Z"));
+    private final int days = Integer.getInteger("cas.gen.days", 730);
+    private final long issueCount = Long.getLong("cas.gen.issues", 1_000_000L);
+    private final int userCount = Integer.getInteger("cas.gen.users", 100_000);
+    private final int adminCount = Math.max(1, Math.min(Integer.getInteger("cas.gen.admins", 15), CHILD_SLOTS - 2));
+    private final int tagCount = Math.max(1, Integer.getInteger("cas.gen.tags", 40));
+    private final int villageLimit = Integer.getInteger("cas.gen.villages", 0);
+    private final double commentsPerIssue = Double.parseDouble(System.getProperty("cas.gen.commentsPerIssue", "2.0"));
+    private final boolean notifyAdmins = Boolean.parseBoolean(System.getProperty("cas.gen.notifyAdmins", "true"));
+    private final double villageSkew = Double.parseDouble(System.getProperty("cas.gen.villageSkew", "1.1"));
+    private final double burstShare = Double.parseDouble(System.getProperty("cas.gen.burstShare", "0.3"));
+    private final double halfLifeDays = Double.parseDouble(System.getProperty("cas.gen.halfLifeDays", "7"));
+    private final int threads = Math.max(1, Integer.getInteger("cas.gen.threads", 4));
+    private final boolean truncate = Boolean.getBoolean("cas.gen.truncate");
+
+    private final Instant start = now.minus(Duration.ofDays(days));
+
+    private List<Map<String, Object>> villages;
+    private ZipfSampler villageSampler;
+    private ZipfSampler residentSampler;
+    private ZipfSampler adminSampler;
+    private ZipfSampler tagSampler;
+    private ZipfSampler categorySampler;
+    private double[] hourlyCdf;
+    private Burst[] bursts;
+    // Residents grouped by home village: residentsByVillage[villageStart[v] .. villageStart[v + 1])
+    private int[] villageOfUser;
+    private int[] villageStart;
+    private int[] residentsByVillage;
+
+    public static void main(String[] args) throws Exception {
+        new ScaleDataGenerator().run();
+    }
+
+    private void run() throws Exception {
+        long began = System.nanoTime();
+        prepare();
+        System.out.printf("Generating %,d issues for %,d users in %,d villages (seed %d) into %s%n",
+            issueCount, userCount, villages.size(), seed, url);
+
+        try (Connection connection = connect()) {
+            if (truncate) {
+                try (Statement st = connection.createStatement()) {
+                    st.execute("TRUNCATE notifications, comments, issue_tags, issues, user_profiles, users, tags, locations CASCADE");
+                }
+            }
+            writeLocations(connection);
+            writeTags(connection);
+            writeUsers(connection);
+        }
+
+        partitioned("issues", "id, title, description, category, status, location_id, date_reported, date_resolved, "
+            + "comment_count, last_activity_at, reported_by", this::writeIssue);
+
+        // Everything below only references issues, so the three tables load side by side
+        try (ExecutorService pool = Executors.newFixedThreadPool(3)) {
+            List<Future<?>> loads = new ArrayList<>();
+            loads.add(pool.submit(() -> partitioned("issue_tags", "issue_id, tag_id", this::writeIssueTags)));
+            loads.add(pool.submit(() -> partitioned("comments", "id, message, createdAt, created_by, issue_id",
+                this::writeComments)));
+            loads.add(pool.submit(() -> partitioned("notifications",
+                "id, message, channel, sent_at, delivered, \"read\", recipient_id, issue_id", this::writeNotifications)));
+            for (Future<?> load : loads) {
+                load.get();
+            }
+        }
+
+        try (Connection connection = connect()) {
+            updateTagStats(connection);
+            try (Statement st = connection.createStatement()) {
+                st.execute("ANALYZE");
+            }
+        }
+        System.out.printf("Done in %s%n", Duration.ofNanos(System.nanoTime() - began).truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    // ========== Setup ==========
+
+    private void prepare() throws IOException {
+        RwandaLocations locations = new RwandaLocations(locationsFile().toString());
+        villages = new ArrayList<>(locations.getVillages(null));
+        villages.sort(Comparator.comparingInt(v -> (Integer) v.get("code")));
+        if (villageLimit > 0 && villageLimit < villages.size()) {
+            villages = villages.subList(0, villageLimit);
+        }
+
+        // Shuffle which villages are hot so they are spread over provinces, not just the lowest codes
+        int[] hotOrder = permutation(villages.size(), random(LOCATION, -1));
+        List<Map<String, Object>> byHeat = new ArrayList<>(villages.size());
+        for (int i : hotOrder) {
+            byHeat.add(villages.get(i));
+        }
+        villages = byHeat;
+
+        int residents = Math.max(1, userCount - adminCount);
+        villageSampler = new ZipfSampler(villages.size(), villageSkew);
+        residentSampler = new ZipfSampler(residents, 0.8);
+        adminSampler = new ZipfSampler(adminCount, 0.5);
+        tagSampler = new ZipfSampler(tagCount, 1.0);
+        categorySampler = new ZipfSampler(CATEGORIES.length, 0.7);
+
+        hourlyCdf = new double[HOURLY.length];
+        double sum = 0;
+        for (int h = 0; h < HOURLY.length; h++) {
+            sum += HOURLY[h];
+            hourlyCdf[h] = sum;
+        }
+        for (int h = 0; h < HOURLY.length; h++) {
+            hourlyCdf[h] /= sum;
+        }
+
+        // Roughly one incident every ten days, each centred on one (usually hot) village
+        SplittableRandom r = random(ISSUE, -1);
+        bursts = new Burst[Math.max(1, days / 10)];
+        for (int b = 0; b < bursts.length; b++) {
+            Instant centre = start.plusSeconds((long) (r.nextDouble() * days * 86400L));
+            bursts[b] = new Burst(centre, 6 + r.nextInt(48), villageSampler.next(r));
+        }
+
+        villageOfUser = new int[userCount];
+        int[] perVillage = new int[villages.size() + 1];
+        for (int u = 0; u < userCount; u++) {
+            villageOfUser[u] = villageSampler.next(random(USER, u));
+            if (u >= adminCount) {
+                perVillage[villageOfUser[u] + 1]++;
+            }
+        }
+        villageStart = new int[villages.size() + 1];
+        for (int v = 0; v < villages.size(); v++) {
+            villageStart[v + 1] = villageStart[v] + perVillage[v + 1];
+        }
+        residentsByVillage = new int[villageStart[villages.size()]];
+        int[] fill = villageStart.clone();
+        for (int u = adminCount; u < userCount; u++) {
+            residentsByVillage[fill[villageOfUser[u]]++] = u;
+        }
+    }
+
+    private Path locationsFile() throws IOException {
+        if (System.getProperty("cas.locations") == null) {
+            for (String candidate : new String[] {"src/main/resources/locations.json", "../src/main/resources/locations.json"}) {
+                if (Files.exists(Path.of(candidate))) {
+                    return Path.of(candidate);
+                }
+            }
+            System.err.println("locations.json not found, using synthetic villages (set -Dcas.locations to use the real file)");
+        }
+        return SyntheticLocations.locationsFile();
+    }
+
+    private Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, user, password);
+        connection.setAutoCommit(true);
+        return connection;
+    }
+
+    // ========== Reference data ==========
+
+    /**
+     * Province -> district -> sector -> cell -> village rows, with the same parent links LocationMapper builds
+     */
+    private void writeLocations(Connection connection) throws SQLException {
+        long began = System.nanoTime();
+        Set<UUID> written = new HashSet<>();
+        try (CopyWriter out = new CopyWriter(connection, "locations", "id, name, type, parent_id")) {
+            for (Map<String, Object> v : villages) {
+                UUID province = location(out, written, LocationType.PROVINCE, v.get("province_code"), v.get("province_name"), null);
+                UUID district = location(out, written, LocationType.DISTRICT, v.get("district_code"), v.get("district_name"), province);
+                UUID sector = location(out, written, LocationType.SECTOR, v.get("sector_code"), v.get("sector_name"), district);
+                UUID cell = location(out, written, LocationType.CELL, v.get("cell_code"), v.get("cell_name"), sector);
+                location(out, written, LocationType.VILLAGE, v.get("code"), v.get("name"), cell);
+            }
+            report("locations", out.rows(), began);
+        }
+    }
+
+    private UUID location(CopyWriter out, Set<UUID> written, LocationType type, Object code, Object name,
+                          UUID parent) throws SQLException {
+        UUID id = locationId(type, code);
+        if (written.add(id)) {
+            out.value(id).value(name).value(type.name()).value(parent).endRow();
+        }
+        return id;
+    }
+
+    private UUID locationId(LocationType type, Object code) {
+        return uuid(LOCATION, type.ordinal() * 10_000_000_000L + Long.parseLong(code.toString()));
+    }
+
+    private UUID villageId(int village) {
+        return locationId(LocationType.VILLAGE, villages.get(village).get("code"));
+    }
+
+    private void writeTags(Connection connection) throws SQLException {
+        long began = System.nanoTime();
+        try (CopyWriter out = new CopyWriter(connection, "tags", "id, name, description, active, usage_count")) {
+            for (int t = 0; t < tagCount; t++) {
+                String name = t < TAG_NAMES.length ? TAG_NAMES[t] : TAG_NAMES[t % TAG_NAMES.length] + "-" + (t / TAG_NAMES.length);
+                // A few tags retired, like in a real deployment
+                boolean active = t < tagCount - tagCount / 10;
+                out.value(uuid(TAG, t)).value(name).value(null).value(active).value(0).endRow();
+            }
+            report("tags", out.rows(), began);
+        }
+    }
+
+    private void writeUsers(Connection connection) throws SQLException {
+        long began = System.nanoTime();
+        // One hash shared by every generated user: BCrypt per row would dominate the run
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        try (CopyWriter out = new CopyWriter(connection, "users",
+                "id, full_name, email, password, phone_number, role, created_at, location_id")) {
+            for (int u = 0; u < userCount; u++) {
+                SplittableRandom r = random(USER, u);
+                boolean admin = u < adminCount;
+                Instant createdAt = start.plusSeconds((long) (r.nextDouble() * days * 86400L * 0.5));
+                out.value(uuid(USER, u))
+                    .value(fullName(u))
+                    .value((admin ? "admin" : "user") + u + "@scale.cas.rw")
+                    .value(hash)
+                    .value(String.format("+25078%07d", u % 10_000_000))
+                    .value(admin ? Role.ADMIN.name() : Role.RESIDENT.name())
+                    .value(createdAt)
+                    .value(villageId(villageOfUser[u]))
+                    .endRow();
+            }
+            report("users", out.rows(), began);
+        }
+    }
+
+    // ========== Issues and their children ==========
+
+    private void writeIssue(long i, CopyWriter out) throws SQLException {
+        IssuePlan p = plan(i);
+        out.value(uuid(ISSUE, i))
+            .value(p.title)
+            .value(p.title + " in " + villages.get(p.village).get("name") + ". Reported by a resident.")
+            .value(CATEGORIES[p.category])
+            .value(p.status.name())
+            .value(villageId(p.village))
+            .value(p.reportedAt)
+            .value(p.resolvedAt)
+            .value(p.commentTimes.length)
+            .value(p.lastActivityAt())
+            .value(uuid(USER, p.reporter))
+            .endRow();
+    }
+
+    private void writeIssueTags(long i, CopyWriter out) throws SQLException {
+        UUID issue = uuid(ISSUE, i);
+        for (int tag : plan(i).tags) {
+            out.value(issue).value(uuid(TAG, tag)).endRow();
+        }
+    }
+
+    private void writeComments(long i, CopyWriter out) throws SQLException {
+        IssuePlan p = plan(i);
+        UUID issue = uuid(ISSUE, i);
+        SplittableRandom r = random(COMMENT, i);
+        for (int c = 0; c < p.commentTimes.length; c++) {
+            double who = r.nextDouble();
+            int author = who < 0.5 ? p.reporter : who < 0.8 ? adminSampler.next(r) : anyResident(r);
+            out.value(uuid(COMMENT, i * CHILD_SLOTS + c))
+                .value(COMMENTS[r.nextInt(COMMENTS.length)])
+                .value(p.commentTimes[c])
+                .value(uuid(USER, author))
+                .value(issue)
+                .endRow();
+        }
+    }
+
+    /**
+     * Same notifications IssueService sends: every admin on creation, the reporter on each status change
+     */
+    private void writeNotifications(long i, CopyWriter out) throws SQLException {
+        IssuePlan p = plan(i);
+        UUID issue = uuid(ISSUE, i);
+        SplittableRandom r = random(NOTIFICATION, i);
+        int slot = 0;
+        if (notifyAdmins) {
+            String message = String.format("New issue reported: '%s' by %s in %s",
+                p.title, fullName(p.reporter), villages.get(p.village).get("name"));
+            for (int a = 0; a < adminCount; a++) {
+                notification(out, i, slot++, message, p.reportedAt, a, issue, r);
+            }
+        }
+        if (p.inProgressAt != null) {
+            notification(out, i, slot++, String.format("Your issue '%s' is now being processed", p.title),
+                p.inProgressAt, p.reporter, issue, r);
+        }
+        if (p.resolvedAt != null) {
+            notification(out, i, slot, String.format("Your issue '%s' has been resolved", p.title),
+                p.resolvedAt, p.reporter, issue, r);
+        }
+    }
+
+    private void notification(CopyWriter out, long issueIndex, int slot, String message, Instant sentAt, int recipient,
+                              UUID issue, SplittableRandom r) throws SQLException {
+        // Older notifications are mostly read; the last two weeks mostly are not
+        boolean read = sentAt.isBefore(now.minus(Duration.ofDays(14))) ? r.nextDouble() < 0.9 : r.nextDouble() < 0.3;
+        out.value(uuid(NOTIFICATION, issueIndex * CHILD_SLOTS + slot))
+            .value(message)
+            .value("SYSTEM")
+            .value(sentAt)
+            .value(true)
+            .value(read)
+            .value(uuid(USER, recipient))
+            .value(issue)
+            .endRow();
+    }
+
+    /**
+     * Everything about issue i, recomputed from the seed in every pass instead of being held in memory
+     */
+    private IssuePlan plan(long i) {
+        SplittableRandom r = random(ISSUE, i);
+        IssuePlan p = new IssuePlan();
+
+        boolean inBurst = r.nextDouble() < burstShare;
+        if (inBurst) {
+            Burst b = bursts[r.nextInt(bursts.length)];
+            p.village = r.nextDouble() < 0.85 ? b.village : villageSampler.next(r);
+            long offset = (long) (r.nextGaussian() * b.widthHours * 3600);
+            p.reportedAt = clamp(b.centre.plusSeconds(offset));
+        } else {
+            p.village = villageSampler.next(r);
+            // Density grows linearly towards "now": the platform gains users over time
+            long day = (long) (Math.sqrt(r.nextDouble()) * days);
+            int hour = hourOfDay(r);
+            p.reportedAt = clamp(start.plus(Duration.ofDays(day)).plusSeconds(hour * 3600L + r.nextInt(3600)));
+        }
+
+        int from = villageStart[p.village];
+        int count = villageStart[p.village + 1] - from;
+        if (count > 0 && r.nextDouble() < 0.85) {
+            // Neighbours report, with a bias towards the same few active people in each village
+            double u = r.nextDouble();
+            p.reporter = residentsByVillage[from + (int) (u * u * count)];
+        } else {
+            p.reporter = anyResident(r);
+        }
+
+        p.category = categorySampler.next(r);
+        String[] titles = TITLES[p.category];
+        p.title = titles[r.nextInt(titles.length)];
+
+        long ageDays = Duration.between(p.reportedAt, now).toDays();
+        double s = r.nextDouble();
+        double resolvedShare = ageDays > 30 ? 0.7 : ageDays > 7 ? 0.4 : 0.1;
+        if (s < resolvedShare) {
+            p.status = Status.RESOLVED;
+        } else if (s < resolvedShare + 0.2) {
+            p.status = Status.IN_PROGRESS;
+        } else {
+            p.status = Status.REPORTED;
+        }
+        if (p.status != Status.REPORTED) {
+            long toResolve = (long) (-Math.log(1 - r.nextDouble()) * 5 * 86400);
+            Instant resolvedAt = p.reportedAt.plusSeconds(Math.max(3600, toResolve));
+            p.inProgressAt = clamp(p.reportedAt.plusSeconds(Math.max(600, toResolve / 4)));
+            p.resolvedAt = p.status == Status.RESOLVED ? clamp(resolvedAt) : null;
+        }
+
+        int tagsWanted = Math.min(r.nextInt(4), tagCount);
+        int[] tags = new int[tagsWanted];
+        int n = 0;
+        for (int attempt = 0; n < tagsWanted && attempt < 10; attempt++) {
+            int t = tagSampler.next(r);
+            boolean dup = false;
+            for (int k = 0; k < n; k++) {
+                dup |= tags[k] == t;
+            }
+            if (!dup) {
+                tags[n++] = t;
+            }
+        }
+        p.tags = n == tags.length ? tags : Arrays.copyOf(tags, n);
+
+        // Geometric number of comments; incident reports draw more discussion
+        double mean = commentsPerIssue * (inBurst ? 2 : 1);
+        int comments = mean <= 0 ? 0 : (int) Math.floor(Math.log(1 - r.nextDouble()) / Math.log(mean / (mean + 1)));
+        comments = Math.min(comments, MAX_COMMENTS);
+        List<Instant> times = new ArrayList<>(comments);
+        Instant t = p.reportedAt;
+        for (int c = 0; c < comments; c++) {
+            t = t.plusSeconds((long) (-Math.log(1 - r.nextDouble()) * 86400) + 60);
+            if (t.isAfter(now)) {
+                break;
+            }
+            times.add(t);
+        }
+        p.commentTimes = times.toArray(new Instant[0]);
+        return p;
+    }
+
+    // ========== Plumbing ==========
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(long issueIndex, CopyWriter out) throws SQLException;
+    }
+
+    /**
+     * Write rows for every issue index into `table`, split over `threads` connections
+     */
+    private Void partitioned(String table, String columns, RowWriter rows) throws Exception {
+        long began = System.nanoTime();
+        long chunk = (issueCount + threads - 1) / threads;
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            List<Future<Long>> parts = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long from = t * chunk;
+                long to = Math.min(issueCount, from + chunk);
+                parts.add(pool.submit(() -> {
+                    try (Connection connection = connect(); CopyWriter out = new CopyWriter(connection, table, columns)) {
+                        for (long i = from; i < to; i++) {
+                            rows.write(i, out);
+                        }
+                        return out.rows();
+                    }
+                }));
+            }
+            long total = 0;
+            for (Future<Long> part : parts) {
+                total += part.get();
+            }
+            report(table, total, began);
+        }
+        return null;
+    }
+
+    private void updateTagStats(Connection connection) throws SQLException {
+        // Same log-sum-exp popularity TagService maintains: sum of exp(lambda * epochDays) per use, on a log scale
+        String sql = "WITH uses AS ("
+            + "  SELECT it.tag_id, i.date_reported AS at, ? * EXTRACT(EPOCH FROM i.date_reported) / 86400.0 AS x"
+            + "  FROM issue_tags it JOIN issues i ON i.id = it.issue_id), "
+            + "peak AS (SELECT tag_id, MAX(x) AS mx FROM uses GROUP BY tag_id) "
+            + "UPDATE tags t SET usage_count = s.uses, last_used_at = s.last_used, popularity_score = s.mx + LN(s.total) "
+            + "FROM (SELECT u.tag_id, COUNT(*) AS uses, MAX(u.at) AS last_used, p.mx, SUM(EXP(u.x - p.mx)) AS total "
+            + "      FROM uses u JOIN peak p ON p.tag_id = u.tag_id GROUP BY u.tag_id, p.mx) s "
+            + "WHERE t.id = s.tag_id";
+        long began = System.nanoTime();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setDouble(1, Math.log(2) / halfLifeDays);
+            report("tag stats", ps.executeUpdate(), began);
+        }
+    }
+
+    private void report(String table, long rows, long began) {
+        double seconds = Math.max(1e-3, (System.nanoTime() - began) / 1e9);
+        System.out.printf("  %-14s %,14d rows  %8.1f s  %,12.0f rows/s%n", table, rows, seconds, rows / seconds);
+    }
+
+    private int anyResident(SplittableRandom r) {
+        if (userCount <= adminCount) {
+            return r.nextInt(userCount);
+        }
+        return adminCount + residentSampler.next(r);
+    }
+
+    private int hourOfDay(SplittableRandom r) {
+        int h = Arrays.binarySearch(hourlyCdf, r.nextDouble());
+        return Math.min(h < 0 ? -h - 1 : h, HOURLY.length - 1);
+    }
+
+    private Instant clamp(Instant t) {
+        return t.isBefore(start) ? start : t.isAfter(now) ? now : t;
+    }
+
+    private String fullName(int u) {
+        long h = mix(seed ^ mix(NAME) ^ u);
+        return FIRST_NAMES[(int) Long.remainderUnsigned(h, FIRST_NAMES.length)] + " "
+            + LAST_NAMES[(int) Long.remainderUnsigned(h >>> 32, LAST_NAMES.length)];
+    }
+
+    private SplittableRandom random(long kind, long index) {
+        return new SplittableRandom(mix(seed ^ mix(kind) ^ mix(index + 0x632BE59BD9B4E019L)));
+    }
+
+    /**
+     * Stable version-4-shaped UUID for row `index` of `kind`
+     */
+    private UUID uuid(long kind, long index) {
+        long hi = mix(seed ^ mix(kind) ^ index);
+        long lo = mix(hi ^ index ^ 0xD1B54A32D192ED03L);
+        hi = (hi & ~0xF000L) | 0x4000L;
+        lo = (lo & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(hi, lo);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int[] permutation(int n, SplittableRandom r) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = r.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    private record Burst(Instant centre, int widthHours, int village) {
+    }
+
+    private static final class IssuePlan {
+        int village;
+        int reporter;
+        int category;
+        String title;
+        Instant reportedAt;
+        Status status;
+        Instant inProgressAt;
+        Instant resolvedAt;
+        int[] tags;
+        Instant[] commentTimes;
+
+        Instant lastActivityAt() {
+            Instant last = reportedAt;
+            if (resolvedAt != null && resolvedAt.isAfter(last)) last = resolvedAt;
+            if (commentTimes.length > 0 && commentTimes[commentTimes.length - 1].isAfter(last)) {
+                last = commentTimes[commentTimes.length - 1];
+            }
+            return last;
+        }
+    }
+}
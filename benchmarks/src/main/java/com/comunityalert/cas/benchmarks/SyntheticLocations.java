@@ -0,0 +1,72 @@
+package com.comunityalert.cas.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Builds a locations.json with the same shape and roughly the same size as Rwanda's
+ * (5 provinces, 30 districts, ~416 sectors, ~2,150 cells, ~14,800 villages).
+ * Set -Dcas.locations=/path/to/locations.json to benchmark against the real file instead.
+ */
+final class SyntheticLocations {
+
+    private SyntheticLocations() {
+    }
+
+    static Path locationsFile() throws IOException {
+        String real = System.getProperty("cas.locations");
+        if (real != null) {
+            return Path.of(real);
+        }
+
+        Random random = new Random(42);
+        String[] provinces = {"Kigali", "Southern", "Western", "Northern", "Eastern"};
+        int[] districtsPerProvince = {3, 8, 7, 5, 7};
+        JSONArray rows = new JSONArray();
+
+        int districtCode = 100;
+        int cellCode = 100000;
+        int villageCode = 10000000;
+        for (int p = 0; p < provinces.length; p++) {
+            for (int d = 0; d < districtsPerProvince[p]; d++) {
+                districtCode++;
+                int sectors = 12 + random.nextInt(6);
+                for (int s = 1; s <= sectors; s++) {
+                    String sectorCode = districtCode + String.format("%02d", s);
+                    int cells = 4 + random.nextInt(3);
+                    for (int c = 0; c < cells; c++) {
+                        cellCode++;
+                        int villages = 5 + random.nextInt(5);
+                        for (int v = 0; v < villages; v++) {
+                            villageCode++;
+                            JSONObject row = new JSONObject();
+                            row.put("country_code", "RW");
+                            row.put("country_name", "Rwanda");
+                            row.put("province_code", p + 1);
+                            row.put("province_name", provinces[p]);
+                            row.put("district_code", districtCode);
+                            row.put("district_name", "District" + districtCode);
+                            row.put("sector_code", sectorCode);
+                            row.put("sector_name", "Sector" + sectorCode);
+                            row.put("cell_code", cellCode);
+                            row.put("cell_name", "Cell" + cellCode);
+                            row.put("village_code", villageCode);
+                            row.put("village_name", "Village" + villageCode);
+                            rows.put(row);
+                        }
+                    }
+                }
+            }
+        }
+
+        Path file = Files.createTempFile("locations", ".json");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, rows.toString());
+        return file;
+    }
+}
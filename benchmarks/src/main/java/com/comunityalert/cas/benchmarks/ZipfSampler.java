@@ -0,0 +1,33 @@
+package com.comunityalert.cas.benchmarks;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws ranks 0..n-1 with probability proportional to 1 / (rank + 1)^skew.
+ * skew = 0 is uniform; around 1 a handful of ranks take most of the draws.
+ */
+final class ZipfSampler {
+
+    private final double[] cdf;
+
+    ZipfSampler(int n, double skew) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, skew);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    int next(SplittableRandom random) {
+        int i = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(i < 0 ? -i - 1 : i, cdf.length - 1);
+    }
+}
@@ -6,9 +6,9 @@ export const commentService = {
     return api.post(`/issues/${issueId}/comments`, commentData);
   },
 
-  // Get comments for issue
-  getByIssue: (issueId) => {
-    return api.get(`/issues/${issueId}/comments`);
+  // Get comments for issue, one page at a time (pass nextCursor from the previous page)
+  getByIssue: (issueId, cursor = null, size = 20) => {
+    return api.get(`/issues/${issueId}/comments`, { params: { cursor, size } });
   },
 
   // Delete comment
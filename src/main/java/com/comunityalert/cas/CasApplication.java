@@ -2,12 +2,16 @@ package com.comunityalert.cas;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class CasApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(CasApplication.class, args);
+		SpringApplication app = new SpringApplication(CasApplication.class);
+		// Records startup steps for the startup report and /actuator/startup
+		app.setApplicationStartup(new BufferingApplicationStartup(4096));
+		app.run(args);
 	}
 
 }
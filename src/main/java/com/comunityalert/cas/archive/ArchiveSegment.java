@@ -0,0 +1,519 @@
+package com.comunityalert.cas.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One file of the cold archive: a batch of archived issues in a compact columnar layout.
+ *
+ * Issues are sorted by id and cut into row groups of ROW_GROUP issues. Within a group each column
+ * (ids, titles, categories, ...) is encoded and Deflate-compressed on its own, so like values sit
+ * together and compress well, and reading one issue inflates one group rather than the whole file.
+ *
+ *   "CASARC01" | group 0: column 0 .. column 15 | group 1 ... | footer | footer offset | "CASARC01"
+ *
+ * The footer holds each group's offset and column sizes plus per-segment counts (category, location,
+ * reporter) for the dashboard. Opening a segment reads the footer and inflates only the id columns,
+ * which stay in memory (16 bytes per issue) for lookups by id.
+ */
+final class ArchiveSegment implements Closeable {
+
+    static final int ROW_GROUP = 1024;
+    private static final long MAGIC = 0x4341534152433031L;
+
+    // Columns of a row group, in file order
+    private static final int ID = 0;
+    private static final int TITLE = 1;
+    private static final int DESCRIPTION = 2;
+    private static final int CATEGORY = 3;
+    private static final int STATUS = 4;
+    private static final int LOCATION = 5;
+    private static final int REPORTED_BY = 6;
+    private static final int DUPLICATE_OF = 7;
+    private static final int PHOTO_URL = 8;
+    private static final int DATE_REPORTED = 9;
+    private static final int DATE_RESOLVED = 10;
+    private static final int LAST_ACTIVITY = 11;
+    private static final int COORDINATES = 12;
+    private static final int COMMENT_COUNT = 13;
+    private static final int TAGS = 14;
+    private static final int COMMENTS = 15;
+    private static final int COLUMNS = 16;
+
+    private record Group(long offset, int rows, int[] compressed, int[] raw) {
+        int length() {
+            int length = 0;
+            for (int c : compressed) {
+                length += c;
+            }
+            return length;
+        }
+    }
+
+    private final Path path;
+    private final long bytes;
+    private final Group[] groups;
+    private final long[] idHigh;
+    private final long[] idLow;
+    private final Map<String, Long> byCategory;
+    private final Map<UUID, Long> byLocation;
+    private final Map<UUID, Long> byReporter;
+    private volatile FileChannel channel;
+    private volatile boolean closed;
+
+    private ArchiveSegment(Path path, FileChannel channel, long bytes, Group[] groups, long[] idHigh, long[] idLow,
+                           Map<String, Long> byCategory, Map<UUID, Long> byLocation, Map<UUID, Long> byReporter) {
+        this.path = path;
+        this.channel = channel;
+        this.bytes = bytes;
+        this.groups = groups;
+        this.idHigh = idHigh;
+        this.idLow = idLow;
+        this.byCategory = byCategory;
+        this.byLocation = byLocation;
+        this.byReporter = byReporter;
+    }
+
+    /**
+     * Write issues to a new segment file and fsync it
+     */
+    static void write(Path target, List<ArchivedIssue> issues) throws IOException {
+        List<ArchivedIssue> sorted = new ArrayList<>(issues);
+        sorted.sort(Comparator.comparing(ArchivedIssue::id));
+        Map<String, Long> byCategory = new HashMap<>();
+        Map<UUID, Long> byLocation = new HashMap<>();
+        Map<UUID, Long> byReporter = new HashMap<>();
+        for (ArchivedIssue issue : sorted) {
+            byCategory.merge(issue.category(), 1L, Long::sum);
+            byLocation.merge(issue.locationId(), 1L, Long::sum);
+            if (issue.reportedById() != null) {
+                byReporter.merge(issue.reportedById(), 1L, Long::sum);
+            }
+        }
+
+        Deflater deflater = new Deflater();
+        try (FileOutputStream file = new FileOutputStream(target.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024))) {
+            out.writeLong(MAGIC);
+            long position = Long.BYTES;
+            List<Group> groups = new ArrayList<>();
+            for (int start = 0; start < sorted.size(); start += ROW_GROUP) {
+                List<ArchivedIssue> rows = sorted.subList(start, Math.min(sorted.size(), start + ROW_GROUP));
+                int[] compressed = new int[COLUMNS];
+                int[] raw = new int[COLUMNS];
+                long offset = position;
+                for (int column = 0; column < COLUMNS; column++) {
+                    byte[] encoded = encode(column, rows);
+                    byte[] packed = deflate(deflater, encoded);
+                    out.write(packed);
+                    raw[column] = encoded.length;
+                    compressed[column] = packed.length;
+                    position += packed.length;
+                }
+                groups.add(new Group(offset, rows.size(), compressed, raw));
+            }
+
+            out.writeInt(groups.size());
+            for (Group group : groups) {
+                out.writeLong(group.offset());
+                out.writeInt(group.rows());
+                for (int column = 0; column < COLUMNS; column++) {
+                    out.writeInt(group.compressed()[column]);
+                    out.writeInt(group.raw()[column]);
+                }
+            }
+            out.writeInt(byCategory.size());
+            for (Map.Entry<String, Long> e : byCategory.entrySet()) {
+                writeString(out, e.getKey());
+                out.writeLong(e.getValue());
+            }
+            writeCounts(out, byLocation);
+            writeCounts(out, byReporter);
+            out.writeLong(position);
+            out.writeLong(MAGIC);
+            out.flush();
+            file.getFD().sync();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static ArchiveSegment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < 3L * Long.BYTES) {
+                throw new IOException(path + " is not an archive segment");
+            }
+            DataInputStream trailer = stream(read(channel, path, size - 2 * Long.BYTES, 2 * Long.BYTES));
+            long footerOffset = trailer.readLong();
+            if (trailer.readLong() != MAGIC || footerOffset < Long.BYTES || footerOffset > size - 2 * Long.BYTES) {
+                throw new IOException(path + " is not an archive segment");
+            }
+            DataInputStream footer = stream(read(channel, path, footerOffset, (int) (size - 2 * Long.BYTES - footerOffset)));
+            Group[] groups = new Group[footer.readInt()];
+            int issues = 0;
+            for (int g = 0; g < groups.length; g++) {
+                long offset = footer.readLong();
+                int rows = footer.readInt();
+                int[] compressed = new int[COLUMNS];
+                int[] raw = new int[COLUMNS];
+                for (int column = 0; column < COLUMNS; column++) {
+                    compressed[column] = footer.readInt();
+                    raw[column] = footer.readInt();
+                }
+                groups[g] = new Group(offset, rows, compressed, raw);
+                issues += rows;
+            }
+            Map<String, Long> byCategory = new HashMap<>();
+            for (int n = footer.readInt(); n > 0; n--) {
+                byCategory.put(readString(footer), footer.readLong());
+            }
+            Map<UUID, Long> byLocation = readCounts(footer);
+            Map<UUID, Long> byReporter = readCounts(footer);
+
+            long[] idHigh = new long[issues];
+            long[] idLow = new long[issues];
+            int at = 0;
+            for (Group group : groups) {
+                byte[] packed = read(channel, path, group.offset(), group.compressed()[ID]);
+                DataInputStream ids = stream(inflate(path, packed, 0, packed.length, group.raw()[ID]));
+                for (int i = 0; i < group.rows(); i++) {
+                    idHigh[at + i] = ids.readLong();
+                }
+                for (int i = 0; i < group.rows(); i++) {
+                    idLow[at + i] = ids.readLong();
+                }
+                at += group.rows();
+            }
+            return new ArchiveSegment(path, channel, size, groups, idHigh, idLow, byCategory, byLocation, byReporter);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int size() {
+        return idHigh.length;
+    }
+
+    long bytes() {
+        return bytes;
+    }
+
+    UUID firstId() {
+        return idHigh.length == 0 ? null : new UUID(idHigh[0], idLow[0]);
+    }
+
+    Map<String, Long> byCategory() {
+        return byCategory;
+    }
+
+    Map<UUID, Long> byLocation() {
+        return byLocation;
+    }
+
+    long countByReporter(UUID reporterId) {
+        return byReporter.getOrDefault(reporterId, 0L);
+    }
+
+    boolean contains(UUID id) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * The archived issue, or null if it is not in this segment
+     */
+    ArchivedIssue find(UUID id) throws IOException {
+        int index = indexOf(id);
+        if (index < 0) {
+            return null;
+        }
+        return readGroup(index / ROW_GROUP).get(index % ROW_GROUP);
+    }
+
+    /**
+     * Every issue of the segment, in id order, one row group in memory at a time
+     */
+    void forEach(Consumer<ArchivedIssue> action) throws IOException {
+        for (int g = 0; g < groups.length; g++) {
+            readGroup(g).forEach(action);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        channel.close();
+    }
+
+    private int indexOf(UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        int lo = 0;
+        int hi = idHigh.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            // Same order as UUID.compareTo, which the writer sorted by
+            int c = idHigh[mid] != high ? Long.compare(idHigh[mid], high) : Long.compare(idLow[mid], low);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private List<ArchivedIssue> readGroup(int g) throws IOException {
+        Group group = groups[g];
+        byte[] packed = read(channel(), path, group.offset(), group.length());
+        DataInputStream[] in = new DataInputStream[COLUMNS];
+        int offset = 0;
+        for (int column = 0; column < COLUMNS; column++) {
+            in[column] = stream(inflate(path, packed, offset, group.compressed()[column], group.raw()[column]));
+            offset += group.compressed()[column];
+        }
+
+        int rows = group.rows();
+        long[] high = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            high[i] = in[ID].readLong();
+        }
+        List<ArchivedIssue> issues = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            UUID id = new UUID(high[i], in[ID].readLong());
+            Double latitude = null;
+            Double longitude = null;
+            if (in[COORDINATES].readBoolean()) {
+                latitude = in[COORDINATES].readDouble();
+                longitude = in[COORDINATES].readDouble();
+            }
+            List<ArchivedIssue.Tag> tags = new ArrayList<>();
+            for (int n = in[TAGS].readInt(); n > 0; n--) {
+                tags.add(new ArchivedIssue.Tag(readUuid(in[TAGS]), readString(in[TAGS])));
+            }
+            List<ArchivedIssue.Comment> comments = new ArrayList<>();
+            for (int n = in[COMMENTS].readInt(); n > 0; n--) {
+                DataInputStream c = in[COMMENTS];
+                comments.add(new ArchivedIssue.Comment(readUuid(c), readInstant(c), readUuid(c), readString(c), readString(c)));
+            }
+            issues.add(new ArchivedIssue(id, readString(in[TITLE]), readString(in[DESCRIPTION]),
+                readString(in[CATEGORY]), readString(in[STATUS]), readUuid(in[LOCATION]), readUuid(in[REPORTED_BY]),
+                readUuid(in[DUPLICATE_OF]), readString(in[PHOTO_URL]), readInstant(in[DATE_REPORTED]),
+                readInstant(in[DATE_RESOLVED]), readInstant(in[LAST_ACTIVITY]), latitude, longitude,
+                in[COMMENT_COUNT].readInt(), tags, comments));
+        }
+        return issues;
+    }
+
+    private static byte[] encode(int column, List<ArchivedIssue> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        if (column == ID) {
+            for (ArchivedIssue issue : rows) {
+                out.writeLong(issue.id().getMostSignificantBits());
+            }
+            for (ArchivedIssue issue : rows) {
+                out.writeLong(issue.id().getLeastSignificantBits());
+            }
+            return bytes.toByteArray();
+        }
+        for (ArchivedIssue issue : rows) {
+            switch (column) {
+                case TITLE -> writeString(out, issue.title());
+                case DESCRIPTION -> writeString(out, issue.description());
+                case CATEGORY -> writeString(out, issue.category());
+                case STATUS -> writeString(out, issue.status());
+                case LOCATION -> writeUuid(out, issue.locationId());
+                case REPORTED_BY -> writeUuid(out, issue.reportedById());
+                case DUPLICATE_OF -> writeUuid(out, issue.duplicateOfId());
+                case PHOTO_URL -> writeString(out, issue.photoUrl());
+                case DATE_REPORTED -> writeInstant(out, issue.dateReported());
+                case DATE_RESOLVED -> writeInstant(out, issue.dateResolved());
+                case LAST_ACTIVITY -> writeInstant(out, issue.lastActivityAt());
+                case COORDINATES -> {
+                    boolean present = issue.latitude() != null && issue.longitude() != null;
+                    out.writeBoolean(present);
+                    if (present) {
+                        out.writeDouble(issue.latitude());
+                        out.writeDouble(issue.longitude());
+                    }
+                }
+                case COMMENT_COUNT -> out.writeInt(issue.commentCount());
+                case TAGS -> {
+                    out.writeInt(issue.tags().size());
+                    for (ArchivedIssue.Tag tag : issue.tags()) {
+                        writeUuid(out, tag.id());
+                        writeString(out, tag.name());
+                    }
+                }
+                case COMMENTS -> {
+                    out.writeInt(issue.comments().size());
+                    for (ArchivedIssue.Comment comment : issue.comments()) {
+                        writeUuid(out, comment.id());
+                        writeInstant(out, comment.createdAt());
+                        writeUuid(out, comment.createdById());
+                        writeString(out, comment.createdByName());
+                        writeString(out, comment.message());
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown column " + column);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] data) {
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+        byte[] buffer = new byte[16 * 1024];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] inflate(Path path, byte[] data, int offset, int length, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, length);
+            byte[] raw = new byte[rawLength];
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                int k = inflater.inflate(raw, n, rawLength - n);
+                if (k == 0 && inflater.needsInput()) {
+                    break;
+                }
+                n += k;
+            }
+            if (n != rawLength) {
+                throw new IOException(path + " has a damaged column");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException(path + " has a damaged column", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /** The open channel; reopened if an interrupted reader closed it (FileChannel closes on interrupt) */
+    private FileChannel channel() throws IOException {
+        FileChannel current = channel;
+        if (current.isOpen() || closed) {
+            return current;
+        }
+        synchronized (this) {
+            if (!channel.isOpen() && !closed) {
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+            }
+            return channel;
+        }
+    }
+
+    private static byte[] read(FileChannel channel, Path path, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException(path + " is truncated");
+            }
+        }
+        return buffer.array();
+    }
+
+    private static DataInputStream stream(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+
+    private static void writeCounts(DataOutputStream out, Map<UUID, Long> counts) throws IOException {
+        out.writeInt(counts.size());
+        for (Map.Entry<UUID, Long> e : counts.entrySet()) {
+            writeUuid(out, e.getKey());
+            out.writeLong(e.getValue());
+        }
+    }
+
+    private static Map<UUID, Long> readCounts(DataInputStream in) throws IOException {
+        Map<UUID, Long> counts = new HashMap<>();
+        for (int n = in.readInt(); n > 0; n--) {
+            counts.put(readUuid(in), in.readLong());
+        }
+        return counts;
+    }
+
+    // Strings are length-prefixed UTF-8 (-1 for null): writeUTF stops at 64 KB and descriptions may not
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+
+    // Microseconds since the epoch, the precision of the timestamp(6) columns; Long.MIN_VALUE for null
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeLong(value == null ? Long.MIN_VALUE : value.getEpochSecond() * 1_000_000L + value.getNano() / 1_000);
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        long micros = in.readLong();
+        return micros == Long.MIN_VALUE ? null
+            : Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+}
@@ -0,0 +1,39 @@
+package com.comunityalert.cas.archive;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A resolved issue as stored in the cold archive: its columns, tags and comments as they were when it
+ * was archived. Locations and users are kept by id only (and comment authors by name as well), so a
+ * record stays readable after they change or are deleted.
+ */
+public record ArchivedIssue(
+        UUID id,
+        String title,
+        String description,
+        String category,
+        String status,
+        UUID locationId,
+        UUID reportedById,
+        UUID duplicateOfId,
+        String photoUrl,
+        Instant dateReported,
+        Instant dateResolved,
+        Instant lastActivityAt,
+        Double latitude,
+        Double longitude,
+        int commentCount,
+        List<Tag> tags,
+        List<Comment> comments) {
+
+    public record Tag(UUID id, String name) {
+    }
+
+    /**
+     * createdByName is the author's full name (or email) at archiving time
+     */
+    public record Comment(UUID id, Instant createdAt, UUID createdById, String createdByName, String message) {
+    }
+}
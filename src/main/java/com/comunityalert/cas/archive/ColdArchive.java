@@ -0,0 +1,272 @@
+package com.comunityalert.cas.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.comunityalert.cas.datasource.ShardRouter;
+import com.comunityalert.cas.repository.IssueRepository;
+import com.comunityalert.cas.startup.StartupReport;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Read side of the cold archive: segment files (ArchiveSegment) under cas.archive.dir holding the
+ * resolved issues IssueArchiver moved out of the database, with their tags and comments.
+ *
+ * Segments are opened at startup (ApplicationRunner, before readiness). Only footers and id columns are
+ * read, so a lookup by id is a binary search per segment and, on a hit, inflating one row group.
+ * IssueArchiver writes a segment as *.pending, deletes its issues, and renames it to *.seg after the
+ * commit. A *.pending file left by a crash is kept if its issues are gone from the database (the
+ * commit happened) and deleted otherwise.
+ *
+ * cas.archive.dir must be an absolute path, on storage every instance mounts: archived issues exist
+ * nowhere else. Without it the archive is empty and IssueArchiver refuses to start.
+ */
+@Component
+public class ColdArchive implements ApplicationRunner {
+
+    private static final String SEGMENT = ".seg";
+    private static final String PENDING = ".pending";
+
+    /**
+     * Size of the archive: segment files, archived issues and bytes on disk
+     */
+    public record Stats(int segments, long issues, long bytes) {
+    }
+
+    private final IssueRepository issueRepo;
+    private final ShardRouter shards;
+    private final StartupReport startupReport;
+    private final Path dir;
+    private final List<ArchiveSegment> segments = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ColdArchive(IssueRepository issueRepo, ShardRouter shards, StartupReport startupReport,
+                       MeterRegistry registry,
+                       @Value("${cas.archive.dir:}") String dir) throws IOException {
+        this.issueRepo = issueRepo;
+        this.shards = shards;
+        this.startupReport = startupReport;
+        if (dir.isBlank()) {
+            this.dir = null;
+        } else {
+            Path path = Path.of(dir);
+            if (!path.isAbsolute()) {
+                throw new IllegalStateException("cas.archive.dir=" + dir + ": must be an absolute path");
+            }
+            this.dir = path.normalize();
+            Files.createDirectories(this.dir);
+        }
+        Gauge.builder("cas.archive.issues", this, ColdArchive::count)
+            .description("Resolved issues held in the cold archive")
+            .register(registry);
+    }
+
+    /**
+     * Whether cas.archive.dir is set; without it there is nothing to read and nowhere to write
+     */
+    public boolean isConfigured() {
+        return dir != null;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (dir == null) {
+            return;
+        }
+        startupReport.time("cold archive", () -> {
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> listing = Files.newDirectoryStream(dir)) {
+                listing.forEach(files::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            files.sort(null);
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    if (name.endsWith(PENDING)) {
+                        recover(file);
+                    } else if (name.endsWith(SEGMENT)) {
+                        segments.add(ArchiveSegment.open(file));
+                    }
+                } catch (IOException e) {
+                    // Its issues are unreadable until the file is restored, but the rest of the archive is not
+                    System.err.println("Cold archive: skipping " + file + ": " + e.getMessage());
+                }
+            }
+            Stats stats = stats();
+            System.out.println("Cold archive: " + stats.issues() + " issues in " + stats.segments() + " segments, "
+                + stats.bytes() / 1024 + " KB");
+        });
+    }
+
+    public boolean contains(UUID issueId) {
+        for (ArchiveSegment segment : segments) {
+            if (segment.contains(issueId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Optional<ArchivedIssue> find(UUID issueId) {
+        try {
+            for (ArchiveSegment segment : segments) {
+                ArchivedIssue issue = segment.find(issueId);
+                if (issue != null) {
+                    return Optional.of(issue);
+                }
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Every archived issue, segment by segment; only one row group is held in memory at a time
+     */
+    public void forEach(Consumer<ArchivedIssue> action) {
+        try {
+            for (ArchiveSegment segment : segments) {
+                segment.forEach(action);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long count() {
+        long count = 0;
+        for (ArchiveSegment segment : segments) {
+            count += segment.size();
+        }
+        return count;
+    }
+
+    public long countByReporter(UUID reporterId) {
+        long count = 0;
+        for (ArchiveSegment segment : segments) {
+            count += segment.countByReporter(reporterId);
+        }
+        return count;
+    }
+
+    /**
+     * Archived issues per category (the key is null for issues without one)
+     */
+    public Map<String, Long> countByCategory() {
+        Map<String, Long> counts = new HashMap<>();
+        for (ArchiveSegment segment : segments) {
+            segment.byCategory().forEach((category, n) -> counts.merge(category, n, Long::sum));
+        }
+        return counts;
+    }
+
+    /**
+     * Archived issues per location id (the key is null for issues without one)
+     */
+    public Map<UUID, Long> countByLocation() {
+        Map<UUID, Long> counts = new HashMap<>();
+        for (ArchiveSegment segment : segments) {
+            segment.byLocation().forEach((location, n) -> counts.merge(location, n, Long::sum));
+        }
+        return counts;
+    }
+
+    public Stats stats() {
+        long issues = 0;
+        long bytes = 0;
+        for (ArchiveSegment segment : segments) {
+            issues += segment.size();
+            bytes += segment.bytes();
+        }
+        return new Stats(segments.size(), issues, bytes);
+    }
+
+    /**
+     * Write a batch to a new *.pending file; it becomes visible only once published
+     */
+    Path writePending(List<ArchivedIssue> issues) throws IOException {
+        Path pending = dir.resolve("issues-" + System.currentTimeMillis() + "-" + sequence.incrementAndGet() + PENDING);
+        try {
+            ArchiveSegment.write(pending, issues);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(pending);
+            throw e;
+        }
+        return pending;
+    }
+
+    /**
+     * Make a pending segment part of the archive (after its issues were deleted from the database)
+     */
+    void publish(Path pending) throws IOException {
+        String name = pending.getFileName().toString();
+        Path segment = pending.resolveSibling(name.substring(0, name.length() - PENDING.length()) + SEGMENT);
+        Files.move(pending, segment, StandardCopyOption.ATOMIC_MOVE);
+        segments.add(ArchiveSegment.open(segment));
+    }
+
+    /**
+     * Drop a pending segment whose transaction rolled back
+     */
+    void discard(Path pending) {
+        try {
+            Files.deleteIfExists(pending);
+        } catch (IOException e) {
+            System.err.println("Cold archive: could not delete " + pending + ": " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        for (ArchiveSegment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException ignored) {
+                // shutting down
+            }
+        }
+    }
+
+    private void recover(Path pending) throws IOException {
+        UUID probe;
+        try (ArchiveSegment segment = ArchiveSegment.open(pending)) {
+            probe = segment.firstId();
+        } catch (IOException e) {
+            // Never completely written, so its transaction never committed
+            discard(pending);
+            return;
+        }
+        // A batch comes from one shard, which still has its issues if it was rolled back
+        if (probe != null && shards.find(() -> issueRepo.existsById(probe)) != null) {
+            discard(pending);
+            System.out.println("Cold archive: discarded " + pending.getFileName() + " (its batch was rolled back)");
+        } else {
+            publish(pending);
+            System.out.println("Cold archive: published " + pending.getFileName() + " left by an interrupted run");
+        }
+    }
+}
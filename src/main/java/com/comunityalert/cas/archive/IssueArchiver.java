@@ -0,0 +1,232 @@
+package com.comunityalert.cas.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.comunityalert.cas.datasource.ShardRouter;
+import com.comunityalert.cas.geo.GeoIndex;
+import com.comunityalert.cas.model.IssueReport;
+import com.comunityalert.cas.repository.CommentRepository;
+import com.comunityalert.cas.repository.IssueRepository;
+import com.comunityalert.cas.repository.NotificationRepository;
+import com.comunityalert.cas.service.TagService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Moves resolved issues older than cas.archive.min-age (by resolution date) from the database into
+ * the cold archive, with their tags and comments. Runs every cas.archive.interval on its own thread,
+ * first after initial-delay, and on demand from ArchiveController.
+ *
+ * Each batch of batch-size issues is one transaction. The issues are locked (FOR UPDATE SKIP LOCKED,
+ * so a concurrent reopen either waits for the batch or is skipped by it) and written to a pending
+ * segment. Then they are deleted with their tag links (released from the tags' usage counts, as for a
+ * deleted issue) and comments. Their notifications stay, unlinked,
+ * and so do their status events, which feed the resolution-time analytics. The segment is published
+ * once the transaction has committed. With issue shards, each shard's issues are archived in turn;
+ * a segment never mixes shards. One pass runs at a time: a run requested while another is in progress
+ * is skipped rather than queued.
+ */
+@Component
+@ConditionalOnProperty(name = "cas.archive.enabled", havingValue = "true")
+public class IssueArchiver {
+
+    /**
+     * Outcome of one archiving pass
+     */
+    public record Run(int issues, int segments, long millis) {
+    }
+
+    private final IssueRepository issueRepo;
+    private final CommentRepository commentRepo;
+    private final NotificationRepository notificationRepo;
+    private final ColdArchive archive;
+    private final GeoIndex geoIndex;
+    private final TagService tagService;
+    private final ShardRouter shards;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int batchSize;
+    private final Counter archived;
+    // A lock rather than synchronized: a pass does JDBC and file I/O, which must not pin a virtual thread
+    private final ReentrantLock running = new ReentrantLock();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "issue-archiver");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public IssueArchiver(IssueRepository issueRepo, CommentRepository commentRepo,
+                         NotificationRepository notificationRepo, ColdArchive archive, GeoIndex geoIndex,
+                         TagService tagService, ShardRouter shards,
+                         PlatformTransactionManager transactionManager, MeterRegistry registry,
+                         @Value("${cas.archive.min-age:365d}") Duration minAge,
+                         @Value("${cas.archive.batch-size:5000}") int batchSize,
+                         @Value("${cas.archive.interval:24h}") Duration interval,
+                         @Value("${cas.archive.initial-delay:1h}") Duration initialDelay) {
+        if (!archive.isConfigured()) {
+            throw new IllegalStateException("cas.archive.enabled=true needs cas.archive.dir (an absolute path)");
+        }
+        this.issueRepo = issueRepo;
+        this.commentRepo = commentRepo;
+        this.notificationRepo = notificationRepo;
+        this.archive = archive;
+        this.geoIndex = geoIndex;
+        this.tagService = tagService;
+        this.shards = shards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minAge = minAge;
+        this.batchSize = Math.max(1, batchSize);
+        this.archived = Counter.builder("cas.archive.archived")
+            .description("Resolved issues moved from the database to the cold archive")
+            .register(registry);
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                archive().ifPresent(run -> {
+                    if (run.issues() > 0) {
+                        System.out.println("Archived " + run.issues() + " resolved issues into " + run.segments()
+                            + " segments in " + run.millis() + " ms");
+                    }
+                });
+            } catch (RuntimeException e) {
+                System.err.println("Issue archiving failed: " + e.getMessage());
+            }
+        }, initialDelay.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Archive every issue that qualifies now, batch by batch.
+     * Empty when another pass is already running.
+     */
+    public Optional<Run> archive() {
+        if (!running.tryLock()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(archiveAll());
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private Run archiveAll() {
+        long start = System.nanoTime();
+        Instant cutoff = Instant.now().minus(minAge);
+        int issues = 0;
+        int segments = 0;
+        for (String shard : shards.shards()) {
+            int n;
+            do {
+                n = shards.on(shard, () -> archiveBatch(cutoff));
+                if (n > 0) {
+                    issues += n;
+                    segments++;
+                }
+            } while (n == batchSize);
+        }
+        return new Run(issues, segments, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private int archiveBatch(Instant cutoff) {
+        Path[] pending = new Path[1];
+        List<ArchivedIssue> batch;
+        try {
+            batch = transactionTemplate.execute(status -> {
+                List<UUID> ids = issueRepo.lockArchivable(cutoff, batchSize);
+                if (ids.isEmpty()) {
+                    return List.of();
+                }
+                List<ArchivedIssue> issues = load(ids);
+                try {
+                    pending[0] = archive.writePending(issues);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                notificationRepo.unlinkIssues(ids);
+                commentRepo.deleteByIssueIds(ids);
+                issueRepo.deleteTagLinks(ids);
+                Map<UUID, Long> links = new HashMap<>();
+                issues.forEach(i -> i.tags().forEach(t -> links.merge(t.id(), 1L, Long::sum)));
+                shards.afterCommitOnHome(() -> tagService.releaseUsage(links));
+                issueRepo.deleteAllByIdIn(ids);
+                return issues;
+            });
+        } catch (RuntimeException e) {
+            if (pending[0] != null) {
+                archive.discard(pending[0]);
+            }
+            throw e;
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            archive.publish(pending[0]);
+        } catch (IOException e) {
+            // Committed: the file stays *.pending and ColdArchive publishes it at the next startup
+            throw new UncheckedIOException(e);
+        }
+        for (ArchivedIssue issue : batch) {
+            shards.forget(issue.id());
+            if (issue.latitude() != null && issue.longitude() != null) {
+                geoIndex.remove(issue.id(), issue.latitude(), issue.longitude());
+            }
+        }
+        archived.increment(batch.size());
+        return batch.size();
+    }
+
+    private List<ArchivedIssue> load(List<UUID> ids) {
+        Map<UUID, List<ArchivedIssue.Comment>> comments = new HashMap<>();
+        for (Object[] row : commentRepo.findForArchive(ids)) {
+            String author = (String) row[4];
+            if (author == null || author.isEmpty()) {
+                author = (String) row[5];
+            }
+            comments.computeIfAbsent((UUID) row[0], k -> new ArrayList<>())
+                .add(new ArchivedIssue.Comment((UUID) row[1], (Instant) row[2], (UUID) row[3], author, (String) row[6]));
+        }
+        List<ArchivedIssue> issues = new ArrayList<>(ids.size());
+        for (IssueReport i : issueRepo.findAllWithRelationsByIdIn(ids)) {
+            List<ArchivedIssue.Tag> tags = i.getTags().stream()
+                .map(t -> new ArchivedIssue.Tag(t.getId(), t.getName()))
+                .sorted(Comparator.comparing(ArchivedIssue.Tag::name))
+                .toList();
+            issues.add(new ArchivedIssue(i.getId(), i.getTitle(), i.getDescription(), i.getCategory(),
+                i.getStatus() == null ? null : i.getStatus().name(),
+                i.getLocation() == null ? null : i.getLocation().getId(),
+                i.getReportedBy() == null ? null : i.getReportedBy().getId(),
+                i.getDuplicateOfId(), i.getPhotoUrl(), i.getDateReported(), i.getDateResolved(), i.getLastActivityAt(),
+                i.getLatitude(), i.getLongitude(), i.getCommentCount(), tags,
+                comments.getOrDefault(i.getId(), List.of())));
+        }
+        return issues;
+    }
+}
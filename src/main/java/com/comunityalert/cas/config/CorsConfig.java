@@ -1,7 +1,9 @@
 package com.comunityalert.cas.config;
 
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
@@ -9,8 +11,12 @@ import org.springframework.web.filter.CorsFilter;
 @Configuration
 public class CorsConfig {
 
+    /**
+     * Runs right after TracingFilter and ahead of RateLimitFilter and LoadSheddingFilter, so their 429/503
+     * answers carry the CORS headers the frontend needs to read them, and preflights are answered here
+     */
     @Bean
-    public CorsFilter corsFilter() {
+    public FilterRegistrationBean<CorsFilter> corsFilter() {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         CorsConfiguration config = new CorsConfiguration();
         
@@ -18,8 +24,12 @@ public class CorsConfig {
         config.addAllowedOrigin("http://localhost:5173"); // Your frontend URL
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
+        // Readable by the frontend on a 429/503
+        config.addExposedHeader("Retry-After");
         
         source.registerCorsConfiguration("/**", config);
-        return new CorsFilter(source);
+        FilterRegistrationBean<CorsFilter> registration = new FilterRegistrationBean<>(new CorsFilter(source));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package com.comunityalert.cas.config;
+
+import java.util.List;
+
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.comunityalert.cas.metrics.CountingStatementInspector;
+import com.comunityalert.cas.metrics.PersistenceStatsIntegrator;
+import com.comunityalert.cas.service.JwtService;
+import com.comunityalert.cas.service.OtpService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Hook the per-request persistence counters into Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer persistenceStatsCustomizer() {
+        return properties -> {
+            properties.put("hibernate.session_factory.statement_inspector", new CountingStatementInspector());
+            properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(new PersistenceStatsIntegrator()));
+        };
+    }
+
+    /**
+     * Sizes of the in-memory auth stores (they only shrink on logout / OTP use, so growth shows up here)
+     */
+    @Bean
+    public MeterBinder authStoreMetrics(JwtService jwtService, OtpService otpService) {
+        return registry -> {
+            Gauge.builder("cas.auth.tokens", jwtService, JwtService::getTokenCount)
+                .description("Session tokens held by JwtService")
+                .register(registry);
+            Gauge.builder("cas.auth.temp.tokens", jwtService, JwtService::getTempTokenCount)
+                .description("Pre-OTP temp tokens held by JwtService")
+                .register(registry);
+            Gauge.builder("cas.auth.otps", otpService, OtpService::getPendingCount)
+                .description("Pending OTP codes held by OtpService")
+                .register(registry);
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.comunityalert.cas.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.comunityalert.cas.datasource.ReadWriteDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read/write split, enabled by setting cas.datasource.replica.url.
+ * Writes and ordinary transactions use spring.datasource.* (the primary);
+ * @Transactional(readOnly = true) uses the replica, except under read-your-writes (ReadYourWritesFilter).
+ * Without a replica URL Boot's single pool is used unchanged. Not combined with issue shards (ShardConfig).
+ */
+@Configuration
+@ConditionalOnProperty(name = "cas.datasource.replica.url")
+@ConditionalOnProperty(name = "cas.shards.enabled", havingValue = "false", matchIfMissing = true)
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReadWriteDataSource dataSource(DataSourceProperties properties, Environment env,
+                                          ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(env);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        HikariDataSource replica = new HikariDataSource();
+        replica.setJdbcUrl(env.getProperty("cas.datasource.replica.url"));
+        replica.setUsername(env.getProperty("cas.datasource.replica.username", properties.determineUsername()));
+        replica.setPassword(env.getProperty("cas.datasource.replica.password", properties.determinePassword()));
+        replica.setMaximumPoolSize(primary.getMaximumPoolSize());
+        binder.bind("cas.datasource.replica.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+
+        // Both pools report hikaricp.* meters, tagged pool=primary / pool=replica
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+        return new ReadWriteDataSource(primary, replica);
+    }
+}
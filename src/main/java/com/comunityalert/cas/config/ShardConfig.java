@@ -0,0 +1,180 @@
+package com.comunityalert.cas.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.comunityalert.cas.datasource.ShardRouter;
+import com.comunityalert.cas.datasource.ShardedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Issue shards, enabled by cas.shards.enabled=true. spring.datasource.* is the home database, which keeps
+ * everything that is not issue data; each cas.shards.nodes.<name>.url is a shard node holding the issues
+ * (with their tags links, comments, status events and notifications) of the provinces mapped to it by
+ * cas.shards.provinces.*. ShardRouter decides where each query goes.
+ *
+ * Every node gets the full Flyway schema. Users, profiles, locations and tags are only written on the home
+ * database and reach the nodes by logical replication (set up here when cas.shards.replicate-from is given),
+ * so on the nodes the foreign keys into them are dropped: a row may arrive there after an issue that uses it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cas.shards.enabled", havingValue = "true")
+public class ShardConfig {
+
+    private static final String PUBLICATION = "cas_reference";
+    private static final List<String> REFERENCE_TABLES = List.of("locations", "users", "user_profiles", "tags");
+
+    @Bean
+    public ShardedDataSource dataSource(DataSourceProperties properties, Environment env,
+                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(env);
+
+        HikariDataSource home = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(home));
+        home.setPoolName(ShardRouter.HOME);
+
+        Map<String, HikariDataSource> shards = new LinkedHashMap<>();
+        for (String name : binder.bind("cas.shards.nodes", Bindable.mapOf(String.class, Object.class))
+                .orElse(Map.of()).keySet()) {
+            String prefix = "cas.shards.nodes." + name;
+            if (name.equals(ShardRouter.HOME)) {
+                throw new IllegalStateException("cas.shards.nodes.home: '" + ShardRouter.HOME
+                    + "' is the spring.datasource database and cannot be a node name");
+            }
+            HikariDataSource shard = new HikariDataSource();
+            shard.setJdbcUrl(env.getRequiredProperty(prefix + ".url"));
+            shard.setUsername(env.getProperty(prefix + ".username", properties.determineUsername()));
+            shard.setPassword(env.getProperty(prefix + ".password", properties.determinePassword()));
+            shard.setMaximumPoolSize(home.getMaximumPoolSize());
+            binder.bind(prefix + ".hikari", Bindable.ofInstance(shard));
+            shard.setPoolName(name);
+            shards.put(name, shard);
+        }
+
+        // Every pool reports hikaricp.* meters, tagged pool=home / pool=<node>
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            home.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            shards.values().forEach(s -> s.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        }
+        return new ShardedDataSource(home, shards);
+    }
+
+    /**
+     * Migrate the home database, then every node; on the nodes, drop the foreign keys into the replicated
+     * tables and subscribe to them
+     */
+    @Bean
+    public FlywayMigrationStrategy shardMigrations(DataSource dataSourceBean, Environment env) {
+        String replicateFrom = env.getProperty("cas.shards.replicate-from", "");
+        return flyway -> {
+            // The bean may be wrapped (SlowQueryLogConfig)
+            ShardedDataSource dataSource;
+            try {
+                dataSource = dataSourceBean.unwrap(ShardedDataSource.class);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Shard setup failed: " + e.getMessage(), e);
+            }
+            flyway.migrate();
+            if (!replicateFrom.isBlank()) {
+                run(dataSource.getHome(), this::publish);
+            }
+            dataSource.getShards().forEach((name, pool) -> {
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(pool).load().migrate();
+                run(pool, this::dropReferenceForeignKeys);
+                if (!replicateFrom.isBlank()) {
+                    run(pool, connection -> subscribe(connection, name, replicateFrom));
+                }
+            });
+        };
+    }
+
+    private void publish(Connection connection) throws SQLException {
+        if (exists(connection, "SELECT 1 FROM pg_publication WHERE pubname = ?", PUBLICATION)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE PUBLICATION " + PUBLICATION + " FOR TABLE " + String.join(", ", REFERENCE_TABLES));
+        }
+        System.out.println("Shards: published " + REFERENCE_TABLES + " as " + PUBLICATION);
+    }
+
+    private void subscribe(Connection connection, String shard, String conninfo) throws SQLException {
+        String subscription = PUBLICATION + "_" + shard.toLowerCase().replaceAll("[^a-z0-9_]", "_");
+        if (exists(connection, "SELECT 1 FROM pg_subscription WHERE subname = ?", subscription)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            // Copies the current rows first, then streams every change
+            statement.execute("CREATE SUBSCRIPTION " + subscription + " CONNECTION '" + conninfo.replace("'", "''")
+                + "' PUBLICATION " + PUBLICATION);
+        }
+        System.out.println("Shards: " + shard + " subscribed to " + PUBLICATION);
+    }
+
+    private void dropReferenceForeignKeys(Connection connection) throws SQLException {
+        List<String[]> constraints = new ArrayList<>();
+        String tables = "'" + String.join("'::regclass, '", REFERENCE_TABLES) + "'::regclass";
+        // Partitions' copies (conparentid <> 0) go with their parent's
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT conrelid::regclass::text, conname FROM pg_constraint"
+                 + " WHERE contype = 'f' AND conparentid = 0 AND confrelid IN (" + tables + ")"
+                 + " AND conrelid NOT IN (" + tables + ")")) {
+            while (rows.next()) {
+                constraints.add(new String[] {rows.getString(1), rows.getString(2)});
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String[] c : constraints) {
+                statement.execute("ALTER TABLE " + c[0] + " DROP CONSTRAINT \"" + c[1].replace("\"", "\"\"") + "\"");
+            }
+        }
+    }
+
+    private static boolean exists(Connection connection, String sql, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, name);
+            try (ResultSet rows = statement.executeQuery()) {
+                return rows.next();
+            }
+        }
+    }
+
+    private static void run(DataSource dataSource, SqlStep step) {
+        try (Connection connection = dataSource.getConnection()) {
+            // CREATE SUBSCRIPTION refuses to run inside a transaction block
+            connection.setAutoCommit(true);
+            step.apply(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Shard setup failed: " + e.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlStep {
+        void apply(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,54 @@
+package com.comunityalert.cas.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.comunityalert.cas.metrics.SlowQueryListener;
+import com.comunityalert.cas.tracing.TracingQueryListener;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Times every JDBC statement and logs the slow ones (plus a sample of the rest) with their endpoint.
+ * Replaces show-sql / org.hibernate.SQL=DEBUG, which formatted and printed every statement synchronously.
+ * The same proxy feeds JDBC time into sampled request traces. Each listener has its own switch
+ * (cas.sql.slow-query.enabled, cas.tracing.enabled); the pool is only wrapped when one of them is on.
+ */
+@Configuration
+public class SlowQueryLogConfig {
+
+    /**
+     * Wrap the pool in a timing proxy. Static so it is registered before the DataSource is created.
+     */
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourceProxy(Environment env) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                boolean slowQueries = env.getProperty("cas.sql.slow-query.enabled", Boolean.class, true);
+                boolean tracing = env.getProperty("cas.tracing.enabled", Boolean.class, true);
+                if (!slowQueries && !tracing) {
+                    return bean;
+                }
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource).name(beanName);
+                if (slowQueries) {
+                    long thresholdMs = env.getProperty("cas.sql.slow-query.threshold-ms", Long.class, 200L);
+                    double sampleRate = env.getProperty("cas.sql.slow-query.sample-rate", Double.class, 0.0);
+                    builder.listener(new SlowQueryListener(thresholdMs, sampleRate));
+                }
+                if (tracing) {
+                    builder.listener(new TracingQueryListener());
+                }
+                return builder.build();
+            }
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.comunityalert.cas.controller;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.comunityalert.cas.archive.ColdArchive;
+import com.comunityalert.cas.archive.IssueArchiver;
+import com.comunityalert.cas.enums.Role;
+import com.comunityalert.cas.model.User;
+import com.comunityalert.cas.service.JwtService;
+import com.comunityalert.cas.service.UserService;
+
+/**
+ * Cold archive of old resolved issues (ADMIN only)
+ */
+@RestController
+@RequestMapping("/api/admin/archive")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ArchiveController {
+
+    private final ColdArchive archive;
+    private final ObjectProvider<IssueArchiver> archiver;
+    private final JwtService jwtService;
+    private final UserService userService;
+
+    public ArchiveController(ColdArchive archive, ObjectProvider<IssueArchiver> archiver, JwtService jwtService,
+                             UserService userService) {
+        this.archive = archive;
+        this.archiver = archiver;
+        this.jwtService = jwtService;
+        this.userService = userService;
+    }
+
+    private boolean isAdmin(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return false;
+        }
+        String userId = jwtService.getUserIdFromToken(authHeader.substring(7));
+        if (userId == null) {
+            return false;
+        }
+        try {
+            User user = userService.getUserEntity(UUID.fromString(userId)).orElse(null);
+            return user != null && user.getRole() == Role.ADMIN;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Segments, archived issues and bytes on disk
+     * GET /api/admin/archive
+     */
+    @GetMapping
+    public ResponseEntity<?> stats(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (!isAdmin(authHeader)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Only administrators can view the archive"));
+        }
+        return ResponseEntity.ok(archive.stats());
+    }
+
+    /**
+     * Archive the issues that qualify now instead of waiting for the next scheduled run
+     * POST /api/admin/archive/run
+     */
+    @PostMapping("/run")
+    public ResponseEntity<?> run(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (!isAdmin(authHeader)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Only administrators can run the archiver"));
+        }
+        IssueArchiver issueArchiver = archiver.getIfAvailable();
+        if (issueArchiver == null) {
+            return ResponseEntity.status(409).body(Map.of("error", "Archiving is disabled (cas.archive.enabled=false)"));
+        }
+        return issueArchiver.archive()
+            .<ResponseEntity<?>>map(run -> ResponseEntity.ok(Map.of("run", run, "archive", archive.stats())))
+            .orElseGet(() -> ResponseEntity.status(409).body(Map.of("error", "Archive already running")));
+    }
+}
@@ -8,7 +8,7 @@ import com.comunityalert.cas.service.IssueService;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -27,13 +27,7 @@ public class CommentController {
      */
     @PostMapping
     public ResponseEntity<Comment> add(@PathVariable UUID issueId, @RequestBody CreateCommentDTO dto) {
-        IssueReport issue = issueService.getById(issueId)
-            .orElseThrow(() -> new RuntimeException("Issue not found"));
-        
-        Comment comment = commentService.addCommentFromDTO(dto);
-        comment.setIssue(issue);
-        
-        return ResponseEntity.ok(commentService.addComment(comment));
+        return ResponseEntity.ok(commentService.addCommentFromDTO(issueId, dto));
     }
 
     /**
@@ -43,13 +37,27 @@ public class CommentController {
     public ResponseEntity<Comment> addFromEntity(@PathVariable UUID issueId, @RequestBody Comment c) {
         IssueReport issue = issueService.getById(issueId)
             .orElseThrow(() -> new RuntimeException("Issue not found"));
+        if (issue.isArchived()) {
+            throw new RuntimeException("Issue is archived");
+        }
         c.setIssue(issue);
         return ResponseEntity.ok(commentService.addComment(c));
     }
 
+    /**
+     * Get an issue's comments, oldest first, one page at a time
+     * GET /api/issues/{issueId}/comments?size=20&cursor=<nextCursor from previous page>
+     */
     @GetMapping
-    public ResponseEntity<List<Comment>> getAll(@PathVariable UUID issueId) { 
-        return ResponseEntity.ok(commentService.getByIssue(issueId)); 
+    public ResponseEntity<?> getAll(
+            @PathVariable UUID issueId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(commentService.getThread(issueId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.*;
+import com.comunityalert.cas.history.IssueStatusHistory;
 import com.comunityalert.cas.model.IssueReport;
 import com.comunityalert.cas.model.User;
 import com.comunityalert.cas.service.IssueService;
@@ -30,6 +31,9 @@ public class DashboardController {
     
     @Autowired
     private JwtService jwtService;
+
+    @Autowired
+    private IssueStatusHistory statusHistory;
     
     /**
      * Helper method to get current user from Authorization header
@@ -90,6 +94,8 @@ public class DashboardController {
             if (currentUser.getRole() == com.comunityalert.cas.enums.Role.ADMIN) {
                 stats.put("totalUsers", userService.count());
                 stats.put("totalLocations", locationService.count());
+                // From in-memory sketches, not from issue history
+                stats.put("resolutionTimes", statusHistory.overall());
             } else {
                 stats.put("totalUsers", 0);
                 stats.put("totalLocations", 0);
@@ -113,4 +119,29 @@ public class DashboardController {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to load dashboard stats: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Time-to-resolution and time-in-status percentiles (hours) per category or district (ADMIN)
+     * GET /api/dashboard/resolution-times?by=district
+     */
+    @GetMapping("/resolution-times")
+    public ResponseEntity<?> getResolutionTimes(
+            @RequestParam(defaultValue = "category") String by,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        User currentUser = getCurrentUser(authHeader);
+        if (currentUser == null || currentUser.getRole() != com.comunityalert.cas.enums.Role.ADMIN) {
+            return ResponseEntity.status(403).body(Map.of("error", "Only admins can view resolution times"));
+        }
+        IssueStatusHistory.Dimension dimension;
+        try {
+            dimension = IssueStatusHistory.Dimension.valueOf(by.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "by must be category or district"));
+        }
+        return ResponseEntity.ok(Map.of(
+            "by", dimension.name().toLowerCase(),
+            "overall", statusHistory.overall(),
+            "groups", statusHistory.summaries(dimension)
+        ));
+    }
+}
@@ -2,9 +2,15 @@ package com.comunityalert.cas.controller;
 
 import com.comunityalert.cas.dto.CreateIssueDTO;
 import com.comunityalert.cas.model.IssueReport;
+import com.comunityalert.cas.model.IssueStatusEvent;
 import com.comunityalert.cas.model.Tag;
+import com.comunityalert.cas.enums.Role;
 import com.comunityalert.cas.enums.Status;
+import com.comunityalert.cas.model.User;
+import com.comunityalert.cas.service.IssueExportService;
 import com.comunityalert.cas.service.IssueService;
+import com.comunityalert.cas.service.JwtService;
+import com.comunityalert.cas.service.UserService;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -12,7 +18,15 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -20,9 +34,16 @@ import java.util.UUID;
 @RequestMapping("/api/issues")
 public class IssueController {
     private final IssueService service;
+    private final IssueExportService exportService;
+    private final JwtService jwtService;
+    private final UserService userService;
     
-    public IssueController(IssueService service) { 
+    public IssueController(IssueService service, IssueExportService exportService, JwtService jwtService,
+                           UserService userService) { 
         this.service = service; 
+        this.exportService = exportService;
+        this.jwtService = jwtService;
+        this.userService = userService;
     }
 
     /**
@@ -41,17 +62,159 @@ public class IssueController {
         return ResponseEntity.ok(service.create(i)); 
     }
 
+    /**
+     * Sort orders backed by an index (V3__performance_indexes.sql, IssueReport), so a page never sorts the whole table
+     */
+    private static final Set<String> SORTABLE = Set.of("dateReported", "lastActivityAt", "status");
+
     @GetMapping
-	public ResponseEntity<List<IssueReport>> getAll(
+	public ResponseEntity<?> getAll(
 			@RequestParam(defaultValue = "0") int page, 
 			@RequestParam(defaultValue = "10") int size,
 			@RequestParam(defaultValue = "dateReported") String sort,
 			@RequestParam(defaultValue = "DESC") String direction) {
-		Sort.Direction dir = Sort.Direction.fromString(direction);
+		if (!SORTABLE.contains(sort)) {
+			return ResponseEntity.badRequest().body(Map.of("error", "sort must be one of " + SORTABLE));
+		}
+		Sort.Direction dir = Sort.Direction.fromOptionalString(direction).orElse(null);
+		if (dir == null) {
+			return ResponseEntity.badRequest().body(Map.of("error", "direction must be ASC or DESC"));
+		}
 		Page<IssueReport> p = service.getAll(PageRequest.of(page, size, Sort.by(dir, sort)));
 		return ResponseEntity.ok(p.getContent());
 	}
 
+    /**
+     * Open issues ranked for triage: age, category weight and duplicate reports (see TriageQueue) (ADMIN)
+     * GET /api/issues/triage?page=0&size=20
+     */
+    @GetMapping("/triage")
+    public ResponseEntity<?> triage(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (!isAdmin(authHeader)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Only administrators can view the triage queue"));
+        }
+        String error = checkPage(page, size);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", error));
+        }
+        return ResponseEntity.ok(service.getTriage(PageRequest.of(page, size)));
+    }
+
+    /**
+     * Every issue as CSV, archived ones included (ADMIN)
+     * GET /api/issues/export
+     */
+    @GetMapping("/export")
+    public void export(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            HttpServletResponse response) throws IOException {
+        if (!isAdmin(authHeader)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Only administrators can export issues");
+            return;
+        }
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"issues.csv\"");
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 64 * 1024);
+        exportService.exportCsv(out);
+        out.flush();
+    }
+
+    private boolean isAdmin(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return false;
+        }
+        String userId = jwtService.getUserIdFromToken(authHeader.substring(7));
+        if (userId == null) {
+            return false;
+        }
+        try {
+            User user = userService.getUserEntity(UUID.fromString(userId)).orElse(null);
+            return user != null && user.getRole() == Role.ADMIN;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // ========== GEO QUERIES ==========
+
+    private static final double MAX_RADIUS_METERS = 50_000;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Deepest result (page * size) served: the index keeps every result up to the page in memory
+    private static final int MAX_OFFSET = 10_000;
+
+    /**
+     * Issues within radius meters of a point, nearest first
+     * GET /api/issues/nearby?lat=-1.9441&lon=30.0619&radius=2000&page=0&size=20
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<?> nearby(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "2000") double radius,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        String error = checkPoint(lat, lon);
+        if (error == null && (radius <= 0 || radius > MAX_RADIUS_METERS)) {
+            error = "radius must be between 0 and " + (int) MAX_RADIUS_METERS + " meters";
+        }
+        if (error == null) {
+            error = checkPage(page, size);
+        }
+        if (error != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", error));
+        }
+        return ResponseEntity.ok(service.findNearby(lat, lon, radius, PageRequest.of(page, size)));
+    }
+
+    /**
+     * Issues inside a bounding box (e.g. the visible map), newest first
+     * GET /api/issues/within?minLat=-2.0&minLon=30.0&maxLat=-1.9&maxLon=30.2&page=0&size=20
+     */
+    @GetMapping("/within")
+    public ResponseEntity<?> within(
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        String error = checkPoint(minLat, minLon);
+        if (error == null) {
+            error = checkPoint(maxLat, maxLon);
+        }
+        if (error == null && (minLat > maxLat || minLon > maxLon)) {
+            // Boxes crossing the antimeridian would need two queries; not needed for this deployment
+            error = "minLat/minLon must not be greater than maxLat/maxLon";
+        }
+        if (error == null) {
+            error = checkPage(page, size);
+        }
+        if (error != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", error));
+        }
+        return ResponseEntity.ok(service.findWithinBox(minLat, minLon, maxLat, maxLon, PageRequest.of(page, size)));
+    }
+
+    private static String checkPoint(double lat, double lon) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            return "latitude must be within [-90, 90] and longitude within [-180, 180]";
+        }
+        return null;
+    }
+
+    private static String checkPage(int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return "page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE;
+        }
+        if ((long) page * size > MAX_OFFSET) {
+            return "page * size must be at most " + MAX_OFFSET;
+        }
+        return null;
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<IssueReport> getById(@PathVariable UUID id) { 
         return service.getById(id)
@@ -75,6 +238,15 @@ public class IssueController {
         return ResponseEntity.noContent().build(); 
     }
 
+    /**
+     * Status changes of an issue, oldest first
+     * GET /api/issues/{id}/history
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<IssueStatusEvent>> getStatusHistory(@PathVariable UUID id) {
+        return ResponseEntity.ok(service.getStatusHistory(id));
+    }
+
     // ========== TAG OPERATIONS ==========
 
     /**
@@ -11,8 +11,10 @@ import com.comunityalert.cas.service.JwtService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -87,6 +89,7 @@ public class NotificationController {
      * Get all notifications with pagination and role-based filtering
      * RESIDENT users only see their own notifications
      * ADMIN users see all notifications
+     * Only those sent since the given time (ISO-8601), by default the last cas.notifications.list-window
      */
     @GetMapping
     public ResponseEntity<?> getAll(
@@ -94,6 +97,7 @@ public class NotificationController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "sentAt") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
         try {
             Sort.Direction dir = Sort.Direction.fromString(sortDir);
@@ -102,7 +106,7 @@ public class NotificationController {
             Page<Notification> pageData;
             if (currentUser != null) {
                 // Use role-based filtering
-                pageData = service.getAll(PageRequest.of(page, size, Sort.by(dir, sortBy)), currentUser);
+                pageData = service.getAll(PageRequest.of(page, size, Sort.by(dir, sortBy)), currentUser, since);
             } else {
                 // No authentication, return empty page
                 pageData = Page.empty(PageRequest.of(page, size, Sort.by(dir, sortBy)));
@@ -181,20 +185,11 @@ public class NotificationController {
             return ResponseEntity.status(401).body("Authentication required");
         }
         
-        // Get all unread notifications for the user
-        List<Notification> unreadNotifications = service.getByRecipient(currentUser.getId())
-            .stream()
-            .filter(n -> !n.isRead())
-            .toList();
-        
-        // Mark all as read
-        for (Notification notif : unreadNotifications) {
-            service.markAsRead(notif.getId());
-        }
+        int count = service.markAllAsRead(currentUser.getId());
         
         return ResponseEntity.ok(Map.of(
             "message", "All notifications marked as read",
-            "count", unreadNotifications.size()
+            "count", count
         ));
     }
 
@@ -0,0 +1,209 @@
+package com.comunityalert.cas.controller;
+
+import com.comunityalert.cas.photo.PhotoStore;
+import com.comunityalert.cas.service.JwtService;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Issue photos: upload once, then reference the returned url from IssueReport.photoUrl.
+ * Photos are immutable (the id is their SHA-256), so responses are cached for a year and revalidated by ETag.
+ */
+@RestController
+@RequestMapping("/api/photos")
+public class PhotoController {
+
+    // Tomcat's sendfile hand-off: the connector writes the file to the socket itself after the servlet returns
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private final PhotoStore store;
+    private final JwtService jwtService;
+
+    public PhotoController(PhotoStore store, JwtService jwtService) {
+        this.store = store;
+        this.jwtService = jwtService;
+    }
+
+    /**
+     * Upload a photo (multipart field "file"); the same bytes uploaded twice return the same id
+     * POST /api/photos
+     */
+    @PostMapping
+    public ResponseEntity<?> upload(
+            @RequestParam("file") MultipartFile file,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) throws IOException {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")
+                || jwtService.getUserIdFromToken(authHeader.substring(7)) == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Not authenticated"));
+        }
+        PhotoStore.StoredPhoto photo;
+        try (InputStream in = file.getInputStream()) {
+            photo = store.store(in);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.ok(Map.of(
+            "id", photo.id(),
+            "url", "/api/photos/" + photo.id(),
+            "thumbnailUrl", "/api/photos/" + photo.id() + "/thumbnail",
+            "contentType", photo.contentType(),
+            "size", photo.size(),
+            "duplicate", photo.duplicate()
+        ));
+    }
+
+    /**
+     * GET /api/photos/{id}, with Range and If-None-Match support
+     */
+    @GetMapping("/{id}")
+    public void get(@PathVariable String id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path photo = store.original(id);
+        if (photo == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        serve(request, response, photo, "\"" + id + "\"", store.contentType(id), IMMUTABLE);
+    }
+
+    /**
+     * GET /api/photos/{id}/thumbnail; the original, briefly cached, until the thumbnail has been made
+     */
+    @GetMapping("/{id}/thumbnail")
+    public void thumbnail(@PathVariable String id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path thumbnail = store.thumbnail(id);
+        if (thumbnail != null) {
+            serve(request, response, thumbnail, "\"" + id + "-thumb\"", "image/jpeg", IMMUTABLE);
+            return;
+        }
+        Path photo = store.original(id);
+        if (photo == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        serve(request, response, photo, "\"" + id + "\"", store.contentType(id), "public, max-age=60");
+    }
+
+    private void serve(HttpServletRequest request, HttpServletResponse response, Path file, String etag,
+                       String contentType, String cacheControl) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // The stored type comes from the first bytes only: never let a browser sniff another one
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = Files.size(file);
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // Only a single byte range is honoured; anything else (an invalid range, several, or a stale If-Range)
+        // gets the whole photo, and only a valid range that misses the photo gets 416
+        if (range != null && range.startsWith("bytes=") && range.indexOf(',') < 0
+                && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range.substring(6).trim(), length);
+            if (bounds != null && bounds[0] >= length) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentType);
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (count > 0) {
+                long sent = channel.transferTo(position, count, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                count -= sent;
+            }
+        }
+    }
+
+    /**
+     * {start, end} (inclusive) of "a-b", "a-" or "-suffix", with start = length when it cannot be satisfied;
+     * null when the range is not valid syntax (including b < a), which RFC 9110 says to ignore
+     */
+    private static long[] parseRange(String spec, long length) {
+        if (!spec.matches("\\d*-\\d*") || spec.equals("-")) {
+            return null;
+        }
+        int dash = spec.indexOf('-');
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                return suffix == 0 ? new long[] {length, length} : new long[] {Math.max(0, length - suffix), length - 1};
+            }
+            long start = Long.parseLong(spec.substring(0, dash));
+            if (dash == spec.length() - 1) {
+                return new long[] {start, length - 1};
+            }
+            long end = Long.parseLong(spec.substring(dash + 1));
+            if (end < start) {
+                return null;
+            }
+            return new long[] {start, Math.min(length - 1, end)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,5 +1,6 @@
 package com.comunityalert.cas.controller;
 
+import com.comunityalert.cas.dto.TagDTO;
 import com.comunityalert.cas.model.Tag;
 import com.comunityalert.cas.model.User;
 import com.comunityalert.cas.enums.Role;
@@ -117,7 +118,7 @@ public class TagController {
      * GET /api/tags/active
      */
     @GetMapping("/active")
-    public ResponseEntity<List<Tag>> getActiveTags() {
+    public ResponseEntity<List<TagDTO>> getActiveTags() {
         return ResponseEntity.ok(service.getActiveTags());
     }
 
@@ -165,6 +166,15 @@ public class TagController {
         return ResponseEntity.ok(service.getUnusedTags());
     }
 
+    /**
+     * Get the most popular tags (recent uses count more than old ones)
+     * GET /api/tags/popular?limit=10
+     */
+    @GetMapping("/popular")
+    public ResponseEntity<List<Map<String, Object>>> getPopular(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(service.getPopularTags(Math.min(limit, 100)));
+    }
+
     /**
      * Update a tag (rename, change description, activate/deactivate) - ADMIN only
      * PUT /api/tags/{id}
@@ -0,0 +1,90 @@
+package com.comunityalert.cas.controller;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.comunityalert.cas.enums.Role;
+import com.comunityalert.cas.model.User;
+import com.comunityalert.cas.service.JwtService;
+import com.comunityalert.cas.service.UserService;
+import com.comunityalert.cas.tracing.Trace;
+import com.comunityalert.cas.tracing.TraceBuffer;
+
+/**
+ * Recent request traces kept in memory by TracingFilter (ADMIN only)
+ */
+@RestController
+@RequestMapping("/api/admin/traces")
+@CrossOrigin(origins = "http://localhost:5173")
+public class TraceController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final TraceBuffer buffer;
+    private final JwtService jwtService;
+    private final UserService userService;
+
+    public TraceController(TraceBuffer buffer, JwtService jwtService, UserService userService) {
+        this.buffer = buffer;
+        this.jwtService = jwtService;
+        this.userService = userService;
+    }
+
+    private boolean isAdmin(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return false;
+        }
+        String userId = jwtService.getUserIdFromToken(authHeader.substring(7));
+        if (userId == null) {
+            return false;
+        }
+        try {
+            User user = userService.getUserEntity(UUID.fromString(userId)).orElse(null);
+            return user != null && user.getRole() == Role.ADMIN;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Slowest traces in the buffer, slowest first
+     * GET /api/admin/traces/slowest?limit=20
+     */
+    @GetMapping("/slowest")
+    public ResponseEntity<?> slowest(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (!isAdmin(authHeader)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Only administrators can view traces"));
+        }
+        int n = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(Map.of(
+            "capacity", buffer.capacity(),
+            "traces", buffer.slowest(n).stream().map(Trace::toSummary).toList()));
+    }
+
+    /**
+     * Span breakdown of one trace (traceId is also returned in the X-Trace-Id response header)
+     * GET /api/admin/traces/{traceId}
+     */
+    @GetMapping("/{traceId}")
+    public ResponseEntity<?> get(
+            @PathVariable String traceId,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (!isAdmin(authHeader)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Only administrators can view traces"));
+        }
+        return buffer.find(traceId)
+            .<ResponseEntity<?>>map(trace -> ResponseEntity.ok(trace.toDetail()))
+            .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Trace not found or no longer buffered")));
+    }
+}
@@ -0,0 +1,38 @@
+package com.comunityalert.cas.datasource;
+
+import java.io.Closeable;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Primary pool for writes, replica pool for @Transactional(readOnly = true).
+ * The connection is only fetched at the first statement, once the transaction's read-only flag is known.
+ */
+public class ReadWriteDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+
+    public ReadWriteDataSource(HikariDataSource primary, HikariDataSource replica) {
+        super(primary);
+        this.primary = primary;
+        this.replica = replica;
+        setReadOnlyDataSource(new ReplicaDataSource(replica, primary));
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public HikariDataSource getReplica() {
+        return replica;
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+}
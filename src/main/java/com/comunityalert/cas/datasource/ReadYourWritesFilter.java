@@ -0,0 +1,73 @@
+package com.comunityalert.cas.datasource;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.comunityalert.cas.service.JwtService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Keeps a user's reads on the primary while they write and for a short window afterwards.
+ * Write requests (anything but GET/HEAD/OPTIONS) read the primary throughout and mark their user;
+ * anonymous reads always use the replica.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "cas.datasource.replica.url")
+@ConditionalOnProperty(name = "cas.shards.enabled", havingValue = "false", matchIfMissing = true)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWritesTracker tracker;
+    private final JwtService jwtService;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker, JwtService jwtService) {
+        this.tracker = tracker;
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String userKey = userKey(request);
+        boolean write = switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> false;
+            default -> true;
+        };
+        if (!write && (userKey == null || !tracker.wroteRecently(userKey))) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ReplicaRouting.forcePrimary();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRouting.clear();
+            if (write && userKey != null) {
+                tracker.recordWrite(userKey);
+            }
+        }
+    }
+
+    private String userKey(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        return jwtService.getUserIdFromToken(authHeader.substring(7));
+    }
+}
@@ -0,0 +1,48 @@
+package com.comunityalert.cas.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * When each user last wrote. For cas.datasource.read-your-writes-ms afterwards their reads
+ * go to the primary, so they never see the replica from before their own write.
+ */
+@Component
+@ConditionalOnProperty(name = "cas.datasource.replica.url")
+@ConditionalOnProperty(name = "cas.shards.enabled", havingValue = "false", matchIfMissing = true)
+public class ReadYourWritesTracker {
+
+    // Entries are dropped lazily; prune once the map grows past this
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(@Value("${cas.datasource.read-your-writes-ms:5000}") long windowMs) {
+        this.windowNanos = windowMs * 1_000_000L;
+    }
+
+    public void recordWrite(String userKey) {
+        long now = System.nanoTime();
+        lastWriteNanos.put(userKey, now);
+        if (lastWriteNanos.size() > PRUNE_THRESHOLD) {
+            lastWriteNanos.values().removeIf(at -> now - at > windowNanos);
+        }
+    }
+
+    public boolean wroteRecently(String userKey) {
+        Long at = lastWriteNanos.get(userKey);
+        if (at == null) {
+            return false;
+        }
+        if (System.nanoTime() - at > windowNanos) {
+            lastWriteNanos.remove(userKey, at);
+            return false;
+        }
+        return true;
+    }
+}
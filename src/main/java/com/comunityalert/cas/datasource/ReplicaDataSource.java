@@ -0,0 +1,34 @@
+package com.comunityalert.cas.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Read-only side of the routing DataSource: the replica pool, unless ReplicaRouting
+ * pins the current thread to the primary (read-your-writes).
+ */
+public class ReplicaDataSource extends DelegatingDataSource {
+
+    private final DataSource primary;
+
+    public ReplicaDataSource(DataSource replica, DataSource primary) {
+        super(replica);
+        this.primary = primary;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return ReplicaRouting.isPrimaryForced() ? primary.getConnection() : super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return ReplicaRouting.isPrimaryForced()
+            ? primary.getConnection(username, password)
+            : super.getConnection(username, password);
+    }
+}
@@ -0,0 +1,43 @@
+package com.comunityalert.cas.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override that sends read-only transactions to the primary instead of the replica.
+ * Set by ReadYourWritesFilter for writes and for users who wrote recently; a no-op without a replica.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARY_ONLY.get());
+    }
+
+    static void forcePrimary() {
+        PRIMARY_ONLY.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        PRIMARY_ONLY.remove();
+    }
+
+    /**
+     * Run a read on the primary, e.g. to reload a cache right after a write.
+     * Only takes effect if the transaction has not yet obtained its connection.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        if (isPrimaryForced()) {
+            return read.get();
+        }
+        forcePrimary();
+        try {
+            return read.get();
+        } finally {
+            clear();
+        }
+    }
+}
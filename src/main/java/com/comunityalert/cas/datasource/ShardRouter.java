@@ -0,0 +1,466 @@
+package com.comunityalert.cas.datasource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.comunityalert.cas.enums.LocationType;
+import com.comunityalert.cas.model.Location;
+import com.comunityalert.cas.repository.IssueRepository;
+import com.comunityalert.cas.repository.LocationRepository;
+import com.comunityalert.cas.service.LocationService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Which database holds which issues (ShardConfig): an issue lives on the shard its location's province is
+ * mapped to by cas.shards.provinces.<province code or name>, or on the home database when the province is
+ * not mapped. Its tag links, comments, status events and notifications live with it.
+ *
+ * Services route a single issue's work with pin (inside a transaction) or on, and answer cross-shard
+ * questions (listings, counts, search) with scatter, which asks every shard in parallel, each in its own
+ * read-only transaction. An issue's shard is found by asking every shard once and then remembered
+ * (cas.shards.locate-cache-size most recent issues).
+ *
+ * With sharding off (the default) every method runs its work directly on the caller's thread and
+ * transaction, so the code paths behave exactly as with a single database.
+ */
+@Component
+public class ShardRouter {
+
+    public static final String HOME = "home";
+
+    private final boolean enabled;
+    private final List<String> shards;
+    private final Map<String, String> configuredProvinces;
+    private final IssueRepository issueRepo;
+    private final LocationRepository locationRepo;
+    private final ObjectProvider<LocationService> locationService;
+    private final TransactionTemplate readOnly;
+    private final TransactionTemplate readWrite;
+    private final Map<UUID, String> locationShards = new ConcurrentHashMap<>();
+    private final Map<UUID, String> issueShards;
+    private final Timer scatterTimer;
+    private final ExecutorService scatterPool;
+    private volatile Map<String, String> provinceShards;
+
+    public ShardRouter(Environment env, IssueRepository issueRepo, LocationRepository locationRepo,
+                       ObjectProvider<LocationService> locationService, PlatformTransactionManager transactionManager,
+                       MeterRegistry registry,
+                       @Value("${cas.shards.enabled:false}") boolean enabled,
+                       @Value("${cas.shards.locate-cache-size:100000}") int locateCacheSize) {
+        this.enabled = enabled;
+        this.issueRepo = issueRepo;
+        this.locationRepo = locationRepo;
+        this.locationService = locationService;
+        Binder binder = Binder.get(env);
+        List<String> names = new ArrayList<>();
+        names.add(HOME);
+        if (enabled) {
+            names.addAll(binder.bind("cas.shards.nodes", Bindable.mapOf(String.class, Object.class)).orElse(Map.of()).keySet());
+        }
+        this.shards = List.copyOf(names);
+        this.configuredProvinces = enabled
+            ? binder.bind("cas.shards.provinces", Bindable.mapOf(String.class, String.class)).orElse(Map.of())
+            : Map.of();
+        configuredProvinces.forEach((province, shard) -> {
+            if (!shards.contains(shard)) {
+                throw new IllegalStateException("cas.shards.provinces." + province + "=" + shard
+                    + ": no such node (known: " + shards + ")");
+            }
+        });
+
+        this.readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readWrite = new TransactionTemplate(transactionManager);
+        readWrite.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int cacheSize = Math.max(1, locateCacheSize);
+        this.issueShards = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, String> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        this.scatterTimer = Timer.builder("cas.shards.scatter")
+            .description("Queries answered by asking every shard")
+            .register(registry);
+        this.scatterPool = enabled
+            ? Executors.newCachedThreadPool(Thread.ofPlatform().name("shard-scatter-", 0).daemon().factory())
+            : null;
+        if (enabled) {
+            System.out.println("Shards: " + shards + ", provinces " + configuredProvinces);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Every database that holds issues: home first, then the nodes
+     */
+    public List<String> shards() {
+        return shards;
+    }
+
+    /**
+     * The shard new issues in this location go to
+     */
+    public String shardForLocation(UUID locationId) {
+        if (!enabled || locationId == null) {
+            return HOME;
+        }
+        String shard = locationShards.get(locationId);
+        if (shard == null) {
+            // Not inside computeIfAbsent: no map lock is held across the query
+            shard = on(HOME, () -> readOnly.execute(tx -> {
+                Location location = locationRepo.findById(locationId).orElse(null);
+                Location province = location != null ? location.findAncestor(LocationType.PROVINCE) : null;
+                return province != null ? provinceShards().getOrDefault(key(province.getName()), HOME) : HOME;
+            }));
+            locationShards.putIfAbsent(locationId, shard);
+        }
+        return shard;
+    }
+
+    /**
+     * The shard that holds an existing issue (home when no shard has it, so "not found" is answered there)
+     */
+    public String locate(UUID issueId) {
+        if (!enabled || issueId == null) {
+            return HOME;
+        }
+        String shard = issueShards.get(issueId);
+        if (shard == null) {
+            shard = find(() -> issueRepo.existsById(issueId));
+            if (shard == null) {
+                return HOME;
+            }
+            issueShards.put(issueId, shard);
+        }
+        return shard;
+    }
+
+    /**
+     * The first shard where probe is true, or null
+     */
+    public String find(Supplier<Boolean> probe) {
+        List<Boolean> answers = scatter(probe);
+        for (int i = 0; i < answers.size(); i++) {
+            if (Boolean.TRUE.equals(answers.get(i))) {
+                return enabled ? shards.get(i) : HOME;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Record where a new issue was written, so it is never looked for
+     */
+    public void remember(UUID issueId, String shard) {
+        if (enabled && issueId != null) {
+            issueShards.put(issueId, shard);
+        }
+    }
+
+    public void forget(UUID issueId) {
+        if (enabled) {
+            issueShards.remove(issueId);
+        }
+    }
+
+    /**
+     * Route the current transaction to shard. Call before its first query: the connection is
+     * fetched then and kept until the transaction ends.
+     */
+    public void pin(String shard) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("pin(" + shard + ") needs a transaction; use on() outside one");
+        }
+        ShardRouting.bind(shard);
+    }
+
+    /**
+     * Run work outside a transaction with its connections taken from shard
+     */
+    public <T> T on(String shard, Supplier<T> work) {
+        return enabled ? ShardRouting.on(shard, work) : work.get();
+    }
+
+    public void on(String shard, Runnable work) {
+        on(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Ask every shard in parallel, each in its own read-only transaction; answers come in shards() order
+     */
+    public <T> List<T> scatter(Supplier<T> query) {
+        if (!enabled) {
+            return List.of(query.get());
+        }
+        long start = System.nanoTime();
+        try {
+            List<Future<T>> futures = new ArrayList<>(shards.size());
+            for (String shard : shards) {
+                futures.add(scatterPool.submit(() -> ShardRouting.on(shard, () -> readOnly.execute(tx -> query.get()))));
+            }
+            List<T> answers = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                answers.add(future.get());
+            }
+            return answers;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        } finally {
+            scatterTimer.record(System.nanoTime() - start, java.util.concurrent.TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Run work once per shard, one after the other, with no transaction of its own (for streaming reads
+     * and maintenance that manage their own)
+     */
+    public void forEachShard(Runnable work) {
+        if (!enabled) {
+            work.run();
+            return;
+        }
+        for (String shard : shards) {
+            ShardRouting.on(shard, () -> {
+                work.run();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Run a read on every shard, one after the other, each in its own read-only transaction (for streamed
+     * reads that are not collected in memory)
+     */
+    public void readEach(Runnable read) {
+        if (!enabled) {
+            read.run();
+            return;
+        }
+        for (String shard : shards) {
+            ShardRouting.on(shard, () -> readOnly.execute(tx -> {
+                read.run();
+                return null;
+            }));
+        }
+    }
+
+    /**
+     * Run a write on every shard, each in its own transaction; answers come in shards() order
+     */
+    public <T> List<T> writeEach(Supplier<T> write) {
+        if (!enabled) {
+            return List.of(write.get());
+        }
+        List<T> answers = new ArrayList<>(shards.size());
+        for (String shard : shards) {
+            answers.add(ShardRouting.on(shard, () -> readWrite.execute(tx -> write.get())));
+        }
+        return answers;
+    }
+
+    /**
+     * Run work on the home database in a transaction of its own, e.g. a write to a replicated table
+     * before the current transaction is pinned to a shard
+     */
+    public <T> T onHome(Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        return ShardRouting.on(HOME, () -> readWrite.execute(tx -> work.get()));
+    }
+
+    /**
+     * A write to the home database made on behalf of the current transaction. When that transaction is on
+     * the home database the write joins it; on a shard it runs in its own once that one has committed.
+     */
+    public void afterCommitOnHome(Runnable write) {
+        String current = ShardRouting.current();
+        // Joining also keeps a home transaction from waiting on a second home connection
+        if (!enabled || current == null || current.equals(HOME)) {
+            write.run();
+            return;
+        }
+        Runnable onHome = () -> onHome(() -> {
+            write.run();
+            return null;
+        });
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onHome.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    onHome.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Shards: home write after commit failed: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * One page across shards, ordered by the page's sort: every shard returns its first offset + size rows,
+     * which are merged and cut. The total is the sum of the shards' totals.
+     */
+    public <T> Page<T> page(Pageable pageable, Function<Pageable, Page<T>> query) {
+        return page(pageable, comparator(pageable.getSort()), query);
+    }
+
+    public <T> Page<T> page(Pageable pageable, Comparator<T> order, Function<Pageable, Page<T>> query) {
+        if (!enabled) {
+            return query.apply(pageable);
+        }
+        if (pageable.isUnpaged()) {
+            List<Page<T>> pages = scatter(() -> query.apply(pageable));
+            List<T> all = new ArrayList<>();
+            pages.forEach(p -> all.addAll(p.getContent()));
+            if (order != null) {
+                all.sort(order);
+            }
+            return new PageImpl<>(all, pageable, all.size());
+        }
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+        // Every shard's share of the page lies within its first offset + size rows
+        Pageable head = PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE, offset + size), pageable.getSort());
+        List<Page<T>> pages = scatter(() -> query.apply(head));
+        List<T> merged = new ArrayList<>();
+        long total = 0;
+        for (Page<T> p : pages) {
+            merged.addAll(p.getContent());
+            total += p.getTotalElements();
+        }
+        if (order != null) {
+            merged.sort(order);
+        }
+        int from = (int) Math.min(offset, merged.size());
+        int to = (int) Math.min((long) from + size, merged.size());
+        return new PageImpl<>(new ArrayList<>(merged.subList(from, to)), pageable, total);
+    }
+
+    /**
+     * In-memory equivalent of a Sort on entity properties (nulls last ascending, first descending, as in
+     * PostgreSQL); null for an unsorted page
+     */
+    public static <T> Comparator<T> comparator(Sort sort) {
+        Comparator<T> result = null;
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            Comparator<T> next = (a, b) -> compare(new BeanWrapperImpl(a).getPropertyValue(property),
+                new BeanWrapperImpl(b).getPropertyValue(property));
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            result = result == null ? next : result.thenComparing(next);
+        }
+        return result;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : 1) : -1;
+        }
+        if (a instanceof Comparable comparable) {
+            return comparable.compareTo(b);
+        }
+        return a.toString().compareTo(b.toString());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scatterPool != null) {
+            scatterPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Province name (lower case) -> shard, with province codes translated through the location index
+     */
+    private Map<String, String> provinceShards() {
+        Map<String, String> map = provinceShards;
+        if (map != null) {
+            return map;
+        }
+        Map<String, String> byName = new HashMap<>();
+        Map<String, String> codes = new HashMap<>();
+        configuredProvinces.forEach((province, shard) -> {
+            if (province.chars().allMatch(Character::isDigit)) {
+                codes.put(province, shard);
+            } else {
+                byName.put(key(province), shard);
+            }
+        });
+        if (!codes.isEmpty()) {
+            for (Map<String, Object> province : locationService.getObject().getProvinces()) {
+                String shard = codes.remove(String.valueOf(province.get("code")));
+                if (shard != null) {
+                    byName.put(key((String) province.get("name")), shard);
+                }
+            }
+            if (!codes.isEmpty()) {
+                throw new IllegalStateException("cas.shards.provinces: unknown province codes " + codes.keySet());
+            }
+        }
+        provinceShards = byName;
+        return byName;
+    }
+
+    private static String key(String provinceName) {
+        return provinceName == null ? "" : provinceName.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,58 @@
+package com.comunityalert.cas.datasource;
+
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The shard the current thread's next connection comes from (ShardedDataSource); null means the home database.
+ * Set through ShardRouter, which knows which shard holds what.
+ */
+public final class ShardRouting {
+
+    private static final ThreadLocal<String> SHARD = new ThreadLocal<>();
+
+    private ShardRouting() {
+    }
+
+    public static String current() {
+        return SHARD.get();
+    }
+
+    /**
+     * Route the connections fetched while work runs to shard
+     */
+    static <T> T on(String shard, Supplier<T> work) {
+        String previous = SHARD.get();
+        SHARD.set(shard);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Route the current transaction to shard until it completes, including the flush at commit.
+     * Only takes effect if the transaction has not yet obtained its connection.
+     */
+    static void bind(String shard) {
+        String previous = SHARD.get();
+        SHARD.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                restore(previous);
+            }
+        });
+    }
+
+    private static void restore(String previous) {
+        if (previous == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(previous);
+        }
+    }
+}
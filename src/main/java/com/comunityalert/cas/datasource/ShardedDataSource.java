@@ -0,0 +1,62 @@
+package com.comunityalert.cas.datasource;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Home pool plus one pool per shard node; each connection comes from the pool ShardRouting names for the
+ * current thread (the home pool when none). The connection is only fetched at the first statement, so a
+ * transaction can be routed after it has begun (ShardRouter.pin).
+ */
+public class ShardedDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final HikariDataSource home;
+    private final Map<String, HikariDataSource> shards;
+
+    public ShardedDataSource(HikariDataSource home, Map<String, HikariDataSource> shards) {
+        this.home = home;
+        this.shards = Collections.unmodifiableMap(new LinkedHashMap<>(shards));
+        Router router = new Router();
+        Map<Object, Object> targets = new HashMap<>(shards);
+        targets.put(ShardRouter.HOME, home);
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(home);
+        // A shard name without a pool is a bug, not a reason to write to the home database
+        router.setLenientFallback(false);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    public HikariDataSource getHome() {
+        return home;
+    }
+
+    /**
+     * Shard node pools by name, without the home pool
+     */
+    public Map<String, HikariDataSource> getShards() {
+        return shards;
+    }
+
+    @Override
+    public void close() {
+        shards.values().forEach(HikariDataSource::close);
+        home.close();
+    }
+
+    private static final class Router extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return ShardRouting.current();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.comunityalert.cas.dedup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.comunityalert.cas.datasource.ShardRouter;
+import com.comunityalert.cas.enums.Status;
+import com.comunityalert.cas.repository.IssueRepository;
+import com.comunityalert.cas.startup.StartupReport;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory MinHash/LSH index of recent unresolved issues, partitioned by location, used to spot
+ * near-duplicate reports at submission time without querying or scanning issues.
+ *
+ * Each signature is split into BANDS bands of ROWS values; two reports share a bucket for a band when
+ * all its values match. With 21 x 3, a pair at 0.5 Jaccard becomes a candidate 94% of the time and one
+ * at 0.2 only 15%; candidates are then checked against cas.issues.duplicates.similarity.
+ * Only issues reported within cas.issues.duplicates.window are kept; the index is rebuilt from the
+ * database at startup (before readiness) and kept current by IssueService afterwards.
+ */
+@Component
+public class DuplicateIssueIndex implements ApplicationRunner {
+
+    private static final int ROWS = 3;
+    private static final int BANDS = MinHash.SIZE / ROWS;
+
+    /**
+     * A likely original for a new report; issueId is always the first report of the group, never a duplicate
+     */
+    public record Match(UUID issueId, double similarity) {
+    }
+
+    private final IssueRepository issueRepo;
+    private final ShardRouter shards;
+    private final StartupReport startupReport;
+    private final boolean enabled;
+    private final double minSimilarity;
+    private final Duration window;
+    private final Counter matched;
+
+    private final Map<UUID, Partition> partitions = new ConcurrentHashMap<>();
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    public DuplicateIssueIndex(IssueRepository issueRepo, ShardRouter shards, StartupReport startupReport,
+                               MeterRegistry registry,
+                               @Value("${cas.issues.duplicates.enabled:true}") boolean enabled,
+                               @Value("${cas.issues.duplicates.similarity:0.5}") double minSimilarity,
+                               @Value("${cas.issues.duplicates.window:7d}") Duration window) {
+        this.issueRepo = issueRepo;
+        this.shards = shards;
+        this.startupReport = startupReport;
+        this.enabled = enabled;
+        this.minSimilarity = minSimilarity;
+        this.window = window;
+        Gauge.builder("cas.issues.duplicates.indexed", entries, Map::size)
+            .description("Recent issues held in the near-duplicate index")
+            .register(registry);
+        this.matched = Counter.builder("cas.issues.duplicates.matched")
+            .description("New reports matched to a recent issue as near-duplicates")
+            .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int[] signature(String title, String description) {
+        return MinHash.signature(title, description);
+    }
+
+    /**
+     * Most similar recent report in the same location at or above the similarity threshold, if any
+     */
+    public Match findDuplicate(UUID locationId, int[] signature) {
+        if (!enabled || locationId == null) {
+            return null;
+        }
+        Partition partition = partitions.get(locationId);
+        if (partition == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Entry best = null;
+        double bestSimilarity = minSimilarity;
+        long cutoff = now - window.toMillis();
+        synchronized (partition) {
+            partition.expire(cutoff, entries);
+            Set<Entry> seen = new HashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                List<Entry> bucket = partition.buckets.get(bandKey(signature, band));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry candidate : bucket) {
+                    // A re-indexed entry sits behind newer ones in byAge, so expire() may not have reached it yet
+                    if (candidate.reportedAt < cutoff || !seen.add(candidate)) {
+                        continue;
+                    }
+                    double similarity = MinHash.similarity(signature, candidate.signature);
+                    if (similarity >= bestSimilarity) {
+                        best = candidate;
+                        bestSimilarity = similarity;
+                    }
+                }
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        matched.increment();
+        return new Match(best.rootId, bestSimilarity);
+    }
+
+    /**
+     * Index a saved issue; duplicateOf is the original it was linked to, or null
+     */
+    public void add(UUID issueId, UUID duplicateOf, UUID locationId, int[] signature, Instant reportedAt) {
+        if (!enabled || issueId == null || locationId == null) {
+            return;
+        }
+        long at = reportedAt != null ? reportedAt.toEpochMilli() : System.currentTimeMillis();
+        long cutoff = System.currentTimeMillis() - window.toMillis();
+        if (at < cutoff) {
+            return;
+        }
+        // Re-indexing (an edited issue) may move it to another location's partition
+        unindex(issueId, false);
+        Entry entry = new Entry(issueId, duplicateOf != null ? duplicateOf : issueId, locationId, signature, at);
+        Partition partition = partitions.computeIfAbsent(locationId, k -> new Partition());
+        synchronized (partition) {
+            partition.expire(cutoff, entries);
+            entries.put(issueId, entry);
+            partition.link(entry);
+        }
+    }
+
+    /**
+     * Drop an issue that was resolved, deleted or rewritten, together with the duplicates linked to it:
+     * new reports should not be linked to an issue that is closed or gone
+     */
+    public void remove(UUID issueId) {
+        unindex(issueId, true);
+    }
+
+    private void unindex(UUID issueId, boolean withDuplicates) {
+        Entry entry = entries.get(issueId);
+        if (entry == null) {
+            return;
+        }
+        Partition partition = partition(entry);
+        synchronized (partition) {
+            if (entries.remove(issueId, entry)) {
+                partition.unlink(entry);
+            }
+            if (!withDuplicates) {
+                return;
+            }
+            for (Entry other : partition.byAge) {
+                if (other.rootId.equals(issueId) && entries.remove(other.issueId, other)) {
+                    partition.unlink(other);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        startupReport.time("duplicate index", () -> {
+            Instant since = Instant.now().minus(window);
+            List<Object[]> rows = new ArrayList<>();
+            shards.scatter(() -> issueRepo.findRecentForDuplicateIndex(since, Status.RESOLVED)).forEach(rows::addAll);
+            // Oldest first across shards, as a single database returns them
+            rows.sort(Comparator.comparing(row -> (Instant) row[5]));
+            for (Object[] row : rows) {
+                add((UUID) row[0], (UUID) row[4], (UUID) row[3], signature((String) row[1], (String) row[2]),
+                    (Instant) row[5]);
+            }
+            System.out.println("Duplicate index: " + entries.size() + " issues reported since " + since);
+        });
+    }
+
+    private Partition partition(Entry entry) {
+        return partitions.computeIfAbsent(entry.locationId, k -> new Partition());
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long h = band;
+        for (int r = band * ROWS; r < (band + 1) * ROWS; r++) {
+            h = MinHash.mix(h * 31 + signature[r]);
+        }
+        return h;
+    }
+
+    private record Entry(UUID issueId, UUID rootId, UUID locationId, int[] signature, long reportedAt) {
+    }
+
+    /** One location's buckets; guarded by its own monitor, which is never held across I/O */
+    private static final class Partition {
+        final Map<Long, List<Entry>> buckets = new HashMap<>();
+        // Oldest first, so expiry only looks at the head
+        final ArrayDeque<Entry> byAge = new ArrayDeque<>();
+
+        void link(Entry entry) {
+            for (int band = 0; band < BANDS; band++) {
+                buckets.computeIfAbsent(bandKey(entry.signature, band), k -> new ArrayList<>(2)).add(entry);
+            }
+            byAge.addLast(entry);
+        }
+
+        void unlink(Entry entry) {
+            for (int band = 0; band < BANDS; band++) {
+                long key = bandKey(entry.signature, band);
+                List<Entry> bucket = buckets.get(key);
+                if (bucket != null && bucket.remove(entry) && bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+            // Left in byAge; expire() skips entries that are no longer linked
+        }
+
+        void expire(long cutoff, Map<UUID, Entry> entries) {
+            while (!byAge.isEmpty() && byAge.peekFirst().reportedAt < cutoff) {
+                Entry old = byAge.pollFirst();
+                if (entries.remove(old.issueId, old)) {
+                    unlink(old);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.comunityalert.cas.dedup;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures over character 4-gram shingles of normalized text (lowercase letters and digits,
+ * single spaces). The fraction of equal positions in two signatures estimates the Jaccard similarity
+ * of their shingle sets, so "Water pipe burst near the market" and "burst water pipe near market"
+ * come out close while unrelated reports share almost nothing.
+ */
+final class MinHash {
+
+    static final int SIZE = 64;
+    private static final int SHINGLE = 4;
+    // Long descriptions add little once the first paragraph is in; this keeps a signature well under a millisecond
+    private static final int MAX_CHARS = 2000;
+
+    // Fixed seeds: signatures must stay comparable across restarts and instances
+    private static final long[] SEEDS = new long[SIZE];
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDCA5L);
+        for (int i = 0; i < SIZE; i++) {
+            SEEDS[i] = random.nextLong();
+        }
+    }
+
+    private MinHash() {
+    }
+
+    static int[] signature(String title, String description) {
+        String text = normalize((title == null ? "" : title) + " " + (description == null ? "" : description));
+        long[] min = new long[SIZE];
+        Arrays.fill(min, Long.MAX_VALUE);
+        if (text.length() < SHINGLE) {
+            text = (text + "    ").substring(0, SHINGLE);
+        }
+        for (int start = 0; start + SHINGLE <= text.length(); start++) {
+            long shingle = 0;
+            for (int k = 0; k < SHINGLE; k++) {
+                shingle = (shingle << 16) | text.charAt(start + k);
+            }
+            for (int i = 0; i < SIZE; i++) {
+                long h = mix(shingle ^ SEEDS[i]);
+                if (h < min[i]) {
+                    min[i] = h;
+                }
+            }
+        }
+        int[] signature = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            signature[i] = (int) (min[i] >>> 32);
+        }
+        return signature;
+    }
+
+    static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / SIZE;
+    }
+
+    private static String normalize(String raw) {
+        StringBuilder out = new StringBuilder(Math.min(raw.length(), MAX_CHARS));
+        boolean space = true;
+        for (int i = 0; i < raw.length() && out.length() < MAX_CHARS; i++) {
+            char c = Character.toLowerCase(raw.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                out.append(c);
+                space = false;
+            } else if (!space) {
+                out.append(' ');
+                space = true;
+            }
+        }
+        return out.toString().strip();
+    }
+
+    /** SplitMix64 finalizer */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
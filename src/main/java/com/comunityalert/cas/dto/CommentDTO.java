@@ -0,0 +1,68 @@
+package com.comunityalert.cas.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Slim view of a comment for issue threads (no issue graph, only the author's id and name)
+ */
+public class CommentDTO {
+    private UUID id;
+    private String message;
+    private Instant createdAt;
+    private UUID createdById;
+    private String createdByName;
+
+    // Constructors
+    public CommentDTO() {}
+
+    // Used by the JPQL constructor expression in CommentRepository
+    public CommentDTO(UUID id, String message, Instant createdAt, UUID createdById, String createdByName, String createdByEmail) {
+        this.id = id;
+        this.message = message;
+        this.createdAt = createdAt;
+        this.createdById = createdById;
+        this.createdByName = createdByName != null && !createdByName.isEmpty() ? createdByName : createdByEmail;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public UUID getCreatedById() {
+        return createdById;
+    }
+
+    public void setCreatedById(UUID createdById) {
+        this.createdById = createdById;
+    }
+
+    public String getCreatedByName() {
+        return createdByName;
+    }
+
+    public void setCreatedByName(String createdByName) {
+        this.createdByName = createdByName;
+    }
+}
@@ -10,7 +10,9 @@ public class CreateIssueDTO {
     private UUID locationId;
     private Integer villageCode; // Alternative to locationId - village code from RwandaLocations
     private UUID reportedById;
-    private String photoUrl;
+    private String photoUrl; // e.g. the url returned by POST /api/photos
+    private Double latitude; // Optional position of the problem, WGS84 degrees
+    private Double longitude;
     private List<UUID> tagIds; // Tags selected by resident
 
     // Constructors
@@ -90,4 +92,20 @@ public class CreateIssueDTO {
     public void setVillageCode(Integer villageCode) {
         this.villageCode = villageCode;
     }
-}
\ No newline at end of file
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+}
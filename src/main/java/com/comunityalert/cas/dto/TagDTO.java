@@ -0,0 +1,46 @@
+package com.comunityalert.cas.dto;
+
+import java.util.UUID;
+
+/**
+ * Tag as offered for selection: no usage counters, which the cached active list would serve stale
+ */
+public class TagDTO {
+    private UUID id;
+    private String name;
+    private String description;
+
+    // Constructors
+    public TagDTO() {}
+
+    public TagDTO(UUID id, String name, String description) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+}
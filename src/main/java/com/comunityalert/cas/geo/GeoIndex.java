@@ -0,0 +1,317 @@
+package com.comunityalert.cas.geo;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.comunityalert.cas.datasource.ShardRouter;
+import com.comunityalert.cas.repository.IssueRepository;
+import com.comunityalert.cas.startup.StartupReport;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory grid index of issue coordinates for "issues near me" and map-viewport queries.
+ *
+ * The world is cut into CELL_DEGREES x CELL_DEGREES cells (about 1.1 km north-south); each cell keeps
+ * its issues in parallel primitive arrays, about 40 bytes per issue, so a million issues fit in ~40 MB.
+ * A query visits only the cells overlapping its bounding box and keeps the requested page with a bounded
+ * heap, so it never sorts more than page + size results. Built at startup (ApplicationRunner, before
+ * readiness) and kept current by IssueService; until it is loaded, or with cas.issues.geo.index.enabled=false,
+ * IssueService answers from the SQL fallback instead.
+ */
+@Component
+public class GeoIndex implements ApplicationRunner {
+
+    public static final double EARTH_RADIUS_METERS = 6_371_000;
+    private static final double CELL_DEGREES = 0.01;
+
+    /**
+     * One issue in a query result; distanceMeters is 0 for bounding-box queries
+     */
+    public record Hit(UUID issueId, double distanceMeters, long reportedAtMillis) {
+    }
+
+    /**
+     * A page of hits plus the total number of matches
+     */
+    public record Result(List<Hit> hits, long total) {
+    }
+
+    private final IssueRepository issueRepo;
+    private final ShardRouter shards;
+    private final StartupReport startupReport;
+    private final boolean enabled;
+    private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    // Issues added or removed by IssueService while the startup load runs; their rows in it may be stale
+    private final Set<UUID> changedWhileLoading = ConcurrentHashMap.newKeySet();
+
+    public GeoIndex(IssueRepository issueRepo, ShardRouter shards, StartupReport startupReport, MeterRegistry registry,
+                    @Value("${cas.issues.geo.index.enabled:true}") boolean enabled) {
+        this.issueRepo = issueRepo;
+        this.shards = shards;
+        this.startupReport = startupReport;
+        this.enabled = enabled;
+        Gauge.builder("cas.issues.geo.indexed", this, GeoIndex::size)
+            .description("Issues with coordinates held in the geo index")
+            .register(registry);
+    }
+
+    /**
+     * Whether queries can be answered from memory; false until the startup load has finished
+     */
+    public boolean isReady() {
+        return enabled && loaded;
+    }
+
+    public void add(UUID issueId, double latitude, double longitude, Instant reportedAt) {
+        if (!enabled) {
+            return;
+        }
+        if (!loaded) {
+            changedWhileLoading.add(issueId);
+        }
+        long at = reportedAt != null ? reportedAt.toEpochMilli() : System.currentTimeMillis();
+        cells.computeIfAbsent(cellKey(latitude, longitude), k -> new Cell()).add(issueId, latitude, longitude, at);
+    }
+
+    /**
+     * Remove an issue; latitude/longitude are the coordinates it was indexed under
+     */
+    public void remove(UUID issueId, double latitude, double longitude) {
+        if (!enabled) {
+            return;
+        }
+        if (!loaded) {
+            changedWhileLoading.add(issueId);
+        }
+        Cell cell = cells.get(cellKey(latitude, longitude));
+        if (cell != null) {
+            cell.remove(issueId);
+        }
+    }
+
+    /**
+     * Issues within radiusMeters of a point, nearest first
+     */
+    public Result withinRadius(double latitude, double longitude, double radiusMeters, int offset, int limit) {
+        double dLat = Math.toDegrees(radiusMeters / EARTH_RADIUS_METERS);
+        double cosLat = Math.max(Math.cos(Math.toRadians(latitude)), 1e-6);
+        double dLon = Math.min(180, dLat / cosLat);
+        double lat0 = Math.toRadians(latitude);
+        double lon0 = Math.toRadians(longitude);
+        Comparator<Hit> order = Comparator.comparingDouble(Hit::distanceMeters);
+        return collect(latitude - dLat, longitude - dLon, latitude + dLat, longitude + dLon, offset, limit, order,
+            (lat, lon) -> {
+                double distance = haversine(lat0, lon0, Math.toRadians(lat), Math.toRadians(lon));
+                return distance <= radiusMeters ? distance : -1;
+            });
+    }
+
+    /**
+     * Issues inside a bounding box, newest first
+     */
+    public Result withinBox(double minLat, double minLon, double maxLat, double maxLon, int offset, int limit) {
+        Comparator<Hit> order = Comparator.comparingLong(Hit::reportedAtMillis).reversed();
+        return collect(minLat, minLon, maxLat, maxLon, offset, limit, order, (lat, lon) ->
+            lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon ? 0 : -1);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Cell cell : cells.values()) {
+            size += cell.size;
+        }
+        return size;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        startupReport.time("geo index", () -> {
+            List<Object[]> rows = new ArrayList<>();
+            shards.scatter(issueRepo::findAllCoordinates).forEach(rows::addAll);
+            for (Object[] row : rows) {
+                UUID id = (UUID) row[0];
+                // Already indexed (or removed) as it changed: appending would count it twice
+                if (changedWhileLoading.contains(id)) {
+                    continue;
+                }
+                double latitude = (Double) row[1];
+                double longitude = (Double) row[2];
+                cells.computeIfAbsent(cellKey(latitude, longitude), k -> new Cell())
+                    .append(id, latitude, longitude, ((Instant) row[3]).toEpochMilli());
+            }
+            loaded = true;
+            changedWhileLoading.clear();
+            System.out.println("Geo index: " + rows.size() + " issues with coordinates in " + cells.size() + " cells");
+        });
+    }
+
+    /** Great-circle distance in meters between two points given in radians */
+    public static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double sinLat = Math.sin((lat2 - lat1) / 2);
+        double sinLon = Math.sin((lon2 - lon1) / 2);
+        double a = sinLat * sinLat + Math.cos(lat1) * Math.cos(lat2) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /** Distance in meters for a match (0 when distance does not matter), negative for no match */
+    @FunctionalInterface
+    private interface Matcher {
+        double match(double latitude, double longitude);
+    }
+
+    private Result collect(double minLat, double minLon, double maxLat, double maxLon, int offset, int limit,
+                           Comparator<Hit> order, Matcher matcher) {
+        offset = Math.max(0, offset);
+        limit = Math.max(0, limit);
+        // Saturates instead of overflowing; the controller caps offset far below this
+        int keep = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+        // Worst hit on top, so it is the one evicted when a better one arrives
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.max(1, Math.min(keep, 1024)), order.reversed());
+        long[] total = {0};
+        Consumer<Cell> visit = cell -> cell.scan(matcher, hit -> {
+            total[0]++;
+            if (best.size() < keep) {
+                best.add(hit);
+            } else if (keep > 0 && order.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        });
+
+        long minRow = cellIndex(Math.max(-90, minLat));
+        long maxRow = cellIndex(Math.min(90, maxLat));
+        long minCol = cellIndex(Math.max(-180, minLon));
+        long maxCol = cellIndex(Math.min(180, maxLon));
+        long boxCells = (maxRow - minRow + 1) * (maxCol - minCol + 1);
+        if (boxCells > cells.size()) {
+            // Large box over a sparse map: walking the occupied cells is cheaper than the empty ones
+            cells.forEach((key, cell) -> {
+                long row = key >> 32;
+                long col = (int) (long) key;
+                if (row >= minRow && row <= maxRow && col >= minCol && col <= maxCol) {
+                    visit.accept(cell);
+                }
+            });
+        } else {
+            for (long row = minRow; row <= maxRow; row++) {
+                for (long col = minCol; col <= maxCol; col++) {
+                    Cell cell = cells.get(key(row, col));
+                    if (cell != null) {
+                        visit.accept(cell);
+                    }
+                }
+            }
+        }
+
+        List<Hit> sorted = new ArrayList<>(best);
+        sorted.sort(order);
+        List<Hit> page = offset >= sorted.size() ? List.of() : sorted.subList(offset, sorted.size());
+        return new Result(page, total[0]);
+    }
+
+    private static long cellIndex(double degrees) {
+        return (long) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return key(cellIndex(latitude), cellIndex(longitude));
+    }
+
+    private static long key(long row, long col) {
+        return (row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    /** Issues of one cell in parallel arrays; guarded by its own monitor, never held across I/O */
+    private static final class Cell {
+        private long[] idHigh = new long[4];
+        private long[] idLow = new long[4];
+        private double[] latitudes = new double[4];
+        private double[] longitudes = new double[4];
+        private long[] reportedAt = new long[4];
+        private volatile int size;
+
+        synchronized void add(UUID id, double latitude, double longitude, long at) {
+            int i = indexOf(id);
+            if (i < 0) {
+                append(id, latitude, longitude, at);
+                return;
+            }
+            latitudes[i] = latitude;
+            longitudes[i] = longitude;
+            reportedAt[i] = at;
+        }
+
+        /** Add without checking for an existing entry (startup load, where ids are unique) */
+        synchronized void append(UUID id, double latitude, double longitude, long at) {
+            if (size == idHigh.length) {
+                int capacity = size * 2;
+                idHigh = Arrays.copyOf(idHigh, capacity);
+                idLow = Arrays.copyOf(idLow, capacity);
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+                reportedAt = Arrays.copyOf(reportedAt, capacity);
+            }
+            idHigh[size] = id.getMostSignificantBits();
+            idLow[size] = id.getLeastSignificantBits();
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            reportedAt[size] = at;
+            size = size + 1;
+        }
+
+        synchronized void remove(UUID id) {
+            int i = indexOf(id);
+            if (i < 0) {
+                return;
+            }
+            // Move the last issue into the gap
+            int last = size - 1;
+            idHigh[i] = idHigh[last];
+            idLow[i] = idLow[last];
+            latitudes[i] = latitudes[last];
+            longitudes[i] = longitudes[last];
+            reportedAt[i] = reportedAt[last];
+            size = last;
+        }
+
+        synchronized void scan(Matcher matcher, Consumer<Hit> sink) {
+            for (int i = 0; i < size; i++) {
+                double distance = matcher.match(latitudes[i], longitudes[i]);
+                if (distance >= 0) {
+                    sink.accept(new Hit(new UUID(idHigh[i], idLow[i]), distance, reportedAt[i]));
+                }
+            }
+        }
+
+        private int indexOf(UUID id) {
+            long high = id.getMostSignificantBits();
+            long low = id.getLeastSignificantBits();
+            for (int i = 0; i < size; i++) {
+                if (idLow[i] == low && idHigh[i] == high) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
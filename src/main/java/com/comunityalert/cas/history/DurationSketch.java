@@ -0,0 +1,30 @@
+package com.comunityalert.cas.history;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Durations in seconds in an HdrHistogram with 2 significant digits (at most 1% off), so a percentile
+ * is a walk over a few thousand buckets however many durations were recorded; about 10 KB for a span
+ * of a second to a few years.
+ */
+final class DurationSketch {
+
+    private static final double SECONDS_PER_HOUR = 3600.0;
+
+    private final Histogram histogram = new Histogram(2);
+
+    synchronized void record(long seconds) {
+        histogram.recordValue(Math.max(0, seconds));
+    }
+
+    synchronized IssueStatusHistory.Percentiles percentiles() {
+        return new IssueStatusHistory.Percentiles(histogram.getTotalCount(), hours(50), hours(90), hours(99));
+    }
+
+    private double hours(double percentile) {
+        if (histogram.getTotalCount() == 0) {
+            return 0;
+        }
+        return Math.round(histogram.getValueAtPercentile(percentile) / SECONDS_PER_HOUR * 10) / 10.0;
+    }
+}
@@ -0,0 +1,224 @@
+package com.comunityalert.cas.history;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.comunityalert.cas.datasource.ShardRouter;
+import com.comunityalert.cas.enums.LocationType;
+import com.comunityalert.cas.enums.Status;
+import com.comunityalert.cas.model.IssueReport;
+import com.comunityalert.cas.model.IssueStatusEvent;
+import com.comunityalert.cas.model.Location;
+import com.comunityalert.cas.repository.IssueStatusEventRepository;
+import com.comunityalert.cas.repository.LocationRepository;
+import com.comunityalert.cas.startup.StartupReport;
+import com.comunityalert.cas.utils.Transactions;
+
+/**
+ * Status history of issues: appends to issue_status_events and keeps time-in-status and time-to-resolution
+ * percentile sketches (DurationSketch) for all issues, per category and per district.
+ *
+ * The sketches are built once at startup from the event log (before readiness) and then updated by each
+ * committed status change, so dashboard percentiles never read history. Time-to-resolution runs from the
+ * report to its first resolution; time in a status from entering it to leaving it.
+ */
+@Component
+public class IssueStatusHistory implements ApplicationRunner {
+
+    private static final String UNKNOWN = "unknown";
+
+    public enum Dimension { CATEGORY, DISTRICT }
+
+    /**
+     * Percentiles in hours, rounded to 0.1
+     */
+    public record Percentiles(long count, double p50Hours, double p90Hours, double p99Hours) {
+    }
+
+    /**
+     * Sketches of one group of issues (one category, one district, or all of them)
+     */
+    public record Summary(String key, String name, Percentiles timeToResolution, Map<Status, Percentiles> timeInStatus) {
+    }
+
+    private record GroupKey(Dimension dimension, String value) {
+    }
+
+    private static final class Group {
+        final DurationSketch toResolution = new DurationSketch();
+        final Map<Status, DurationSketch> inStatus = new EnumMap<>(Status.class);
+
+        Group() {
+            for (Status status : Status.values()) {
+                inStatus.put(status, new DurationSketch());
+            }
+        }
+    }
+
+    private final IssueStatusEventRepository eventRepo;
+    private final LocationRepository locationRepo;
+    private final ShardRouter shards;
+    private final StartupReport startupReport;
+    private final TransactionTemplate readOnly;
+    private final Group overall = new Group();
+    private final Map<GroupKey, Group> groups = new ConcurrentHashMap<>();
+
+    public IssueStatusHistory(IssueStatusEventRepository eventRepo, LocationRepository locationRepo,
+                              ShardRouter shards, StartupReport startupReport, PlatformTransactionManager transactionManager) {
+        this.eventRepo = eventRepo;
+        this.locationRepo = locationRepo;
+        this.shards = shards;
+        this.startupReport = startupReport;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    /**
+     * Log a new issue's initial status; call in the transaction that saves it
+     */
+    public void recordCreated(IssueReport issue) {
+        eventRepo.save(new IssueStatusEvent(issue.getId(), null, issue.getStatus(), issue.getDateReported(),
+            issue.getCategory(), districtOf(issue.getLocation())));
+    }
+
+    /**
+     * Log a status change; call in the transaction that saves it, before dateResolved is updated.
+     * The sketches are updated once that transaction commits.
+     */
+    public void recordChange(IssueReport issue, Status from, Status to, Instant at) {
+        Optional<IssueStatusEvent> previous = eventRepo.findFirstByIssueIdOrderByChangedAtDescIdDesc(issue.getId());
+        IssueStatusEvent event = new IssueStatusEvent(issue.getId(), from, to, at, issue.getCategory(),
+            districtOf(issue.getLocation()));
+        eventRepo.save(event);
+
+        Instant enteredFrom = previous.filter(p -> p.getToStatus() == from).map(IssueStatusEvent::getChangedAt).orElse(null);
+        Instant reportedAt = issue.getDateReported();
+        boolean resolvedBefore = issue.getDateResolved() != null;
+        Transactions.afterCommit(() -> apply(event, enteredFrom, reportedAt, resolvedBefore));
+    }
+
+    public List<IssueStatusEvent> history(UUID issueId) {
+        return eventRepo.findHistory(issueId);
+    }
+
+    /**
+     * Drop a deleted issue's events; call in the transaction that deletes it. Archived issues keep theirs.
+     */
+    public void forget(UUID issueId) {
+        eventRepo.deleteByIssueId(issueId);
+    }
+
+    public Summary overall() {
+        return summary("all", "All issues", overall);
+    }
+
+    /**
+     * One summary per category or district, most resolved issues first
+     */
+    public List<Summary> summaries(Dimension dimension) {
+        Map<String, String> names = new HashMap<>();
+        if (dimension == Dimension.DISTRICT) {
+            List<UUID> ids = new ArrayList<>();
+            groups.keySet().stream()
+                .filter(k -> k.dimension() == Dimension.DISTRICT && !k.value().equals(UNKNOWN))
+                .forEach(k -> ids.add(UUID.fromString(k.value())));
+            locationRepo.findAllById(ids).forEach(l -> names.put(l.getId().toString(), l.getName()));
+        }
+        List<Summary> summaries = new ArrayList<>();
+        groups.forEach((key, group) -> {
+            if (key.dimension() == dimension) {
+                summaries.add(summary(key.value(), names.getOrDefault(key.value(), key.value()), group));
+            }
+        });
+        summaries.sort(Comparator.comparingLong((Summary s) -> s.timeToResolution().count()).reversed());
+        return summaries;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long[] events = {0};
+        // An issue's events all live on its shard, so each shard's stream is complete per issue
+        startupReport.time("status history", () -> shards.forEachShard(() -> readOnly.executeWithoutResult(tx -> {
+            UUID[] issue = {null};
+            Instant[] reportedAt = {null};
+            IssueStatusEvent[] previous = {null};
+            boolean[] resolved = {false};
+            try (Stream<Object[]> rows = eventRepo.streamAllInIssueOrder()) {
+                rows.forEach(row -> {
+                    IssueStatusEvent event = new IssueStatusEvent((UUID) row[0], (Status) row[1], (Status) row[2],
+                        (Instant) row[3], (String) row[4], (UUID) row[5]);
+                    if (!event.getIssueId().equals(issue[0])) {
+                        issue[0] = event.getIssueId();
+                        reportedAt[0] = event.getChangedAt();
+                        previous[0] = null;
+                        resolved[0] = false;
+                    }
+                    IssueStatusEvent last = previous[0];
+                    Instant enteredFrom = last != null && event.getFromStatus() != null
+                        && last.getToStatus() == event.getFromStatus() ? last.getChangedAt() : null;
+                    apply(event, enteredFrom, reportedAt[0], resolved[0]);
+                    resolved[0] |= event.getToStatus() == Status.RESOLVED;
+                    previous[0] = event;
+                    events[0]++;
+                });
+            }
+        })));
+        System.out.println("Status history: " + events[0] + " events, " + groups.size() + " category/district groups");
+    }
+
+    /**
+     * Add the durations one status change completes to the sketches of its groups
+     */
+    private void apply(IssueStatusEvent event, Instant enteredFrom, Instant reportedAt, boolean resolvedBefore) {
+        long inStatus = enteredFrom != null ? seconds(enteredFrom, event.getChangedAt()) : -1;
+        long toResolution = event.getToStatus() == Status.RESOLVED && !resolvedBefore && reportedAt != null
+            ? seconds(reportedAt, event.getChangedAt()) : -1;
+        if (inStatus < 0 && toResolution < 0) {
+            return;
+        }
+        String category = event.getCategory() != null ? event.getCategory() : UNKNOWN;
+        String district = event.getDistrictId() != null ? event.getDistrictId().toString() : UNKNOWN;
+        for (Group group : List.of(overall,
+                groups.computeIfAbsent(new GroupKey(Dimension.CATEGORY, category), k -> new Group()),
+                groups.computeIfAbsent(new GroupKey(Dimension.DISTRICT, district), k -> new Group()))) {
+            if (inStatus >= 0) {
+                group.inStatus.get(event.getFromStatus()).record(inStatus);
+            }
+            if (toResolution >= 0) {
+                group.toResolution.record(toResolution);
+            }
+        }
+    }
+
+    private static Summary summary(String key, String name, Group group) {
+        Map<Status, Percentiles> inStatus = new LinkedHashMap<>();
+        group.inStatus.forEach((status, sketch) -> inStatus.put(status, sketch.percentiles()));
+        return new Summary(key, name, group.toResolution.percentiles(), inStatus);
+    }
+
+    private static long seconds(Instant from, Instant to) {
+        return Math.max(0, Duration.between(from, to).getSeconds());
+    }
+
+    private static UUID districtOf(Location location) {
+        Location district = location != null ? location.findAncestor(LocationType.DISTRICT) : null;
+        return district != null ? district.getId() : null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.comunityalert.cas.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares for the current request. The SQL is passed through unchanged.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestPersistenceStats.statementPrepared();
+        return sql;
+    }
+}
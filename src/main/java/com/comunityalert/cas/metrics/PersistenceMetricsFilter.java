@@ -0,0 +1,60 @@
+package com.comunityalert.cas.metrics;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Publishes how much persistence work each endpoint does per request:
+ * cas.request.jdbc.statements, cas.request.entity.loads and cas.request.collection.fetches,
+ * tagged with the HTTP method and URI template (same tags as http.server.requests).
+ */
+@Component
+public class PersistenceMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    public PersistenceMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestPersistenceStats stats = RequestPersistenceStats.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestPersistenceStats.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            record("cas.request.jdbc.statements", "JDBC statements prepared per request", request, uri, stats.getStatements());
+            record("cas.request.entity.loads", "Entities loaded per request", request, uri, stats.getEntityLoads());
+            record("cas.request.collection.fetches", "Lazy collections initialized per request", request, uri, stats.getCollectionFetches());
+        }
+    }
+
+    private void record(String name, String description, HttpServletRequest request, String uri, long value) {
+        DistributionSummary.builder(name)
+            .description(description)
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry)
+            .record(value);
+    }
+}
@@ -0,0 +1,61 @@
+package com.comunityalert.cas.metrics;
+
+/**
+ * Per-request persistence counters (JDBC statements, entity loads, collection fetches).
+ * Counted on the request thread by the Hibernate hooks in PersistenceStatsIntegrator and
+ * CountingStatementInspector, and published per endpoint by PersistenceMetricsFilter.
+ */
+public final class RequestPersistenceStats {
+
+    private static final ThreadLocal<RequestPersistenceStats> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long entityLoads;
+    private long collectionFetches;
+
+    private RequestPersistenceStats() {
+    }
+
+    /**
+     * Start counting for the current thread
+     */
+    public static RequestPersistenceStats begin() {
+        RequestPersistenceStats stats = new RequestPersistenceStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stop counting for the current thread
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static void statementPrepared() {
+        RequestPersistenceStats stats = CURRENT.get();
+        if (stats != null) stats.statements++;
+    }
+
+    static void entityLoaded() {
+        RequestPersistenceStats stats = CURRENT.get();
+        if (stats != null) stats.entityLoads++;
+    }
+
+    static void collectionFetched() {
+        RequestPersistenceStats stats = CURRENT.get();
+        if (stats != null) stats.collectionFetches++;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getEntityLoads() {
+        return entityLoads;
+    }
+
+    public long getCollectionFetches() {
+        return collectionFetches;
+    }
+}
@@ -0,0 +1,126 @@
+package com.comunityalert.cas.metrics;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Logs JDBC statements slower than a threshold, plus a random sample of the rest.
+ * Each line carries the endpoint that issued the statement and the shape of its bind
+ * parameters (types and string lengths, never the values). Written to the
+ * com.comunityalert.cas.metrics.SlowQueryListener logger, which logback-spring.xml
+ * routes through an async appender so request threads never wait on the console.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryListener.class);
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final long thresholdMs;
+    private final double sampleRate;
+
+    public SlowQueryListener(long thresholdMs, double sampleRate) {
+        this.thresholdMs = thresholdMs;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        boolean slow = elapsed >= thresholdMs;
+        if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        if (slow ? !log.isWarnEnabled() : !log.isInfoEnabled()) {
+            return;
+        }
+
+        String line = String.format("%s %d ms [%s]%s%s %s params=%s",
+            slow ? "slow" : "sampled",
+            elapsed,
+            currentEndpoint(),
+            execInfo.isBatch() ? " batch=" + execInfo.getBatchSize() : "",
+            execInfo.isSuccess() ? "" : " FAILED",
+            sql(queryInfoList),
+            parameterShapes(queryInfoList));
+        if (slow) {
+            log.warn(line);
+        } else {
+            log.info(line);
+        }
+    }
+
+    /**
+     * "GET /api/issues/{id}" for request threads, "background" for schedulers and startup work
+     */
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servlet)) {
+            return "background";
+        }
+        HttpServletRequest request = servlet.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private static String sql(List<QueryInfo> queries) {
+        StringJoiner joined = new StringJoiner("; ");
+        for (QueryInfo query : queries) {
+            joined.add(query.getQuery().replaceAll("\\s+", " ").trim());
+        }
+        String sql = joined.toString();
+        return sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+    }
+
+    /**
+     * Types of the first parameter set of each statement, e.g. [UUID, String(12), null]
+     */
+    private static String parameterShapes(List<QueryInfo> queries) {
+        StringJoiner statements = new StringJoiner(" ");
+        for (QueryInfo query : queries) {
+            List<List<ParameterSetOperation>> sets = query.getParametersList();
+            if (sets.isEmpty()) {
+                statements.add("[]");
+                continue;
+            }
+            StringJoiner shape = new StringJoiner(", ", "[", "]");
+            for (ParameterSetOperation op : sets.get(0)) {
+                shape.add(shapeOf(op));
+            }
+            statements.add(shape.toString());
+        }
+        return statements.toString();
+    }
+
+    private static String shapeOf(ParameterSetOperation op) {
+        if ("setNull".equals(op.getMethod().getName())) {
+            return "null";
+        }
+        Object[] args = op.getArgs();
+        Object value = args.length > 1 ? args[1] : null;
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof CharSequence text) {
+            return "String(" + text.length() + ")";
+        }
+        return value.getClass().getSimpleName();
+    }
+}
@@ -3,10 +3,16 @@ package com.comunityalert.cas.model;
 import java.time.Instant;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "comments")
+// createdAt has no explicit @Column name, so its physical column is "createdAt" (see COLUMN_MIGRATION_GUIDE.md)
+@Table(name = "comments", indexes = {
+    @Index(name = "idx_comments_issue_created", columnList = "issue_id, createdAt, id")
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Comment {
     @Id
     @GeneratedValue
@@ -17,11 +23,11 @@ public class Comment {
 
     private Instant createdAt = Instant.now();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by")
     private User createdBy;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "issue_id")
     private IssueReport issue;
 
@@ -11,7 +11,9 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "issues")
+@Table(name = "issues", indexes = {
+    @Index(name = "idx_issues_last_activity_at", columnList = "last_activity_at")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class IssueReport {
     
@@ -37,6 +39,13 @@ public class IssueReport {
     @JsonIgnoreProperties({"parent", "children"})
     private Location location;
 
+    // Optional WGS84 position of the problem itself (the Location is only the village); see GeoIndex
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
     @Column(name = "photo_url")
     private String photoUrl;
 
@@ -46,13 +55,25 @@ public class IssueReport {
     @Column(name = "date_resolved")
     private Instant dateResolved;
 
+    // Denormalized thread stats, kept current by CommentService so lists can show/sort by activity without joining comments
+    @Column(name = "comment_count", nullable = true)
+    private Integer commentCount = 0;
+
+    @Column(name = "last_activity_at")
+    private Instant lastActivityAt = Instant.now();
+
+    // Set when the report was filed as a near-duplicate of an open issue in the same location (DuplicateIssueIndex)
+    @Column(name = "duplicate_of_id")
+    private UUID duplicateOfId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "reported_by", nullable = true)
     @JsonIgnoreProperties({"password", "email", "role"})
     private User reportedBy;
 
     // NEW: Many-to-Many relationship with Tags
-    @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.LAZY)
+    // No PERSIST cascade: tags are created by admins only, and new issues link existing (possibly cached) tags
+    @ManyToMany(cascade = {CascadeType.MERGE}, fetch = FetchType.LAZY)
     @JoinTable(
         name = "issue_tags",
         joinColumns = @JoinColumn(name = "issue_id"),
@@ -61,6 +82,10 @@ public class IssueReport {
     @JsonIgnoreProperties({"issues"})
     private Set<Tag> tags = new HashSet<>();
 
+    // True for issues read back from the cold archive (ColdArchive); never stored
+    @Transient
+    private boolean archived;
+
     // Getters and Setters
     public UUID getId() {
         return id;
@@ -110,6 +135,22 @@ public class IssueReport {
         this.location = location;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public String getPhotoUrl() {
         return photoUrl;
     }
@@ -134,6 +175,30 @@ public class IssueReport {
         this.dateResolved = dateResolved;
     }
 
+    public int getCommentCount() {
+        return commentCount != null ? commentCount : 0;
+    }
+
+    public void setCommentCount(Integer commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public Instant getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(Instant lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    public UUID getDuplicateOfId() {
+        return duplicateOfId;
+    }
+
+    public void setDuplicateOfId(UUID duplicateOfId) {
+        this.duplicateOfId = duplicateOfId;
+    }
+
     public User getReportedBy() {
         return reportedBy;
     }
@@ -150,14 +215,29 @@ public class IssueReport {
         this.tags = tags;
     }
 
+    public boolean isArchived() {
+        return archived;
+    }
+
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
+
     // Helper methods for managing tags
-    public void addTag(Tag tag) {
-        this.tags.add(tag);
+    // Both return whether the link actually changed, so callers know when to adjust tag usage counts
+    public boolean addTag(Tag tag) {
+        if (!this.tags.add(tag)) {
+            return false;
+        }
         tag.getIssues().add(this);
+        return true;
     }
 
-    public void removeTag(Tag tag) {
-        this.tags.remove(tag);
+    public boolean removeTag(Tag tag) {
+        if (!this.tags.remove(tag)) {
+            return false;
+        }
         tag.getIssues().remove(this);
+        return true;
     }
 }
\ No newline at end of file
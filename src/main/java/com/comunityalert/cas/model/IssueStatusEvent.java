@@ -0,0 +1,86 @@
+package com.comunityalert.cas.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.hibernate.annotations.Immutable;
+
+import com.comunityalert.cas.enums.Status;
+
+import jakarta.persistence.*;
+
+/**
+ * One status change of an issue (V6__issue_status_events.sql). Rows are only ever inserted;
+ * category and districtId are the issue's at the time of the change.
+ */
+@Entity
+@Immutable
+@Table(name = "issue_status_events")
+public class IssueStatusEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "issue_id", nullable = false)
+    private UUID issueId;
+
+    // Null for the creation event and for resolutions backfilled from issues.date_resolved
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status")
+    private Status fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false)
+    private Status toStatus;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    @Column(name = "category")
+    private String category;
+
+    @Column(name = "district_id")
+    private UUID districtId;
+
+    protected IssueStatusEvent() {
+    }
+
+    public IssueStatusEvent(UUID issueId, Status fromStatus, Status toStatus, Instant changedAt,
+                            String category, UUID districtId) {
+        this.issueId = issueId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.changedAt = changedAt;
+        this.category = category;
+        this.districtId = districtId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getIssueId() {
+        return issueId;
+    }
+
+    public Status getFromStatus() {
+        return fromStatus;
+    }
+
+    public Status getToStatus() {
+        return toStatus;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public UUID getDistrictId() {
+        return districtId;
+    }
+}
@@ -8,8 +8,13 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 @Entity
 @Table(name = "locations")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "locations")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Location {
 
@@ -30,6 +35,7 @@ public class Location {
     private Location parent;
 
     @OneToMany(mappedBy = "parent", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "location-children")
     @JsonIgnore  // ← Add this to prevent circular reference
     private List<Location> children = new ArrayList<>();
 
@@ -73,4 +79,17 @@ public class Location {
     public void setChildren(List<Location> children) {
         this.children = children;
     }
-}
\ No newline at end of file
+
+    /**
+     * This location or the nearest parent of the given type (e.g. the district of a village), or null.
+     * Parents are lazy but second-level cached, so the walk up from a village costs no queries once warm.
+     */
+    public Location findAncestor(LocationType type) {
+        for (Location l = this; l != null; l = l.getParent()) {
+            if (l.getType() == type) {
+                return l;
+            }
+        }
+        return null;
+    }
+}
@@ -33,7 +33,8 @@ public class Notification {
     @Column(name = "channel")
     private Channel channel;
 
-    @Column(name = "sent_at")
+    // Partition key of notifications (monthly ranges, V7)
+    @Column(name = "sent_at", nullable = false)
     private Instant sentAt = Instant.now();
 
     @Column(name = "delivered")
@@ -1,13 +1,23 @@
 package com.comunityalert.cas.model;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 import jakarta.persistence.*;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "tags")
+@Table(name = "tags", indexes = {
+    @Index(name = "idx_tags_usage_count", columnList = "usage_count"),
+    @Index(name = "idx_tags_popularity_score", columnList = "popularity_score")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tags")
 public class Tag {
     
     @Id
@@ -23,6 +33,18 @@ public class Tag {
     @Column(name = "active", nullable = true)
     private Boolean active = true; // Tags are active by default (nullable to allow Hibernate to add column)
 
+    // Number of issues carrying this tag, kept in step with issue_tags by IssueService/TagService
+    @Column(name = "usage_count", nullable = true)
+    private Integer usageCount = 0;
+
+    @Column(name = "last_used_at")
+    private Instant lastUsedAt;
+
+    // Recency-decayed popularity, stored on a log scale anchored at the epoch (see TagService)
+    @Column(name = "popularity_score")
+    @JsonIgnore
+    private Double popularityScore;
+
     @ManyToMany(mappedBy = "tags")
     @JsonIgnore  // Prevent circular reference in JSON
     private Set<IssueReport> issues = new HashSet<>();
@@ -71,4 +93,28 @@ public class Tag {
     public Boolean getActive() {
         return active != null ? active : true;
     }
+
+    public int getUsageCount() {
+        return usageCount != null ? usageCount : 0;
+    }
+
+    public void setUsageCount(Integer usageCount) {
+        this.usageCount = usageCount;
+    }
+
+    public Instant getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    public void setLastUsedAt(Instant lastUsedAt) {
+        this.lastUsedAt = lastUsedAt;
+    }
+
+    public Double getPopularityScore() {
+        return popularityScore;
+    }
+
+    public void setPopularityScore(Double popularityScore) {
+        this.popularityScore = popularityScore;
+    }
 }
\ No newline at end of file
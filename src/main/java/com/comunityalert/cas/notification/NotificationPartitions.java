@@ -0,0 +1,244 @@
+package com.comunityalert.cas.notification;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.comunityalert.cas.datasource.ShardRouter;
+import com.comunityalert.cas.datasource.ShardRouting;
+import com.comunityalert.cas.startup.StartupReport;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the monthly partitions of notifications (V7) in shape: the coming cas.notifications.partitions.months-ahead
+ * months are created ahead of time, and months older than retention-months are detached from the table and then
+ * either moved to the notifications_archive schema (retired=archive) or dropped (retired=drop).
+ *
+ * Runs once at startup, before readiness, and then every check-interval on its own thread. Detaching is
+ * CONCURRENTLY, so listings and inserts are not blocked while a month is retired. A PostgreSQL advisory lock
+ * keeps several instances from doing the same work at once; the one that doesn't get it skips the run.
+ * With issue shards every shard's table is maintained the same way, one after the other.
+ */
+@Component
+@ConditionalOnProperty(name = "cas.notifications.partitions.enabled", havingValue = "true", matchIfMissing = true)
+public class NotificationPartitions implements ApplicationRunner {
+
+    private static final String ARCHIVE_SCHEMA = "notifications_archive";
+    private static final Pattern NAME = Pattern.compile("notifications_p(\\d{6})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    // Arbitrary, but the same on every instance
+    private static final long LOCK_KEY = 7_448_011_923L;
+
+    private final DataSource dataSource;
+    private final ShardRouter shards;
+    private final StartupReport startupReport;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final boolean drop;
+    private final Duration checkInterval;
+    private final AtomicInteger attached = new AtomicInteger();
+    private final Counter archived;
+    private final Counter dropped;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "notification-partitions");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public NotificationPartitions(DataSource dataSource, ShardRouter shards, StartupReport startupReport,
+                                  MeterRegistry registry,
+                                  @Value("${cas.notifications.partitions.months-ahead:3}") int monthsAhead,
+                                  @Value("${cas.notifications.partitions.retention-months:24}") int retentionMonths,
+                                  @Value("${cas.notifications.partitions.retired:archive}") String retired,
+                                  @Value("${cas.notifications.partitions.check-interval:6h}") Duration checkInterval) {
+        if (!retired.equalsIgnoreCase("archive") && !retired.equalsIgnoreCase("drop")) {
+            throw new IllegalArgumentException("cas.notifications.partitions.retired must be archive or drop, not " + retired);
+        }
+        this.dataSource = dataSource;
+        this.shards = shards;
+        this.startupReport = startupReport;
+        this.monthsAhead = Math.max(1, monthsAhead);
+        this.retentionMonths = Math.max(1, retentionMonths);
+        this.drop = retired.equalsIgnoreCase("drop");
+        this.checkInterval = checkInterval;
+        this.archived = Counter.builder("cas.notifications.partitions.retired")
+            .description("Monthly notification partitions detached for being past retention")
+            .tag("action", "archived")
+            .register(registry);
+        this.dropped = Counter.builder("cas.notifications.partitions.retired")
+            .description("Monthly notification partitions detached for being past retention")
+            .tag("action", "dropped")
+            .register(registry);
+        Gauge.builder("cas.notifications.partitions", attached, AtomicInteger::get)
+            .description("Monthly partitions attached to notifications at the last maintenance run")
+            .register(registry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        startupReport.time("notification partitions", this::maintain);
+        long every = checkInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::maintain, every, every, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Create the coming months and retire the expired ones on every shard; failures are logged and retried next run
+     */
+    synchronized void maintain() {
+        AtomicInteger total = new AtomicInteger();
+        shards.forEachShard(() -> {
+            int count = maintainShard();
+            if (count < 0 || total.get() < 0) {
+                total.set(-1);
+            } else {
+                total.addAndGet(count);
+            }
+        });
+        // A skipped or failed shard leaves the gauge at the last complete count
+        if (total.get() >= 0) {
+            attached.set(total.get());
+        }
+    }
+
+    /**
+     * Partitions attached after maintenance, or -1 when skipped or failed
+     */
+    private int maintainShard() {
+        String where = shards.isEnabled() ? " (" + ShardRouting.current() + ")" : "";
+        try (Connection connection = dataSource.getConnection()) {
+            // DETACH ... CONCURRENTLY refuses to run inside a transaction block
+            connection.setAutoCommit(true);
+            if (!lock(connection, "pg_try_advisory_lock")) {
+                System.out.println("Notification partitions" + where + ": maintained by another instance, skipped");
+                return -1;
+            }
+            try {
+                YearMonth current = YearMonth.now(ZoneOffset.UTC);
+                for (int i = 0; i <= monthsAhead; i++) {
+                    create(connection, current.plusMonths(i));
+                }
+                YearMonth oldestKept = current.minusMonths(retentionMonths);
+                Map<YearMonth, Boolean> partitions = attached(connection);
+                int retired = 0;
+                for (Map.Entry<YearMonth, Boolean> partition : partitions.entrySet()) {
+                    if (partition.getKey().isBefore(oldestKept)) {
+                        retire(connection, partition.getKey(), partition.getValue());
+                        retired++;
+                    }
+                }
+                if (retired > 0) {
+                    System.out.println("Notification partitions" + where + ": " + (drop ? "dropped " : "archived ")
+                        + retired + " month(s) before " + oldestKept);
+                }
+                return partitions.size() - retired;
+            } finally {
+                lock(connection, "pg_advisory_unlock");
+            }
+        } catch (SQLException e) {
+            System.err.println("Notification partition maintenance failed" + where + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private void create(Connection connection, YearMonth month) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + name(month) + " PARTITION OF notifications"
+                + " FOR VALUES FROM ('" + month.atDay(1) + " 00:00:00+00') TO ('" + month.plusMonths(1).atDay(1) + " 00:00:00+00')");
+        }
+    }
+
+    /**
+     * Attached monthly partitions, oldest first, each with whether an earlier concurrent detach was interrupted
+     */
+    private Map<YearMonth, Boolean> attached(Connection connection) throws SQLException {
+        Map<YearMonth, Boolean> partitions = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT c.relname, i.inhdetachpending FROM pg_inherits i"
+                 + " JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'notifications'::regclass ORDER BY c.relname")) {
+            while (rows.next()) {
+                Matcher matcher = NAME.matcher(rows.getString(1));
+                if (matcher.matches()) {
+                    partitions.put(YearMonth.parse(matcher.group(1), SUFFIX), rows.getBoolean(2));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private void retire(Connection connection, YearMonth month, boolean detachPending) throws SQLException {
+        String table = name(month);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE notifications DETACH PARTITION " + table + (detachPending ? " FINALIZE" : " CONCURRENTLY"));
+            if (drop) {
+                statement.execute("DROP TABLE " + table);
+                dropped.increment();
+                return;
+            }
+            // Archived rows must not keep issues or users from being deleted
+            for (String constraint : foreignKeys(connection, table)) {
+                statement.execute("ALTER TABLE " + table + " DROP CONSTRAINT \"" + constraint.replace("\"", "\"\"") + "\"");
+            }
+            statement.execute("CREATE SCHEMA IF NOT EXISTS " + ARCHIVE_SCHEMA);
+            statement.execute("ALTER TABLE " + table + " SET SCHEMA " + ARCHIVE_SCHEMA);
+            archived.increment();
+        }
+    }
+
+    private static List<String> foreignKeys(Connection connection, String table) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass AND contype = 'f'")) {
+            statement.setString(1, table);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    names.add(rows.getString(1));
+                }
+            }
+        }
+        return names;
+    }
+
+    private static boolean lock(Connection connection, String function) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet row = statement.executeQuery("SELECT " + function + "(" + LOCK_KEY + ")")) {
+            return row.next() && row.getBoolean(1);
+        }
+    }
+
+    private static String name(YearMonth month) {
+        return "notifications_p" + month.format(SUFFIX);
+    }
+}
@@ -0,0 +1,129 @@
+package com.comunityalert.cas.overload;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Gradient concurrency limit: how many API requests may run at once, learned from service latency.
+ *
+ * Every IssueService/NotificationService call (ServiceLatencyAspect) is compared with that method's
+ * own baseline latency, so cheap and expensive calls weigh the same. While recent calls stay within
+ * cas.overload.tolerance times their baseline the limit grows by about sqrt(limit); once they queue
+ * (pool saturated) the limit shrinks in proportion to the slowdown. LOW and NORMAL requests may only
+ * use a share of the limit, so they are shed before CRITICAL ones.
+ */
+@Component
+@ConditionalOnProperty(name = "cas.overload.enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptiveConcurrencyLimiter {
+
+    // Baselines follow improvements quickly and degradations slowly, so sustained overload
+    // does not become the new normal
+    private static final double BASELINE_DOWN = 0.1;
+    private static final double BASELINE_UP = 0.005;
+    private static final double RECENT_ALPHA = 0.1;
+    private static final double SMOOTHING = 0.1;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    // Guarded by sampleLock
+    private final Map<Object, double[]> baselines = new ConcurrentHashMap<>();
+    private double recentRatio = 1.0;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double normalShare;
+    private final double lowShare;
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(@Value("${cas.overload.initial-limit:20}") int initialLimit,
+                                      @Value("${cas.overload.min-limit:5}") int minLimit,
+                                      @Value("${cas.overload.max-limit:200}") int maxLimit,
+                                      @Value("${cas.overload.tolerance:2.0}") double tolerance,
+                                      @Value("${cas.overload.normal-share:0.85}") double normalShare,
+                                      @Value("${cas.overload.low-share:0.5}") double lowShare,
+                                      MeterRegistry registry) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.normalShare = normalShare;
+        this.lowShare = lowShare;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        Gauge.builder("cas.overload.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Current adaptive concurrency limit for API requests")
+            .register(registry);
+        Gauge.builder("cas.overload.inflight", inflight, AtomicInteger::get)
+            .description("API requests currently admitted by the concurrency limiter")
+            .register(registry);
+    }
+
+    /**
+     * Admit a request if its priority's share of the limit is not used up; pair with release()
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        double allowed = limit * switch (priority) {
+            case CRITICAL -> 1.0;
+            case NORMAL -> normalShare;
+            case LOW -> lowShare;
+        };
+        while (true) {
+            int current = inflight.get();
+            if (current >= Math.max(1, allowed)) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inflight.decrementAndGet();
+    }
+
+    /**
+     * Feed one service call's latency; operation identifies the method so it has its own baseline
+     */
+    public void onSample(Object operation, long rttNanos) {
+        // Another thread is updating; skipping one sample is cheaper than waiting for it
+        if (!sampleLock.tryLock()) {
+            return;
+        }
+        try {
+            double rtt = Math.max(1, rttNanos);
+            double[] baseline = baselines.computeIfAbsent(operation, k -> new double[] {rtt});
+            recentRatio += RECENT_ALPHA * (rtt / baseline[0] - recentRatio);
+            baseline[0] += (rtt < baseline[0] ? BASELINE_DOWN : BASELINE_UP) * (rtt - baseline[0]);
+
+            double current = limit;
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance / recentRatio));
+            double target = current * gradient + Math.sqrt(current);
+            // Only grow when the limit is actually being used, otherwise latency says nothing about it
+            if (target > current && inflight.get() < current / 2) {
+                return;
+            }
+            double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+            limit = Math.max(minLimit, Math.min(maxLimit, next));
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
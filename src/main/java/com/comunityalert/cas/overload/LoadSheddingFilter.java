@@ -0,0 +1,124 @@
+package com.comunityalert.cas.overload;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admits API requests through AdaptiveConcurrencyLimiter and answers 503 with Retry-After
+ * to the ones it sheds, instead of letting them queue in Tomcat until everything times out.
+ * Priorities come from cas.overload.priority.critical / .low ("METHOD /ant/path" entries,
+ * first match wins, critical checked first); everything else is NORMAL.
+ * Runs after the CORS filter (CorsConfig), so a 503 still carries CORS headers, and after RateLimitFilter,
+ * so a rate-limited client never takes a slot. OPTIONS requests (preflights) are never shed: shedding
+ * one would fail the request it precedes, however critical.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 7)
+@ConditionalOnProperty(name = "cas.overload.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final List<String[]> critical;
+    private final List<String[]> low;
+    private final Map<RequestPriority, Counter> shed = new EnumMap<>(RequestPriority.class);
+
+    public LoadSheddingFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper, MeterRegistry registry,
+                              @Value("${cas.overload.priority.critical:}") String[] critical,
+                              @Value("${cas.overload.priority.low:}") String[] low) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.critical = parse(critical);
+        this.low = parse(low);
+        for (RequestPriority priority : RequestPriority.values()) {
+            shed.put(priority, Counter.builder("cas.overload.shed")
+                .description("Requests answered 503 because the concurrency limit was reached")
+                .tag("priority", priority.name().toLowerCase())
+                .register(registry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestPriority priority = classify(request.getMethod(), request.getRequestURI());
+        if (!limiter.tryAcquire(priority)) {
+            shed.get(priority).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), Map.of(
+                "error", "Server is busy, try again shortly",
+                "priority", priority.name().toLowerCase()
+            ));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    RequestPriority classify(String method, String path) {
+        if (matchesAny(critical, method, path)) {
+            return RequestPriority.CRITICAL;
+        }
+        if (matchesAny(low, method, path)) {
+            return RequestPriority.LOW;
+        }
+        return RequestPriority.NORMAL;
+    }
+
+    private boolean matchesAny(List<String[]> routes, String method, String path) {
+        for (String[] route : routes) {
+            if ((route[0].equals("*") || route[0].equalsIgnoreCase(method)) && matcher.match(route[1], path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String[]> parse(String[] entries) {
+        List<String[]> routes = new ArrayList<>();
+        for (String entry : entries) {
+            String[] parts = entry.trim().split("\\s+", 2);
+            if (parts.length == 2) {
+                routes.add(parts);
+            } else if (!parts[0].isEmpty()) {
+                routes.add(new String[] {"*", parts[0]});
+            }
+        }
+        return routes;
+    }
+}
@@ -0,0 +1,11 @@
+package com.comunityalert.cas.overload;
+
+/**
+ * Order in which LoadSheddingFilter gives up on requests when the concurrency limit tightens:
+ * LOW goes first, CRITICAL (issue reporting and sign-in) only when the whole limit is in use.
+ */
+public enum RequestPriority {
+    CRITICAL,
+    NORMAL,
+    LOW
+}
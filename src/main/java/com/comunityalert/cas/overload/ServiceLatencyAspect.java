@@ -0,0 +1,51 @@
+package com.comunityalert.cas.overload;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times IssueService and NotificationService calls for AdaptiveConcurrencyLimiter.
+ * Runs outside @Transactional, so waiting for a pool connection counts; nested calls
+ * (IssueService notifying through NotificationService) are measured once, at the outer call.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "cas.overload.enabled", havingValue = "true", matchIfMissing = true)
+public class ServiceLatencyAspect {
+
+    private static final ThreadLocal<Boolean> MEASURING = new ThreadLocal<>();
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ServiceLatencyAspect(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Around("within(com.comunityalert.cas.service.IssueService) || within(com.comunityalert.cas.service.NotificationService)")
+    public Object measure(ProceedingJoinPoint pjp) throws Throwable {
+        if (MEASURING.get() != null) {
+            return pjp.proceed();
+        }
+        MEASURING.set(Boolean.TRUE);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = pjp.proceed();
+            failed = false;
+            return result;
+        } finally {
+            MEASURING.remove();
+            // Failures are often fast (validation, not found) and would read as spare capacity
+            if (!failed) {
+                limiter.onSample(((MethodSignature) pjp.getSignature()).getMethod(), System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.comunityalert.cas.photo;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Content-addressed storage for issue photos under cas.photos.dir.
+ *
+ * A photo is stored once as ab/&lt;sha-256&gt;.&lt;ext&gt; whatever its file name or uploader, so the id is also
+ * its ETag and a second upload of the same bytes costs nothing but the read. Uploads are copied in
+ * COPY_BUFFER-sized chunks into a temp file while being hashed, then renamed into place; heap use does
+ * not depend on the photo's size. Only JPEG, PNG and WebP are accepted, recognized by their leading bytes.
+ *
+ * Thumbnails (JPEG, at most cas.photos.thumbnail.size pixels on the long side) are made on a small
+ * bounded executor after the upload has been answered. When its queue is full the thumbnail is
+ * skipped, not waited for; it is requested again the first time someone asks for it.
+ */
+@Component
+public class PhotoStore {
+
+    private static final int COPY_BUFFER = 64 * 1024;
+    private static final int SNIFF_BYTES = 12;
+    // Decoding allocates 4 bytes per pixel; a 40 MP photo is ~160 MB before subsampling kicks in
+    private static final long MAX_PIXELS = 40_000_000L;
+    private static final Pattern ID = Pattern.compile("[0-9a-f]{64}\\.(jpg|png|webp)");
+
+    /**
+     * Result of an upload; duplicate is true when the same bytes were already stored
+     */
+    public record StoredPhoto(String id, String contentType, long size, boolean duplicate) {
+    }
+
+    private final Path root;
+    private final Path tmp;
+    private final long maxBytes;
+    private final int thumbnailSize;
+    private final ThreadPoolExecutor thumbnailExecutor;
+    private final Set<String> pendingThumbnails = ConcurrentHashMap.newKeySet();
+    private final Counter stored;
+    private final Counter duplicates;
+    private final Counter thumbnailsSkipped;
+
+    public PhotoStore(MeterRegistry registry,
+                      @Value("${cas.photos.dir:data/photos}") Path root,
+                      @Value("${cas.photos.max-size:10MB}") DataSize maxSize,
+                      @Value("${cas.photos.thumbnail.size:320}") int thumbnailSize,
+                      @Value("${cas.photos.thumbnail.threads:2}") int threads,
+                      @Value("${cas.photos.thumbnail.queue:200}") int queue) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.tmp = this.root.resolve("tmp");
+        Files.createDirectories(tmp);
+        this.maxBytes = maxSize.toBytes();
+        this.thumbnailSize = thumbnailSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.thumbnailExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queue), r -> {
+                Thread t = new Thread(r, "photo-thumbnail-" + threadNumber.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        this.thumbnailExecutor.allowCoreThreadTimeOut(true);
+
+        this.stored = Counter.builder("cas.photos.uploads")
+            .description("Photo uploads by outcome")
+            .tag("result", "stored")
+            .register(registry);
+        this.duplicates = Counter.builder("cas.photos.uploads")
+            .description("Photo uploads by outcome")
+            .tag("result", "duplicate")
+            .register(registry);
+        this.thumbnailsSkipped = Counter.builder("cas.photos.thumbnails.skipped")
+            .description("Thumbnails not queued because the thumbnail executor was full")
+            .register(registry);
+        Gauge.builder("cas.photos.thumbnails.queued", thumbnailExecutor, e -> e.getQueue().size())
+            .description("Thumbnails waiting for the thumbnail executor")
+            .register(registry);
+    }
+
+    /**
+     * Stream an upload into the store. Throws IllegalArgumentException for unsupported or oversized content;
+     * the caller closes the stream.
+     */
+    public StoredPhoto store(InputStream in) throws IOException {
+        byte[] head = in.readNBytes(SNIFF_BYTES);
+        String extension = sniff(head);
+        if (extension == null) {
+            throw new IllegalArgumentException("Only JPEG, PNG and WebP photos are accepted");
+        }
+
+        MessageDigest sha256 = sha256();
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        long size = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                out.write(head);
+                sha256.update(head);
+                size = head.length;
+                byte[] buffer = new byte[COPY_BUFFER];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    size += n;
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException("Photo is larger than " + DataSize.ofBytes(maxBytes).toMegabytes() + " MB");
+                    }
+                    sha256.update(buffer, 0, n);
+                    out.write(buffer, 0, n);
+                }
+            }
+
+            String id = HexFormat.of().formatHex(sha256.digest()) + "." + extension;
+            Path target = path(id);
+            boolean duplicate = Files.exists(target);
+            if (!duplicate) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException | AtomicMoveNotSupportedException e) {
+                    // Same bytes stored concurrently, or a filesystem without atomic rename
+                    duplicate = Files.exists(target);
+                    if (!duplicate) {
+                        Files.move(temp, target);
+                    }
+                }
+            }
+            (duplicate ? duplicates : stored).increment();
+            requestThumbnail(id);
+            return new StoredPhoto(id, contentType(id), size, duplicate);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public boolean isValidId(String id) {
+        return id != null && ID.matcher(id).matches();
+    }
+
+    /**
+     * The stored photo, or null if there is none with this id
+     */
+    public Path original(String id) {
+        if (!isValidId(id)) {
+            return null;
+        }
+        Path path = path(id);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /**
+     * The photo's thumbnail, or null if it has not been made (yet); asking for a missing one queues it
+     */
+    public Path thumbnail(String id) {
+        if (original(id) == null) {
+            return null;
+        }
+        Path path = thumbnailPath(id);
+        if (Files.isRegularFile(path)) {
+            return path;
+        }
+        requestThumbnail(id);
+        return null;
+    }
+
+    public String contentType(String id) {
+        if (id.endsWith(".png")) {
+            return "image/png";
+        }
+        if (id.endsWith(".webp")) {
+            return "image/webp";
+        }
+        return "image/jpeg";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        thumbnailExecutor.shutdownNow();
+    }
+
+    private void requestThumbnail(String id) {
+        if (Files.exists(thumbnailPath(id)) || !pendingThumbnails.add(id)) {
+            return;
+        }
+        try {
+            thumbnailExecutor.execute(() -> {
+                try {
+                    writeThumbnail(id);
+                } catch (Exception e) {
+                    System.err.println("Thumbnail for photo " + id + " failed: " + e.getMessage());
+                } finally {
+                    pendingThumbnails.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingThumbnails.remove(id);
+            thumbnailsSkipped.increment();
+        }
+    }
+
+    private void writeThumbnail(String id) throws IOException {
+        BufferedImage source;
+        try (ImageInputStream in = ImageIO.createImageInputStream(path(id).toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                // No decoder for this format in the JDK (WebP): served without a thumbnail
+                return;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) {
+                    return;
+                }
+                // Large photos decode every n-th pixel of every n-th row (1/n² of the memory), still at least 2x the thumbnail
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (2 * thumbnailSize));
+                param.setSourceSubsampling(step, step, 0, 0);
+                source = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        double scale = Math.min(1, (double) thumbnailSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            // JPEG has no alpha: transparent PNG areas become white
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+
+        Path temp = Files.createTempFile(tmp, "thumb-", ".part");
+        try {
+            ImageIO.write(thumbnail, "jpg", temp.toFile());
+            Files.move(temp, thumbnailPath(id), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path path(String id) {
+        return root.resolve(id.substring(0, 2)).resolve(id);
+    }
+
+    private Path thumbnailPath(String id) {
+        return root.resolve(id.substring(0, 2)).resolve(id.substring(0, id.indexOf('.')) + ".thumb.jpg");
+    }
+
+    private static String sniff(byte[] head) {
+        if (head.length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return "jpg";
+        }
+        if (head.length >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G'
+                && head[4] == 0x0D && head[5] == 0x0A && head[6] == 0x1A && head[7] == 0x0A) {
+            return "png";
+        }
+        if (head.length >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "webp";
+        }
+        return null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
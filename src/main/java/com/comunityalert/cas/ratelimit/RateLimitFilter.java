@@ -0,0 +1,135 @@
+package com.comunityalert.cas.ratelimit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.comunityalert.cas.service.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Applies the cas.ratelimit.policies token buckets before a request reaches the controllers,
+ * answering 429 with Retry-After once a client's bucket is empty. Runs after TracingFilter and the CORS
+ * filter (CorsConfig), so rejections still carry an X-Trace-Id and CORS headers, and before
+ * ReadYourWritesFilter, so they never count as writes.
+ * Rejections are counted per policy as cas.ratelimit.rejected; cas.ratelimit.buckets is the active key count.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(name = "cas.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final List<Route> routes = new ArrayList<>();
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(Environment env, JwtService jwtService, ObjectMapper objectMapper, MeterRegistry registry) {
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        Map<String, RateLimitPolicy> policies = Binder.get(env)
+            .bind("cas.ratelimit.policies", Bindable.mapOf(String.class, RateLimitPolicy.class))
+            .orElse(Map.of());
+        long now = System.nanoTime();
+        policies.forEach((name, policy) -> {
+            RateLimiter limiter = new RateLimiter(policy, now);
+            Counter rejected = Counter.builder("cas.ratelimit.rejected")
+                .description("Requests answered 429 by the rate limiter")
+                .tag("policy", name)
+                .register(registry);
+            Gauge.builder("cas.ratelimit.buckets", limiter, RateLimiter::size)
+                .description("Clients currently holding a token bucket")
+                .tag("policy", name)
+                .register(registry);
+            routes.add(new Route(name, policy, limiter, rejected));
+            System.out.println("Rate limit " + name + ": " + policy.method() + " " + policy.paths() + " "
+                + policy.capacity() + " per " + policy.period() + " by " + policy.key());
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        for (Route route : routes) {
+            if (!route.matches(request.getMethod(), path, matcher)) {
+                continue;
+            }
+            long waitNanos = route.limiter.tryAcquire(clientKey(request, route.policy.key()), System.nanoTime());
+            if (waitNanos > 0) {
+                route.rejected.increment();
+                reject(response, route.name, waitNanos);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private String clientKey(HttpServletRequest request, RateLimitPolicy.Key key) {
+        if (key == RateLimitPolicy.Key.USER) {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                String userId = jwtService.getUserIdFromToken(authHeader.substring(7));
+                if (userId != null) {
+                    return "user:" + userId;
+                }
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, String policy, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+            "error", "Too many requests, try again in " + retryAfter + "s",
+            "policy", policy,
+            "retryAfterSeconds", retryAfter
+        ));
+    }
+
+    private record Route(String name, RateLimitPolicy policy, RateLimiter limiter, Counter rejected) {
+
+        boolean matches(String method, String path, AntPathMatcher matcher) {
+            if (!policy.method().equalsIgnoreCase(method)) {
+                return false;
+            }
+            for (String pattern : policy.paths()) {
+                if (matcher.match(pattern, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
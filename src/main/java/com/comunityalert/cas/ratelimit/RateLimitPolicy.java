@@ -0,0 +1,26 @@
+package com.comunityalert.cas.ratelimit;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * One cas.ratelimit.policies.<name> entry: each client may make capacity calls to the matching
+ * routes in a burst, refilled evenly over period (capacity=10, period=1m is one call every 6s).
+ *
+ * @param method HTTP method the policy applies to
+ * @param paths  Ant-style request paths, e.g. /api/issues/{@literal *}/comments
+ * @param key    USER keys authenticated calls by user id (anonymous ones by IP); IP always keys by IP
+ */
+public record RateLimitPolicy(String method, List<String> paths, int capacity, Duration period, Key key) {
+
+    public enum Key { USER, IP }
+
+    public RateLimitPolicy {
+        if (capacity < 1 || period == null || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit needs capacity >= 1 and a positive period");
+        }
+        if (key == null) {
+            key = Key.USER;
+        }
+    }
+}
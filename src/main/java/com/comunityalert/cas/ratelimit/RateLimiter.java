@@ -0,0 +1,113 @@
+package com.comunityalert.cas.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets for one policy, one per client key. Buckets are updated under one of STRIPES locks
+ * chosen by key hash, so unrelated clients rarely contend and no lock is held per key.
+ * A bucket that has refilled completely behaves exactly like a new one, so the idle sweep drops
+ * those: memory is two fields per client that was limited recently, not per client ever seen.
+ */
+final class RateLimiter {
+
+    private static final int STRIPES = 64;
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final AtomicLong lastSweep;
+    private final double capacity;
+    private final double nanosPerToken;
+
+    RateLimiter(RateLimitPolicy policy, long now) {
+        this.capacity = policy.capacity();
+        this.nanosPerToken = (double) policy.period().toNanos() / policy.capacity();
+        this.lastSweep = new AtomicLong(now);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Take a token for key; returns 0 when allowed, otherwise the nanoseconds until one is available
+     */
+    long tryAcquire(String key, long now) {
+        long waitNanos;
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            Bucket bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                buckets.put(key, bucket);
+            } else {
+                bucket.refill(now, capacity, nanosPerToken);
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                waitNanos = 0;
+            } else {
+                waitNanos = (long) Math.ceil((1 - bucket.tokens) * nanosPerToken);
+            }
+        } finally {
+            lock.unlock();
+        }
+        sweepIfDue(now);
+        return waitNanos;
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    /**
+     * At most one caller per interval walks the map and drops the buckets that are full again
+     */
+    private void sweepIfDue(long now) {
+        long last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        for (String key : buckets.keySet()) {
+            ReentrantLock lock = lockFor(key);
+            lock.lock();
+            try {
+                Bucket bucket = buckets.get(key);
+                if (bucket != null && bucket.isFull(now, capacity, nanosPerToken)) {
+                    buckets.remove(key);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private ReentrantLock lockFor(String key) {
+        int h = key.hashCode();
+        return locks[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    /** Guarded by its stripe lock */
+    private static final class Bucket {
+        double tokens;
+        long updatedNanos;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.updatedNanos = now;
+        }
+
+        void refill(long now, double capacity, double nanosPerToken) {
+            tokens = Math.min(capacity, tokens + (now - updatedNanos) / nanosPerToken);
+            updatedNanos = now;
+        }
+
+        boolean isFull(long now, double capacity, double nanosPerToken) {
+            return tokens + (now - updatedNanos) / nanosPerToken >= capacity;
+        }
+    }
+}
@@ -1,13 +1,55 @@
 package com.comunityalert.cas.repository;
 
+import com.comunityalert.cas.dto.CommentDTO;
 import com.comunityalert.cas.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
 List<Comment> findByIssueId(UUID issueId);
-}
\ No newline at end of file
+
+    // First page of an issue's thread, oldest first (served by idx_comments_issue_created)
+    @Query("SELECT new com.comunityalert.cas.dto.CommentDTO(c.id, c.message, c.createdAt, u.id, u.fullName, u.email) " +
+           "FROM Comment c LEFT JOIN c.createdBy u WHERE c.issue.id = :issueId ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentDTO> findThread(@Param("issueId") UUID issueId, Pageable pageable);
+
+    // Next page after the (createdAt, id) cursor - keyset pagination, no OFFSET scan
+    @Query("SELECT new com.comunityalert.cas.dto.CommentDTO(c.id, c.message, c.createdAt, u.id, u.fullName, u.email) " +
+           "FROM Comment c LEFT JOIN c.createdBy u WHERE c.issue.id = :issueId " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentDTO> findThreadAfter(@Param("issueId") UUID issueId, @Param("createdAt") Instant createdAt,
+                                     @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT c.issue.id FROM Comment c WHERE c.id = :id")
+    Optional<UUID> findIssueIdById(@Param("id") UUID id);
+
+    // Fill in comment_count/last_activity_at for issues created before those columns existed
+    @Modifying
+    @Query(value = "UPDATE issues i SET " +
+                   "comment_count = (SELECT COUNT(*) FROM comments c WHERE c.issue_id = i.id), " +
+                   "last_activity_at = GREATEST(i.date_reported, i.date_resolved, " +
+                   "(SELECT MAX(c.createdAt) FROM comments c WHERE c.issue_id = i.id)) " +
+                   "WHERE i.comment_count IS NULL", nativeQuery = true)
+    int backfillIssueCommentStats();
+
+    // Comments of an IssueArchiver batch, oldest first: issue id, id, created at, author id, author name, author email, message
+    @Query("SELECT c.issue.id, c.id, c.createdAt, u.id, u.fullName, u.email, c.message FROM Comment c " +
+           "LEFT JOIN c.createdBy u WHERE c.issue.id IN :issueIds ORDER BY c.createdAt ASC, c.id ASC")
+    List<Object[]> findForArchive(@Param("issueIds") Collection<UUID> issueIds);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.issue.id IN :issueIds")
+    int deleteByIssueIds(@Param("issueIds") Collection<UUID> issueIds);
+}
@@ -2,14 +2,23 @@ package com.comunityalert.cas.repository;
 
 import com.comunityalert.cas.enums.Status;
 import com.comunityalert.cas.model.IssueReport;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface IssueRepository extends JpaRepository<IssueReport, UUID> {
     // Use explicit queries for relationship navigation
@@ -37,4 +46,94 @@ public interface IssueRepository extends JpaRepository<IssueReport, UUID> {
 
     @Query(value = "SELECT i.* FROM issues i ORDER BY i.date_reported DESC LIMIT 5", nativeQuery = true)
 	List<IssueReport> findTop5ByOrderByDateReportedDesc();
-}
\ No newline at end of file
+
+    // Rebuild source for DuplicateIssueIndex: id, title, description, location id, duplicate-of id, date reported.
+    // Duplicates of an excluded original are left out, as resolving it drops them from the index at runtime
+    @Query("SELECT i.id, i.title, i.description, i.location.id, i.duplicateOfId, i.dateReported FROM IssueReport i " +
+           "WHERE i.dateReported >= :since AND i.location IS NOT NULL AND (i.status IS NULL OR i.status <> :excluded) " +
+           "AND NOT EXISTS (SELECT o.id FROM IssueReport o WHERE o.id = i.duplicateOfId AND o.status = :excluded) " +
+           "ORDER BY i.dateReported")
+    List<Object[]> findRecentForDuplicateIndex(@Param("since") Instant since, @Param("excluded") Status excluded);
+
+    // Startup load for GeoIndex: id, latitude, longitude, date reported
+    @Query("SELECT i.id, i.latitude, i.longitude, i.dateReported FROM IssueReport i " +
+           "WHERE i.latitude IS NOT NULL AND i.longitude IS NOT NULL")
+    List<Object[]> findAllCoordinates();
+
+    // Startup load for TriageQueue: id, category, date reported of open issues that are not duplicates
+    @Query("SELECT i.id, i.category, i.dateReported FROM IssueReport i " +
+           "WHERE i.status IN :open AND i.duplicateOfId IS NULL")
+    List<Object[]> findOpenForTriage(@Param("open") Collection<Status> open);
+
+    // Open reports linked to an original as duplicates (idx_issues_duplicate_of): id, category, date reported
+    @Query("SELECT i.id, i.category, i.dateReported FROM IssueReport i " +
+           "WHERE i.duplicateOfId = :originalId AND i.status IN :open")
+    List<Object[]> findOpenDuplicatesOf(@Param("originalId") UUID originalId, @Param("open") Collection<Status> open);
+
+    // Original id, number of reports linked to it as duplicates (idx_issues_duplicate_of)
+    @Query("SELECT i.duplicateOfId, COUNT(i) FROM IssueReport i WHERE i.duplicateOfId IS NOT NULL GROUP BY i.duplicateOfId")
+    List<Object[]> countDuplicatesByOriginal();
+
+    // One page of GeoIndex hits with everything the response serializes, in a single round trip
+    // (User.profile is the inverse side of a one-to-one, loaded eagerly one query per user unless fetched here)
+    @Query("SELECT DISTINCT i FROM IssueReport i LEFT JOIN FETCH i.location LEFT JOIN FETCH i.reportedBy r " +
+           "LEFT JOIN FETCH r.profile LEFT JOIN FETCH i.tags WHERE i.id IN :ids")
+    List<IssueReport> findAllWithRelationsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // SQL fallback for the geo queries (no PostGIS): the box is an index range on (latitude, longitude),
+    // the radius is then checked with the haversine formula (distance in meters) on the rows inside it
+    String HAVERSINE_SQL = "(12742000 * asin(least(1, sqrt(power(sin(radians(i.latitude - :lat) / 2), 2) + " +
+        "cos(radians(:lat)) * cos(radians(i.latitude)) * power(sin(radians(i.longitude - :lon) / 2), 2)))))";
+
+    @Query("SELECT i FROM IssueReport i WHERE i.latitude BETWEEN :minLat AND :maxLat " +
+           "AND i.longitude BETWEEN :minLon AND :maxLon ORDER BY i.dateReported DESC")
+    Page<IssueReport> findWithinBox(@Param("minLat") double minLat, @Param("minLon") double minLon,
+                                    @Param("maxLat") double maxLat, @Param("maxLon") double maxLon,
+                                    Pageable pageable);
+
+    @Query(value = "SELECT i.* FROM issues i WHERE i.latitude BETWEEN :minLat AND :maxLat " +
+           "AND i.longitude BETWEEN :minLon AND :maxLon AND " + HAVERSINE_SQL + " <= :radius " +
+           "ORDER BY " + HAVERSINE_SQL,
+           countQuery = "SELECT count(*) FROM issues i WHERE i.latitude BETWEEN :minLat AND :maxLat " +
+           "AND i.longitude BETWEEN :minLon AND :maxLon AND " + HAVERSINE_SQL + " <= :radius",
+           nativeQuery = true)
+    Page<IssueReport> findWithinRadius(@Param("lat") double lat, @Param("lon") double lon, @Param("radius") double radius,
+                                       @Param("minLat") double minLat, @Param("minLon") double minLon,
+                                       @Param("maxLat") double maxLat, @Param("maxLon") double maxLon,
+                                       Pageable pageable);
+
+    // Thread stats are bumped with atomic UPDATEs so concurrent comments don't lose counts
+    @Modifying
+    @Query("UPDATE IssueReport i SET i.commentCount = COALESCE(i.commentCount, 0) + 1, i.lastActivityAt = :at WHERE i.id = :issueId")
+    int incrementCommentCount(@Param("issueId") UUID issueId, @Param("at") Instant at);
+
+    @Modifying
+    @Query("UPDATE IssueReport i SET i.commentCount = CASE WHEN COALESCE(i.commentCount, 0) > 0 THEN i.commentCount - 1 ELSE 0 END " +
+           "WHERE i.id = :issueId")
+    int decrementCommentCount(@Param("issueId") UUID issueId);
+
+    // Next batch for IssueArchiver (idx_issues_resolved_date, V8), locked until the batch is archived or rolled back
+    @Query(value = "SELECT i.id FROM issues i WHERE i.status = 'RESOLVED' AND i.date_resolved < :cutoff " +
+                   "ORDER BY i.date_resolved LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UUID> lockArchivable(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM issue_tags WHERE issue_id IN :ids", nativeQuery = true)
+    int deleteTagLinks(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("DELETE FROM IssueReport i WHERE i.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Issue export: id, title, category, status, location id, reporter id, reported, resolved, latitude,
+    // longitude, comment count, tag names joined by ';'. Streamed in batches; consume inside a transaction.
+    @Query("SELECT i.id, i.title, i.category, i.status, i.location.id, i.reportedBy.id, i.dateReported, i.dateResolved, " +
+           "i.latitude, i.longitude, i.commentCount, " +
+           "(SELECT listagg(t.name, ';') WITHIN GROUP (ORDER BY t.name) FROM IssueReport x JOIN x.tags t WHERE x.id = i.id) " +
+           "FROM IssueReport i ORDER BY i.dateReported")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamForExport();
+}
@@ -0,0 +1,40 @@
+package com.comunityalert.cas.repository;
+
+import com.comunityalert.cas.model.IssueStatusEvent;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface IssueStatusEventRepository extends JpaRepository<IssueStatusEvent, Long> {
+
+    Optional<IssueStatusEvent> findFirstByIssueIdOrderByChangedAtDescIdDesc(UUID issueId);
+
+    @Query("SELECT e FROM IssueStatusEvent e WHERE e.issueId = :issueId ORDER BY e.changedAt, e.id")
+    List<IssueStatusEvent> findHistory(@Param("issueId") UUID issueId);
+
+    // Every event, issue by issue in order (idx_issue_status_events_issue): IssueStatusHistory's startup rebuild.
+    // Streamed in batches; must be consumed inside a transaction.
+    @Query("SELECT e.issueId, e.fromStatus, e.toStatus, e.changedAt, e.category, e.districtId " +
+           "FROM IssueStatusEvent e ORDER BY e.issueId, e.changedAt, e.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamAllInIssueOrder();
+
+    // Events outlive archived issues (V8), so deleting an issue removes them explicitly
+    @Modifying
+    @Query(value = "DELETE FROM issue_status_events WHERE issue_id = :issueId", nativeQuery = true)
+    int deleteByIssueId(@Param("issueId") UUID issueId);
+}
@@ -4,9 +4,12 @@ import com.comunityalert.cas.model.Notification;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,4 +33,24 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     
     @Query("SELECT n FROM Notification n WHERE n.issue.id = :issueId")
     List<Notification> findByIssueId(@Param("issueId") UUID issueId);
-}
\ No newline at end of file
+
+    // Bounded by sent_at, so only the monthly partitions from :since on are scanned (V7)
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId AND n.sentAt >= :since")
+    List<Notification> findByRecipientIdSince(@Param("userId") UUID userId, @Param("since") Instant since);
+
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId AND n.sentAt >= :since")
+    Page<Notification> findByRecipientIdSince(@Param("userId") UUID userId, @Param("since") Instant since, Pageable pageable);
+
+    @Query("SELECT n FROM Notification n WHERE n.sentAt >= :since")
+    Page<Notification> findSince(@Param("since") Instant since, Pageable pageable);
+
+    // One statement over the recipient's unread rows (partial index idx_notifications_unread)
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.recipient.id = :userId AND n.read = false")
+    int markAllReadByRecipientId(@Param("userId") UUID userId);
+
+    // Notifications about archived issues stay, without the link to the issue
+    @Modifying
+    @Query("UPDATE Notification n SET n.issue = null WHERE n.issue.id IN :issueIds")
+    int unlinkIssues(@Param("issueIds") Collection<UUID> issueIds);
+}
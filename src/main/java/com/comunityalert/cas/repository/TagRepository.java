@@ -4,9 +4,13 @@ import com.comunityalert.cas.model.Tag;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,14 +27,49 @@ public interface TagRepository extends JpaRepository<Tag, UUID> {
     // Find tags by name containing (case insensitive)
     List<Tag> findByNameContainingIgnoreCase(String name);
     
-    // Custom query: Get all tags used in at least one issue
-    @Query("SELECT DISTINCT t FROM Tag t WHERE SIZE(t.issues) > 0")
+    // Custom query: Get all tags used in at least one issue (reads the maintained usage_count)
+    @Query("SELECT t FROM Tag t WHERE t.usageCount > 0")
     List<Tag> findUsedTags();
     
     // Custom query: Get unused tags
-    @Query("SELECT t FROM Tag t WHERE SIZE(t.issues) = 0")
+    @Query("SELECT t FROM Tag t WHERE t.usageCount = 0 OR t.usageCount IS NULL")
     List<Tag> findUnusedTags();
 
+    // Most popular tags first (popularity_score is anchored at the epoch, so it orders without decaying rows)
+    @Query("SELECT t FROM Tag t WHERE t.popularityScore IS NOT NULL ORDER BY t.popularityScore DESC")
+    List<Tag> findPopularTags(Pageable pageable);
+
+    // Count one new use of each tag and fold it into the popularity score (log-sum-exp, done in the UPDATE so it is atomic)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Tag t SET t.usageCount = COALESCE(t.usageCount, 0) + 1, t.lastUsedAt = :now, " +
+           "t.popularityScore = CASE WHEN t.popularityScore IS NULL THEN :score " +
+           "ELSE GREATEST(t.popularityScore, :score) + LN(1 + EXP(-ABS(t.popularityScore - :score))) END " +
+           "WHERE t.id IN :ids")
+    int recordUsage(@Param("ids") Collection<UUID> ids, @Param("now") Instant now, @Param("score") double score);
+
+    // Count one removed use of each tag
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Tag t SET t.usageCount = CASE WHEN COALESCE(t.usageCount, 0) > 0 THEN t.usageCount - 1 ELSE 0 END " +
+           "WHERE t.id IN :ids")
+    int releaseUsage(@Param("ids") Collection<UUID> ids);
+
+    // Count n removed uses of one tag
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Tag t SET t.usageCount = CASE WHEN COALESCE(t.usageCount, 0) > :n THEN t.usageCount - :n ELSE 0 END " +
+           "WHERE t.id = :id")
+    int releaseUsage(@Param("id") UUID id, @Param("n") long n);
+
+    // Remove a tag from every issue without loading the issues
+    @Modifying
+    @Query(value = "DELETE FROM issue_tags WHERE tag_id = :tagId", nativeQuery = true)
+    int deleteIssueLinks(@Param("tagId") UUID tagId);
+
+    // Backfill usage_count for rows created before the column existed
+    @Modifying
+    @Query(value = "UPDATE tags t SET usage_count = (SELECT COUNT(*) FROM issue_tags it WHERE it.tag_id = t.id) " +
+                   "WHERE t.usage_count IS NULL", nativeQuery = true)
+    int backfillUsageCounts();
+
     // Find active tags - use explicit query to avoid column name issues
     @Query("SELECT t FROM Tag t WHERE t.active = true")
     List<Tag> findByActiveTrue();
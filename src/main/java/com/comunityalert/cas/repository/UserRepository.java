@@ -5,17 +5,30 @@ import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.UUID;
+
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.QueryHint;
+
+import com.comunityalert.cas.enums.Role;
 import com.comunityalert.cas.model.User;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
+    // Login and password reset: the result (a user id) is kept in the query cache until users is written
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
 
     Optional<User> findByResetToken(String token);
 
+    // Recipients of new-issue notifications; few rows, cached until users is written
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<User> findByRole(Role role);
+
 
     @Query("SELECT u FROM User u WHERE u.location.type = 'VILLAGE' AND u.location.parent.parent.parent.parent.name = :provinceName")
     List<User> findUsersByProvinceName(String provinceName);
@@ -1,35 +1,66 @@
 package com.comunityalert.cas.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.comunityalert.cas.archive.ArchivedIssue;
+import com.comunityalert.cas.archive.ColdArchive;
+import com.comunityalert.cas.datasource.ShardRouter;
+import com.comunityalert.cas.dto.CommentDTO;
 import com.comunityalert.cas.model.Comment;
 import com.comunityalert.cas.model.User;
 import com.comunityalert.cas.repository.CommentRepository;
+import com.comunityalert.cas.repository.IssueRepository;
 import com.comunityalert.cas.repository.UserRepository;
 
 @Service
 public class CommentService {
-    
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CommentRepository repo;
     private final UserRepository userRepo;
+    private final IssueRepository issueRepo;
+    private final ColdArchive coldArchive;
+    private final ShardRouter shards;
 
-    public CommentService(CommentRepository repo, UserRepository userRepo) { 
+    public CommentService(CommentRepository repo, UserRepository userRepo, IssueRepository issueRepo,
+                          ColdArchive coldArchive, ShardRouter shards) {
         this.repo = repo;
         this.userRepo = userRepo;
+        this.issueRepo = issueRepo;
+        this.coldArchive = coldArchive;
+        this.shards = shards;
     }
 
+    @Transactional
     public Comment addComment(Comment c) {
+        // Comments live on their issue's shard
+        shards.pin(shards.locate(c.getIssue() != null ? c.getIssue().getId() : null));
         // Fetch and set the actual User entity if ID is provided
         if (c.getCreatedBy() != null && c.getCreatedBy().getId() != null) {
             User user = userRepo.findById(c.getCreatedBy().getId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
             c.setCreatedBy(user);
         }
-        
-        return repo.save(c); 
+
+        Comment saved = repo.save(c);
+        if (saved.getIssue() != null) {
+            issueRepo.incrementCommentCount(saved.getIssue().getId(), saved.getCreatedAt());
+        }
+        return detachable(saved);
     }
 
     /**
@@ -38,20 +69,152 @@ public class CommentService {
     public Comment addCommentFromDTO(com.comunityalert.cas.dto.CreateCommentDTO dto) {
         Comment comment = new Comment();
         comment.setMessage(dto.getMessage());
-        
+
         // Fetch user
         User user = userRepo.findById(dto.getCreatedById())
             .orElseThrow(() -> new RuntimeException("User not found"));
         comment.setCreatedBy(user);
-        
+
         return repo.save(comment);
     }
 
-    public List<Comment> getByIssue(UUID issueId) { 
-        return repo.findByIssueId(issueId); 
+    /**
+     * Add comment to an issue from DTO in one transaction (one insert, issue stats bumped in place)
+     */
+    @Transactional
+    public Comment addCommentFromDTO(UUID issueId, com.comunityalert.cas.dto.CreateCommentDTO dto) {
+        shards.pin(shards.locate(issueId));
+        if (!issueRepo.existsById(issueId)) {
+            throw new RuntimeException("Issue not found");
+        }
+        if (dto.getCreatedById() == null) {
+            throw new RuntimeException("createdById must not be null");
+        }
+
+        Comment comment = new Comment();
+        comment.setMessage(dto.getMessage());
+        comment.setCreatedAt(Instant.now());
+        comment.setCreatedBy(userRepo.findById(dto.getCreatedById())
+            .orElseThrow(() -> new RuntimeException("User not found")));
+        // Reference only - the issue row is not loaded
+        comment.setIssue(issueRepo.getReferenceById(issueId));
+
+        Comment saved = repo.save(comment);
+        issueRepo.incrementCommentCount(issueId, saved.getCreatedAt());
+        return detachable(saved);
+    }
+
+    /**
+     * With shards, load the comment's issue on its shard before the transaction closes
+     * (open-in-view would look for it on the home database)
+     */
+    private Comment detachable(Comment comment) {
+        if (shards.isEnabled() && comment.getIssue() != null) {
+            comment.getIssue().getTags().size();
+        }
+        return comment;
+    }
+
+    public List<Comment> getByIssue(UUID issueId) {
+        return shards.on(shards.locate(issueId), () -> repo.findByIssueId(issueId));
     }
 
-    public void delete(UUID id) { 
-        repo.deleteById(id); 
+    /**
+     * Get one page of an issue's comment thread, oldest first.
+     * Pass the nextCursor of the previous page to continue; null starts from the beginning.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getThread(UUID issueId, String cursor, int size) {
+        shards.pin(shards.locate(issueId));
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<CommentDTO> rows;
+        if (!issueRepo.existsById(issueId) && coldArchive.contains(issueId)) {
+            rows = archivedThread(issueId, cursor == null || cursor.isBlank() ? null : decodeCursor(cursor), pageSize + 1);
+        } else if (cursor == null || cursor.isBlank()) {
+            rows = repo.findThread(issueId, limit);
+        } else {
+            Object[] position = decodeCursor(cursor);
+            rows = repo.findThreadAfter(issueId, (Instant) position[0], (UUID) position[1], limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<CommentDTO> content = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        CommentDTO last = content.isEmpty() ? null : content.get(content.size() - 1);
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("content", content);
+        page.put("size", content.size());
+        page.put("hasMore", hasMore);
+        page.put("nextCursor", hasMore && last != null ? encodeCursor(last.getCreatedAt(), last.getId()) : null);
+        return page;
+    }
+
+    /**
+     * Same page of an archived issue's thread, read from the cold archive (stored oldest first)
+     */
+    private List<CommentDTO> archivedThread(UUID issueId, Object[] position, int limit) {
+        List<CommentDTO> rows = new ArrayList<>();
+        ArchivedIssue issue = coldArchive.find(issueId).orElse(null);
+        if (issue == null) {
+            return rows;
+        }
+        for (ArchivedIssue.Comment c : issue.comments()) {
+            if (position != null) {
+                int cmp = c.createdAt().compareTo((Instant) position[0]);
+                if (cmp < 0 || (cmp == 0 && c.id().compareTo((UUID) position[1]) <= 0)) {
+                    continue;
+                }
+            }
+            rows.add(new CommentDTO(c.id(), c.message(), c.createdAt(), c.createdById(), c.createdByName(), null));
+            if (rows.size() == limit) {
+                break;
+            }
+        }
+        return rows;
+    }
+
+    @Transactional
+    public void delete(UUID id) {
+        String shard = shards.find(() -> repo.existsById(id));
+        shards.pin(shard != null ? shard : ShardRouter.HOME);
+        repo.findIssueIdById(id).ifPresent(issueRepo::decrementCommentCount);
+        repo.deleteById(id);
+    }
+
+    /**
+     * Fill in comment_count/last_activity_at for issues that predate those columns
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIssueCommentStats() {
+        try {
+            int updated = shards.writeEach(repo::backfillIssueCommentStats).stream().mapToInt(Integer::intValue).sum();
+            if (updated > 0) {
+                System.out.println("Backfilled comment stats for " + updated + " issues");
+            }
+        } catch (Exception e) {
+            System.err.println("Could not backfill issue comment stats: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cursor = base64url("createdAt|id") of the last comment on the page
+     */
+    private String encodeCursor(Instant createdAt, UUID id) {
+        String raw = createdAt.toString() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new Object[] { Instant.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)) };
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
     }
-}
\ No newline at end of file
+}
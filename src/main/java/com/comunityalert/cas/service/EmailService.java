@@ -1,7 +1,9 @@
 package com.comunityalert.cas.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
@@ -10,6 +12,9 @@ import org.springframework.stereotype.Service;
 public class EmailService {
     
     private JavaMailSender mailSender;
+
+    // Boot's applicationTaskExecutor: virtual threads when spring.threads.virtual.enabled=true
+    private TaskExecutor mailExecutor;
     
     @Value("${spring.mail.enabled:false}")
     private boolean emailEnabled;
@@ -22,22 +27,42 @@ public class EmailService {
         this.mailSender = mailSender;
     }
 
-    public void sendOTP(String to, String otp) {
-        if (emailEnabled && mailSender != null) {
+    @Autowired(required = false)
+    public void setMailExecutor(@Qualifier("applicationTaskExecutor") TaskExecutor mailExecutor) {
+        this.mailExecutor = mailExecutor;
+    }
+
+    /**
+     * Hand the SMTP round trip to the task executor so the request thread doesn't wait on the mail server
+     */
+    private void send(SimpleMailMessage message, String successLog, String fallbackLog) {
+        Runnable task = () -> {
             try {
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setFrom(fromEmail);
-                message.setTo(to);
-                message.setSubject("Your OTP Verification Code");
-                message.setText("Your OTP code is: " + otp + "\n\nThis code will expire in 5 minutes.\n\nIf you didn't request this code, please ignore this email.");
-                
                 mailSender.send(message);
-                System.out.println("[EmailService] OTP email sent successfully to " + to);
+                System.out.println(successLog);
             } catch (Exception e) {
                 System.err.println("[EmailService] Failed to send email: " + e.getMessage());
                 // Fallback to console output
-                System.out.println("[EmailService] OTP CODE: " + otp + " for " + to);
+                System.out.println(fallbackLog);
             }
+        };
+        if (mailExecutor != null) {
+            mailExecutor.execute(task);
+        } else {
+            task.run();
+        }
+    }
+
+    public void sendOTP(String to, String otp) {
+        if (emailEnabled && mailSender != null) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(fromEmail);
+            message.setTo(to);
+            message.setSubject("Your OTP Verification Code");
+            message.setText("Your OTP code is: " + otp + "\n\nThis code will expire in 5 minutes.\n\nIf you didn't request this code, please ignore this email.");
+
+            send(message, "[EmailService] OTP email sent successfully to " + to,
+                "[EmailService] OTP CODE: " + otp + " for " + to);
         } else {
             // Development mode: just print to console
             System.out.println("\n" + "=".repeat(60));
@@ -52,21 +77,15 @@ public class EmailService {
 
     public void sendPasswordResetEmail(String to, String link) {
         if (emailEnabled && mailSender != null) {
-            try {
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setFrom(fromEmail);
-                message.setTo(to);
-                message.setSubject("Password Reset Request");
-                message.setText("You requested a password reset. Click the link below to reset your password:\n\n" + 
-                              link + "\n\nThis link will expire in 1 hour.\n\nIf you didn't request this, please ignore this email.");
-                
-                mailSender.send(message);
-                System.out.println("[EmailService] Password reset email sent successfully to " + to);
-            } catch (Exception e) {
-                System.err.println("[EmailService] Failed to send email: " + e.getMessage());
-                // Fallback to console output
-                System.out.println("[EmailService] Password reset link: " + link + " for " + to);
-            }
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(fromEmail);
+            message.setTo(to);
+            message.setSubject("Password Reset Request");
+            message.setText("You requested a password reset. Click the link below to reset your password:\n\n" + 
+                          link + "\n\nThis link will expire in 1 hour.\n\nIf you didn't request this, please ignore this email.");
+
+            send(message, "[EmailService] Password reset email sent successfully to " + to,
+                "[EmailService] Password reset link: " + link + " for " + to);
         } else {
             // Development mode: just print to console
             System.out.println("\n" + "=".repeat(60));
@@ -0,0 +1,110 @@
+package com.comunityalert.cas.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.comunityalert.cas.archive.ArchivedIssue;
+import com.comunityalert.cas.archive.ColdArchive;
+import com.comunityalert.cas.datasource.ShardRouter;
+import com.comunityalert.cas.model.Location;
+import com.comunityalert.cas.repository.IssueRepository;
+import com.comunityalert.cas.repository.LocationRepository;
+
+/**
+ * CSV export of every issue: the live ones streamed from the database (oldest first, shard by shard with
+ * issue shards), then the cold archive.
+ * Kept out of IssueService so a multi-second export is not counted as IssueService latency by the overload limiter.
+ */
+@Service
+public class IssueExportService {
+
+    private static final String HEADER = "id,title,category,status,location_id,location,reported_by,date_reported,"
+        + "date_resolved,latitude,longitude,comment_count,tags,archived\n";
+
+    private final IssueRepository issueRepo;
+    private final LocationRepository locationRepo;
+    private final ColdArchive coldArchive;
+    private final ShardRouter shards;
+
+    public IssueExportService(IssueRepository issueRepo, LocationRepository locationRepo, ColdArchive coldArchive,
+                              ShardRouter shards) {
+        this.issueRepo = issueRepo;
+        this.locationRepo = locationRepo;
+        this.coldArchive = coldArchive;
+        this.shards = shards;
+    }
+
+    /**
+     * Write the export; rows go out as they are read, nothing is collected in memory
+     */
+    @Transactional(readOnly = true)
+    public void exportCsv(Writer out) throws IOException {
+        Map<UUID, String> locationNames = new HashMap<>();
+        for (Location location : locationRepo.findAll()) {
+            locationNames.put(location.getId(), location.getName());
+        }
+        out.write(HEADER);
+        try {
+            shards.readEach(() -> {
+                try {
+                    exportLive(out, locationNames);
+                } catch (IOException e) {
+                    // Client gone: stop before the next shard
+                    throw new UncheckedIOException(e);
+                }
+            });
+            coldArchive.forEach(a -> {
+                try {
+                    row(out, a.id(), a.title(), a.category(), a.status(), a.locationId(), locationNames.get(a.locationId()),
+                        a.reportedById(), a.dateReported(), a.dateResolved(), a.latitude(), a.longitude(),
+                        a.commentCount(), a.tags().stream().map(ArchivedIssue.Tag::name).collect(Collectors.joining(";")),
+                        true);
+                } catch (IOException e) {
+                    // Client gone: stop reading the archive
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void exportLive(Writer out, Map<UUID, String> locationNames) throws IOException {
+        try (Stream<Object[]> rows = issueRepo.streamForExport()) {
+            for (Iterator<Object[]> it = rows.iterator(); it.hasNext(); ) {
+                Object[] r = it.next();
+                row(out, r[0], r[1], r[2], r[3], r[4], locationNames.get((UUID) r[4]), r[5], r[6], r[7], r[8], r[9],
+                    r[10], r[11], false);
+            }
+        }
+    }
+
+    private static void row(Writer out, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                out.write(escape(values[i].toString()));
+            }
+        }
+        out.write('\n');
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
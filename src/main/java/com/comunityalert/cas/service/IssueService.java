@@ -5,16 +5,28 @@ import java.util.*;
 
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+
+import com.comunityalert.cas.archive.ArchivedIssue;
+import com.comunityalert.cas.archive.ColdArchive;
+import com.comunityalert.cas.datasource.ShardRouter;
+import com.comunityalert.cas.dedup.DuplicateIssueIndex;
+import com.comunityalert.cas.geo.GeoIndex;
+import com.comunityalert.cas.history.IssueStatusHistory;
+import com.comunityalert.cas.triage.TriageQueue;
+import com.comunityalert.cas.triage.TriagedIssue;
 import com.comunityalert.cas.model.IssueReport;
 import com.comunityalert.cas.model.Tag;
 import com.comunityalert.cas.model.Location;
 import com.comunityalert.cas.model.User;
 import com.comunityalert.cas.enums.Status;
 import com.comunityalert.cas.enums.Role;
+import com.comunityalert.cas.enums.LocationType;
 import com.comunityalert.cas.repository.IssueRepository;
 import com.comunityalert.cas.repository.LocationRepository;
 import com.comunityalert.cas.repository.UserRepository;
+import com.comunityalert.cas.utils.Transactions;
 
 @Service
 public class IssueService {
@@ -25,20 +37,41 @@ public class IssueService {
     private final LocationService locationService;
     private final UserRepository userRepo;
     private final NotificationService notificationService;
+    private final DuplicateIssueIndex duplicateIndex;
+    private final GeoIndex geoIndex;
+    private final IssueStatusHistory statusHistory;
+    private final TriageQueue triageQueue;
+    private final ColdArchive coldArchive;
+    private final ShardRouter shards;
 
     public IssueService(IssueRepository repo, TagService tagService, 
                        LocationRepository locationRepo, LocationService locationService,
                        UserRepository userRepo,
-                       NotificationService notificationService) { 
+                       NotificationService notificationService,
+                       DuplicateIssueIndex duplicateIndex,
+                       GeoIndex geoIndex,
+                       IssueStatusHistory statusHistory,
+                       TriageQueue triageQueue,
+                       ColdArchive coldArchive,
+                       ShardRouter shards) { 
         this.repo = repo;
         this.tagService = tagService;
         this.locationRepo = locationRepo;
         this.locationService = locationService;
         this.userRepo = userRepo;
         this.notificationService = notificationService;
+        this.duplicateIndex = duplicateIndex;
+        this.geoIndex = geoIndex;
+        this.statusHistory = statusHistory;
+        this.triageQueue = triageQueue;
+        this.coldArchive = coldArchive;
+        this.shards = shards;
     }
 
+    @org.springframework.transaction.annotation.Transactional
     public IssueReport create(IssueReport i) {
+        String shard = shards.shardForLocation(i.getLocation() != null ? i.getLocation().getId() : null);
+        shards.pin(shard);
         // Fetch and set the actual Location entity if ID is provided
         if (i.getLocation() != null && i.getLocation().getId() != null) {
             Location location = locationRepo.findById(i.getLocation().getId())
@@ -53,13 +86,18 @@ public class IssueService {
             i.setReportedBy(user);
         }
         
+        checkCoordinates(i.getLatitude(), i.getLongitude());
         i.setDateReported(Instant.now()); 
         i.setStatus(Status.REPORTED); 
+        i.setCommentCount(0);
+        i.setLastActivityAt(i.getDateReported());
+        int[] signature = linkDuplicate(i);
         
         IssueReport savedIssue = repo.save(i);
-        
-        // System-generated notification: Notify all ADMIN users about new issue
-        notifyAdminsAboutNewIssue(savedIssue);
+        shards.remember(savedIssue.getId(), shard);
+        recordTagUsage(tagIds(savedIssue));
+        statusHistory.recordCreated(savedIssue);
+        publishNewIssue(savedIssue, signature);
         
         return savedIssue;
     }
@@ -67,22 +105,31 @@ public class IssueService {
     /**
      * Create issue from DTO (cleaner approach)
      */
+    @org.springframework.transaction.annotation.Transactional
     public IssueReport createFromDTO(com.comunityalert.cas.dto.CreateIssueDTO dto) {
         IssueReport issue = new IssueReport();
         issue.setTitle(dto.getTitle());
         issue.setDescription(dto.getDescription());
         issue.setCategory(dto.getCategory());
         issue.setPhotoUrl(dto.getPhotoUrl());
+        checkCoordinates(dto.getLatitude(), dto.getLongitude());
+        issue.setLatitude(dto.getLatitude());
+        issue.setLongitude(dto.getLongitude());
         
         // Fetch location - handle both locationId and villageCode
         Location location = null;
+        String shard;
         if (dto.getLocationId() != null) {
             // Use provided locationId
+            shard = shards.shardForLocation(dto.getLocationId());
+            shards.pin(shard);
             location = locationRepo.findById(dto.getLocationId())
                 .orElseThrow(() -> new RuntimeException("Location not found with ID: " + dto.getLocationId()));
         } else if (dto.getVillageCode() != null) {
-            // Look up location from village code
-            location = findOrCreateLocationFromVillageCode(dto.getVillageCode());
+            // Look up location from village code (locations are written on the home database only)
+            location = shards.onHome(() -> findOrCreateLocationFromVillageCode(dto.getVillageCode()));
+            shard = shards.shardForLocation(location.getId());
+            shards.pin(shard);
         } else {
             throw new RuntimeException("Either locationId or villageCode must be provided");
         }
@@ -96,27 +143,105 @@ public class IssueService {
             .orElseThrow(() -> new RuntimeException("User not found with ID: " + dto.getReportedById()));
         issue.setReportedBy(user);
         
-        // Validate and add tags if provided
+        // Validate tags against the active-tag cache and link the cached tags directly.
+        // Only the owning side is set: touching tag.getIssues() would load every issue of the tag.
         if (dto.getTagIds() != null && !dto.getTagIds().isEmpty()) {
-            tagService.validateTagIds(dto.getTagIds());
-            for (UUID tagId : dto.getTagIds()) {
-                Tag tag = tagService.getById(tagId)
-                    .orElseThrow(() -> new RuntimeException("Tag not found"));
-                issue.addTag(tag);
-            }
+            issue.getTags().addAll(tagService.resolveActiveTags(dto.getTagIds()));
         }
         
         issue.setDateReported(Instant.now());
         issue.setStatus(Status.REPORTED);
+        issue.setLastActivityAt(issue.getDateReported());
+        int[] signature = linkDuplicate(issue);
         
         IssueReport savedIssue = repo.save(issue);
-        
-        // System-generated notification: Notify all ADMIN users about new issue
-        notifyAdminsAboutNewIssue(savedIssue);
+        shards.remember(savedIssue.getId(), shard);
+        recordTagUsage(tagIds(savedIssue));
+        statusHistory.recordCreated(savedIssue);
+        publishNewIssue(savedIssue, signature);
         
         return savedIssue;
     }
 
+    /**
+     * Link a new report to a recent open issue in the same location that it nearly repeats
+     * (DuplicateIssueIndex, no database access); returns the report's signature for indexing
+     */
+    private int[] linkDuplicate(IssueReport issue) {
+        if (!duplicateIndex.isEnabled() || issue.getLocation() == null) {
+            return null;
+        }
+        int[] signature = duplicateIndex.signature(issue.getTitle(), issue.getDescription());
+        DuplicateIssueIndex.Match match = duplicateIndex.findDuplicate(issue.getLocation().getId(), signature);
+        if (match != null) {
+            issue.setDuplicateOfId(match.issueId());
+        }
+        return signature;
+    }
+
+    /**
+     * Index a saved report once it commits, and notify admins unless it duplicates an issue they already know about
+     */
+    private void publishNewIssue(IssueReport issue, int[] signature) {
+        UUID id = issue.getId();
+        Instant reportedAt = issue.getDateReported();
+        if (signature != null) {
+            UUID duplicateOf = issue.getDuplicateOfId();
+            UUID locationId = issue.getLocation().getId();
+            Transactions.afterCommit(() -> duplicateIndex.add(id, duplicateOf, locationId, signature, reportedAt));
+        }
+        if (issue.getLatitude() != null) {
+            double latitude = issue.getLatitude();
+            double longitude = issue.getLongitude();
+            Transactions.afterCommit(() -> geoIndex.add(id, latitude, longitude, reportedAt));
+        }
+        retriage(issue);
+        if (issue.getDuplicateOfId() != null) {
+            UUID original = issue.getDuplicateOfId();
+            Transactions.afterCommit(() -> triageQueue.duplicateLinked(original, 1));
+            return;
+        }
+        // System-generated notification: Notify all ADMIN users about new issue
+        notifyAdminsAboutNewIssue(issue);
+    }
+
+    /**
+     * Keep the issue's place in the triage queue current once the change commits:
+     * open originals are ranked, resolved issues and duplicates are not
+     */
+    private void retriage(IssueReport issue) {
+        UUID id = issue.getId();
+        if (issue.getStatus() == Status.RESOLVED || issue.getDuplicateOfId() != null) {
+            Transactions.afterCommit(() -> triageQueue.remove(id));
+            return;
+        }
+        String category = issue.getCategory();
+        Instant reportedAt = issue.getDateReported();
+        Transactions.afterCommit(() -> triageQueue.put(id, category, reportedAt));
+    }
+
+    /**
+     * Tag usage counts live with the tags on the home database; with shards they are updated once the
+     * issue's own transaction has committed
+     */
+    private void recordTagUsage(List<UUID> tagIds) {
+        shards.afterCommitOnHome(() -> tagService.recordUsage(tagIds));
+    }
+
+    private void releaseTagUsage(List<UUID> tagIds) {
+        shards.afterCommitOnHome(() -> tagService.releaseUsage(tagIds));
+    }
+
+    /**
+     * IDs of the tags linked to an issue
+     */
+    private List<UUID> tagIds(IssueReport issue) {
+        if (issue.getTags() == null || issue.getTags().isEmpty()) {
+            return List.of();
+        }
+        return issue.getTags().stream().map(Tag::getId).toList();
+    }
+
     /**
      * Find or create a Location entity from a village code
      * Uses RwandaLocations to get the village data, then finds or creates the Location
@@ -160,9 +285,7 @@ public class IssueService {
      */
     private void notifyAdminsAboutNewIssue(IssueReport issue) {
         try {
-            List<User> adminUsers = userRepo.findAll().stream()
-                .filter(user -> user.getRole() == Role.ADMIN)
-                .toList();
+            List<User> adminUsers = userRepo.findByRole(Role.ADMIN);
             
             String reporterName = issue.getReportedBy() != null 
                 ? (issue.getReportedBy().getFullName() != null && !issue.getReportedBy().getFullName().isEmpty()
@@ -177,47 +300,29 @@ public class IssueService {
             String message = String.format("New issue reported: '%s' by %s in %s", 
                 issue.getTitle(), reporterName, locationName);
             
-            for (User admin : adminUsers) {
-                notificationService.createNotification(admin, issue, message);
-            }
+            // Grouped by district when coalesced: "12 new issues in Gasabo"
+            Location district = issue.getLocation() != null
+                ? issue.getLocation().findAncestor(LocationType.DISTRICT) : null;
+            String area = district != null ? district.getName() : locationName;
+            notificationService.notifyNewIssue(adminUsers, issue, area, message);
         } catch (Exception e) {
             // Log error but don't fail issue creation if notification fails
             System.err.println("Error creating notifications for new issue: " + e.getMessage());
         }
     }
 
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public List<IssueReport> getAll() { 
-        return repo.findAll(); 
+        return fromEveryShard(() -> detachable(repo.findAll())); 
     }
 
     @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public Page<IssueReport> getAll(Pageable pageable) { 
         try {
             System.out.println("DEBUG IssueService: getAll(Pageable) called with sort: " + pageable.getSort());
-            Page<IssueReport> pageData = repo.findAll(pageable);
+            // Relationships are loaded in each shard's transaction, before it closes
+            Page<IssueReport> pageData = shards.page(pageable, p -> loadRelationships(repo.findAll(p)));
             System.out.println("DEBUG IssueService: Found " + pageData.getTotalElements() + " total issues");
-            // Force load relationships before transaction closes
-            pageData.getContent().forEach(issue -> {
-                try {
-                    // Initialize location proxy
-                    if (issue.getLocation() != null) {
-                        issue.getLocation().getName(); // Trigger proxy initialization
-                        issue.getLocation().getType(); // Ensure it's fully loaded
-                    }
-                    // Initialize reportedBy proxy
-                    if (issue.getReportedBy() != null) {
-                        issue.getReportedBy().getId(); // Trigger proxy initialization
-                        issue.getReportedBy().getEmail(); // Ensure it's fully loaded
-                    }
-                    // Initialize tags collection
-                    if (issue.getTags() != null) {
-                        issue.getTags().size(); // Trigger collection initialization
-                        issue.getTags().forEach(tag -> tag.getName()); // Load each tag
-                    }
-                } catch (Exception e) {
-                    System.err.println("DEBUG IssueService: Error loading relationships for issue " + issue.getId() + ": " + e.getMessage());
-                }
-            });
             return pageData;
         } catch (Exception e) {
             System.err.println("DEBUG IssueService: Error in getAll(Pageable): " + e.getMessage());
@@ -251,7 +356,7 @@ public class IssueService {
                 // Admin sees all issues
                 System.out.println("DEBUG IssueService: Admin user, fetching all issues with sort: " + pageable.getSort());
                 try {
-                    pageData = repo.findAll(pageable);
+                    pageData = shards.page(pageable, p -> loadRelationships(repo.findAll(p)));
                 } catch (Exception e) {
                     System.err.println("DEBUG IssueService: Error in repo.findAll: " + e.getMessage());
                     System.err.println("Exception type: " + e.getClass().getName());
@@ -263,7 +368,8 @@ public class IssueService {
                 // Resident sees only their own issues
                 System.out.println("DEBUG IssueService: Resident user, fetching issues for user ID: " + currentUser.getId());
                 try {
-                    pageData = repo.findByReportedById(currentUser.getId(), pageable);
+                    pageData = shards.page(pageable,
+                        p -> loadRelationships(repo.findByReportedById(currentUser.getId(), p)));
                 } catch (Exception e) {
                     System.err.println("DEBUG IssueService: Error in repo.findByReportedById: " + e.getMessage());
                     System.err.println("Exception type: " + e.getClass().getName());
@@ -275,29 +381,6 @@ public class IssueService {
             
             System.out.println("DEBUG IssueService: Found " + pageData.getTotalElements() + " total issues, " + pageData.getContent().size() + " on this page");
             
-            // Force load relationships before transaction closes
-            pageData.getContent().forEach(issue -> {
-                try {
-                    // Initialize location proxy
-                    if (issue.getLocation() != null) {
-                        issue.getLocation().getName(); // Trigger proxy initialization
-                        issue.getLocation().getType(); // Ensure it's fully loaded
-                    }
-                    // Initialize reportedBy proxy
-                    if (issue.getReportedBy() != null) {
-                        issue.getReportedBy().getId(); // Trigger proxy initialization
-                        issue.getReportedBy().getEmail(); // Ensure it's fully loaded
-                    }
-                    // Initialize tags collection
-                    if (issue.getTags() != null) {
-                        issue.getTags().size(); // Trigger collection initialization
-                        issue.getTags().forEach(tag -> tag.getName()); // Load each tag
-                    }
-                } catch (Exception e) {
-                    System.err.println("DEBUG IssueService: Error loading relationships for issue " + issue.getId() + ": " + e.getMessage());
-                }
-            });
-            
             return pageData;
         } catch (Exception e) {
             System.err.println("DEBUG IssueService: Error fetching issues: " + e.getMessage());
@@ -309,6 +392,7 @@ public class IssueService {
 
     @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public Optional<IssueReport> getById(UUID id) {
+        shards.pin(shards.locate(id));
         Optional<IssueReport> issue = repo.findById(id);
         // Force load relationships before transaction closes
         issue.ifPresent(i -> {
@@ -316,28 +400,83 @@ public class IssueService {
             if (i.getReportedBy() != null) i.getReportedBy().getId();
             if (i.getTags() != null) i.getTags().size();
         });
+        if (issue.isEmpty()) {
+            return coldArchive.find(id).map(this::fromArchive);
+        }
+        return issue;
+    }
+
+    /**
+     * Read-only, detached IssueReport for an archived issue (its location, reporter and tags are looked up live)
+     */
+    private IssueReport fromArchive(ArchivedIssue a) {
+        IssueReport issue = new IssueReport();
+        issue.setId(a.id());
+        issue.setTitle(a.title());
+        issue.setDescription(a.description());
+        issue.setCategory(a.category());
+        issue.setStatus(a.status() == null ? null : Status.valueOf(a.status()));
+        issue.setLocation(a.locationId() == null ? null : locationRepo.findById(a.locationId()).orElse(null));
+        issue.setReportedBy(a.reportedById() == null ? null : userRepo.findById(a.reportedById()).orElse(null));
+        issue.setDuplicateOfId(a.duplicateOfId());
+        issue.setPhotoUrl(a.photoUrl());
+        issue.setDateReported(a.dateReported());
+        issue.setDateResolved(a.dateResolved());
+        issue.setLastActivityAt(a.lastActivityAt());
+        issue.setLatitude(a.latitude());
+        issue.setLongitude(a.longitude());
+        issue.setCommentCount(a.commentCount());
+        Set<Tag> tags = new HashSet<>();
+        for (ArchivedIssue.Tag t : a.tags()) {
+            // Tags deleted since the issue was archived keep the name recorded with it
+            tags.add(tagService.getById(t.id()).orElseGet(() -> {
+                Tag tag = new Tag();
+                tag.setId(t.id());
+                tag.setName(t.name());
+                return tag;
+            }));
+        }
+        issue.setTags(tags);
+        issue.setArchived(true);
         return issue;
     }
 
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public List<IssueReport> getByUser(UUID userId) { 
-        return repo.findByReportedById(userId); 
+        return fromEveryShard(() -> detachable(repo.findByReportedById(userId))); 
     }
 
+    @org.springframework.transaction.annotation.Transactional
     public IssueReport updateStatus(UUID id, Status status) { 
+        shards.pin(shards.locate(id));
         IssueReport issue = repo.findById(id).orElseThrow();
         Status oldStatus = issue.getStatus();
+        Instant now = Instant.now();
+        if (oldStatus != status) {
+            // Before dateResolved changes: only the first resolution counts towards time-to-resolution
+            statusHistory.recordChange(issue, oldStatus, status, now);
+        }
         issue.setStatus(status); 
         if (status == Status.RESOLVED) 
-            issue.setDateResolved(Instant.now()); 
+            issue.setDateResolved(now); 
+        issue.setLastActivityAt(now);
         
         IssueReport savedIssue = repo.save(issue);
+        if (oldStatus != status) {
+            retriage(savedIssue);
+        }
+        if (status == Status.RESOLVED) {
+            Transactions.afterCommit(() -> duplicateIndex.remove(id));
+        } else if (oldStatus == Status.RESOLVED) {
+            reindex(savedIssue);
+        }
         
         // System-generated notification: Notify reporting resident about status change
         if (oldStatus != status && savedIssue.getReportedBy() != null) {
             notifyResidentAboutStatusChange(savedIssue, oldStatus, status);
         }
         
-        return savedIssue; 
+        return detachable(savedIssue); 
     }
 
     /**
@@ -349,7 +488,7 @@ public class IssueService {
             if (resident == null) return;
             
             String statusMessage = getStatusChangeMessage(issue, oldStatus, newStatus);
-            notificationService.createNotification(resident, issue, statusMessage);
+            notificationService.notifyStatusChange(resident, issue, oldStatus, newStatus, statusMessage);
         } catch (Exception e) {
             // Log error but don't fail status update if notification fails
             System.err.println("Error creating notification for status change: " + e.getMessage());
@@ -376,43 +515,284 @@ public class IssueService {
     }
 
     public IssueReport update(UUID id, IssueReport payload) { 
+        return shards.on(shards.locate(id), () -> doUpdate(id, payload));
+    }
+
+    private IssueReport doUpdate(UUID id, IssueReport payload) {
         IssueReport e = repo.findById(id).orElseThrow();
+        checkCoordinates(payload.getLatitude(), payload.getLongitude());
+        Double oldLatitude = e.getLatitude();
+        Double oldLongitude = e.getLongitude();
         e.setTitle(payload.getTitle()); 
         e.setDescription(payload.getDescription()); 
         e.setCategory(payload.getCategory()); 
         e.setLocation(payload.getLocation()); 
-        return repo.save(e); 
+        e.setLatitude(payload.getLatitude());
+        e.setLongitude(payload.getLongitude());
+        IssueReport saved = repo.save(e);
+        if (oldLatitude != null) {
+            Transactions.afterCommit(() -> geoIndex.remove(id, oldLatitude, oldLongitude));
+        }
+        if (saved.getLatitude() != null) {
+            double latitude = saved.getLatitude();
+            double longitude = saved.getLongitude();
+            Instant reportedAt = saved.getDateReported();
+            Transactions.afterCommit(() -> geoIndex.add(id, latitude, longitude, reportedAt));
+        }
+        if (saved.getStatus() != Status.RESOLVED) {
+            reindex(saved);
+        }
+        retriage(saved);
+        return detachable(saved);
     }
 
+    private void reindex(IssueReport issue) {
+        UUID id = issue.getId();
+        if (issue.getLocation() == null) {
+            Transactions.afterCommit(() -> duplicateIndex.remove(id));
+            return;
+        }
+        UUID duplicateOf = issue.getDuplicateOfId();
+        UUID locationId = issue.getLocation().getId();
+        int[] signature = duplicateIndex.signature(issue.getTitle(), issue.getDescription());
+        Instant reportedAt = issue.getDateReported();
+        Transactions.afterCommit(() -> duplicateIndex.add(id, duplicateOf, locationId, signature, reportedAt));
+    }
+
+    @org.springframework.transaction.annotation.Transactional
     public void delete(UUID id) { 
+        shards.pin(shards.locate(id));
+        Optional<IssueReport> existing = repo.findById(id);
+        existing.ifPresent(issue -> releaseTagUsage(tagIds(issue)));
+        // Its duplicates are unlinked by the foreign key (on delete set null) and become originals
+        List<Object[]> released = repo.findOpenDuplicatesOf(id, List.of(Status.REPORTED, Status.IN_PROGRESS));
         repo.deleteById(id); 
+        statusHistory.forget(id);
+        UUID original = existing.map(IssueReport::getDuplicateOfId).orElse(null);
+        Transactions.afterCommit(() -> {
+            duplicateIndex.remove(id);
+            shards.forget(id);
+            triageQueue.delete(id);
+            if (original != null) {
+                triageQueue.duplicateLinked(original, -1);
+            }
+            for (Object[] row : released) {
+                triageQueue.put((UUID) row[0], (String) row[1], (Instant) row[2]);
+            }
+        });
+        existing.filter(issue -> issue.getLatitude() != null).ifPresent(issue -> {
+            double latitude = issue.getLatitude();
+            double longitude = issue.getLongitude();
+            Transactions.afterCommit(() -> geoIndex.remove(id, latitude, longitude));
+        });
+    }
+
+    /**
+     * Latitude/longitude are optional, but only together and within WGS84 range
+     */
+    private static void checkCoordinates(Double latitude, Double longitude) {
+        if (latitude == null && longitude == null) {
+            return;
+        }
+        if (latitude == null || longitude == null) {
+            throw new RuntimeException("latitude and longitude must be given together");
+        }
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new RuntimeException("latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+    }
+
+    // ========== TRIAGE ==========
+
+    /**
+     * Open issues, most urgent first (TriageQueue)
+     */
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public Page<TriagedIssue> getTriage(Pageable pageable) {
+        TriageQueue.Result result = triageQueue.top(Math.toIntExact(pageable.getOffset()), pageable.getPageSize());
+        Map<UUID, IssueReport> byId = byId(result.ranked().stream().map(TriageQueue.Ranked::issueId).toList());
+        List<TriagedIssue> content = new ArrayList<>(result.ranked().size());
+        for (TriageQueue.Ranked ranked : result.ranked()) {
+            IssueReport issue = byId.get(ranked.issueId());
+            if (issue != null) {
+                content.add(TriagedIssue.of(issue, ranked));
+            }
+        }
+        return new PageImpl<>(content, pageable, result.total());
+    }
+
+    // ========== GEO QUERIES ==========
+
+    /**
+     * Issues within radiusMeters of a point, nearest first.
+     * Served from GeoIndex once it is loaded, otherwise from the SQL fallback.
+     */
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public Page<IssueReport> findNearby(double latitude, double longitude, double radiusMeters, Pageable pageable) {
+        double dLat = Math.toDegrees(radiusMeters / GeoIndex.EARTH_RADIUS_METERS);
+        double dLon = Math.min(180, dLat / Math.max(Math.cos(Math.toRadians(latitude)), 1e-6));
+        if (!geoIndex.isReady()) {
+            Comparator<IssueReport> nearestFirst = Comparator.comparingDouble(
+                i -> GeoIndex.haversine(Math.toRadians(latitude), Math.toRadians(longitude),
+                    Math.toRadians(i.getLatitude()), Math.toRadians(i.getLongitude())));
+            return shards.page(pageable, nearestFirst, p -> initialize(repo.findWithinRadius(latitude, longitude,
+                radiusMeters, latitude - dLat, longitude - dLon, latitude + dLat, longitude + dLon, p)));
+        }
+        GeoIndex.Result result = geoIndex.withinRadius(latitude, longitude, radiusMeters,
+            Math.toIntExact(pageable.getOffset()), pageable.getPageSize());
+        return load(result, pageable);
+    }
+
+    /**
+     * Issues inside a bounding box (e.g. the visible map), newest first
+     */
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public Page<IssueReport> findWithinBox(double minLat, double minLon, double maxLat, double maxLon, Pageable pageable) {
+        if (!geoIndex.isReady()) {
+            return shards.page(pageable, Comparator.comparing(IssueReport::getDateReported).reversed(),
+                p -> initialize(repo.findWithinBox(minLat, minLon, maxLat, maxLon, p)));
+        }
+        GeoIndex.Result result = geoIndex.withinBox(minLat, minLon, maxLat, maxLon,
+            Math.toIntExact(pageable.getOffset()), pageable.getPageSize());
+        return load(result, pageable);
+    }
+
+    /**
+     * Fetch the issues of one index page in a single query, in the index's order
+     */
+    private Page<IssueReport> load(GeoIndex.Result result, Pageable pageable) {
+        List<UUID> ids = result.hits().stream().map(GeoIndex.Hit::issueId).toList();
+        Map<UUID, IssueReport> byId = byId(ids);
+        List<IssueReport> content = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            IssueReport issue = byId.get(id);
+            if (issue != null) {
+                content.add(issue);
+            }
+        }
+        return new PageImpl<>(content, pageable, result.total());
+    }
+
+    /**
+     * One page of issues by id with everything the response serializes, in a single query
+     */
+    private Map<UUID, IssueReport> byId(List<UUID> ids) {
+        Map<UUID, IssueReport> byId = new HashMap<>();
+        for (IssueReport issue : fromEveryShard(() -> repo.findAllWithRelationsByIdIn(ids))) {
+            byId.put(issue.getId(), issue);
+        }
+        return byId;
+    }
+
+    /**
+     * Force load relationships before the transaction closes
+     */
+    private Page<IssueReport> initialize(Page<IssueReport> page) {
+        page.getContent().forEach(issue -> {
+            if (issue.getLocation() != null) issue.getLocation().getName();
+            if (issue.getReportedBy() != null) issue.getReportedBy().getEmail();
+            if (issue.getTags() != null) issue.getTags().forEach(Tag::getName);
+        });
+        return page;
+    }
+
+    private Page<IssueReport> loadRelationships(Page<IssueReport> pageData) {
+        // Force load relationships before transaction closes
+        pageData.getContent().forEach(issue -> {
+            try {
+                // Initialize location proxy
+                if (issue.getLocation() != null) {
+                    issue.getLocation().getName(); // Trigger proxy initialization
+                    issue.getLocation().getType(); // Ensure it's fully loaded
+                }
+                // Initialize reportedBy proxy
+                if (issue.getReportedBy() != null) {
+                    issue.getReportedBy().getId(); // Trigger proxy initialization
+                    issue.getReportedBy().getEmail(); // Ensure it's fully loaded
+                }
+                // Initialize tags collection
+                if (issue.getTags() != null) {
+                    issue.getTags().size(); // Trigger collection initialization
+                    issue.getTags().forEach(tag -> tag.getName()); // Load each tag
+                }
+            } catch (Exception e) {
+                System.err.println("DEBUG IssueService: Error loading relationships for issue " + issue.getId() + ": " + e.getMessage());
+            }
+        });
+        return pageData;
+    }
+
+    /**
+     * Every shard's answer, concatenated (ShardRouter.scatter)
+     */
+    private <T> List<T> fromEveryShard(java.util.function.Supplier<List<T>> query) {
+        List<T> all = new ArrayList<>();
+        shards.scatter(query).forEach(all::addAll);
+        return all;
+    }
+
+    /**
+     * Issues read on a shard are detached, or read from the home database by open-in-view, once its
+     * transaction closes: load what the response needs while it is open. Without shards, open-in-view
+     * loads it lazily.
+     */
+    private List<IssueReport> detachable(List<IssueReport> issues) {
+        issues.forEach(this::detachable);
+        return issues;
+    }
+
+    private IssueReport detachable(IssueReport issue) {
+        if (shards.isEnabled()) {
+            if (issue.getLocation() != null) issue.getLocation().getName();
+            if (issue.getReportedBy() != null) issue.getReportedBy().getEmail();
+            if (issue.getTags() != null) issue.getTags().forEach(Tag::getName);
+        }
+        return issue;
+    }
+
+    private long sum(java.util.function.Supplier<Long> count) {
+        return shards.scatter(count).stream().mapToLong(Long::longValue).sum();
+    }
+
+    private Map<String, Long> merged(java.util.function.Supplier<Map<String, Long>> counts) {
+        Map<String, Long> map = new HashMap<>();
+        shards.scatter(counts).forEach(m -> m.forEach((key, n) -> map.merge(key, n, Long::sum)));
+        return map;
     }
 
     // Dashboard helper methods (without role filtering - for backward compatibility)
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public long count() {
-        return repo.count();
+        return sum(repo::count) + coldArchive.count();
     }
 
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public long countByStatus(String status) {
         try {
             Status s = Status.valueOf(status);
-            return repo.countByStatus(s);
+            // Only resolved issues are archived
+            return sum(() -> repo.countByStatus(s)) + (s == Status.RESOLVED ? coldArchive.count() : 0);
         } catch (Exception e) {
             return 0L;
         }
     }
 
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public List<IssueReport> findTop5ByOrderByDateReportedDesc() {
-        return repo.findTop5ByOrderByDateReportedDesc();
+        return newest5(fromEveryShard(() -> detachable(repo.findTop5ByOrderByDateReportedDesc())));
     }
 
+    private static List<IssueReport> newest5(List<IssueReport> issues) {
+        return issues.stream()
+            .sorted((a, b) -> b.getDateReported().compareTo(a.getDateReported()))
+            .limit(5)
+            .toList();
+    }
+
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public List<Map<String, Object>> countByCategory() {
-        var list = repo.findAll();
-        Map<String, Long> map = new java.util.HashMap<>();
-        for (var i : list) {
-            String cat = i.getCategory() == null ? "UNCATEGORIZED" : i.getCategory();
-            map.put(cat, map.getOrDefault(cat, 0L) + 1);
-        }
+        Map<String, Long> map = merged(() -> categoryCounts(repo.findAll()));
+        addArchivedByCategory(map);
         List<Map<String, Object>> out = new ArrayList<>();
         for (var e : map.entrySet()) {
             Map<String, Object> m = new HashMap<>();
@@ -423,13 +803,10 @@ public class IssueService {
         return out;
     }
 
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public List<Map<String, Object>> countByLocation() {
-        var list = repo.findAll();
-        Map<String, Long> map = new java.util.HashMap<>();
-        for (var i : list) {
-            String loc = i.getLocation() == null || i.getLocation().getName() == null ? "UNKNOWN" : i.getLocation().getName();
-            map.put(loc, map.getOrDefault(loc, 0L) + 1);
-        }
+        Map<String, Long> map = merged(() -> locationCounts(repo.findAll()));
+        addArchivedByLocation(map);
         List<Map<String, Object>> out = new ArrayList<>();
         for (var e : map.entrySet()) {
             Map<String, Object> m = new HashMap<>();
@@ -447,9 +824,10 @@ public class IssueService {
             return 0L;
         }
         if (currentUser.getRole() == Role.ADMIN) {
-            return repo.count();
+            return sum(repo::count) + coldArchive.count();
         } else {
-            return repo.findByReportedById(currentUser.getId()).size();
+            return sum(() -> (long) repo.findByReportedById(currentUser.getId()).size())
+                + coldArchive.countByReporter(currentUser.getId());
         }
     }
 
@@ -462,13 +840,18 @@ public class IssueService {
             Status s = Status.valueOf(status);
             List<IssueReport> issues;
             if (currentUser.getRole() == Role.ADMIN) {
-                issues = repo.findByStatus(s);
+                issues = fromEveryShard(() -> repo.findByStatus(s));
             } else {
-                issues = repo.findByReportedById(currentUser.getId()).stream()
+                issues = fromEveryShard(() -> repo.findByReportedById(currentUser.getId())).stream()
                     .filter(i -> i.getStatus() == s)
                     .toList();
             }
-            return issues.size();
+            if (s != Status.RESOLVED) {
+                return issues.size();
+            }
+            // Only resolved issues are archived
+            return issues.size() + (currentUser.getRole() == Role.ADMIN
+                ? coldArchive.count() : coldArchive.countByReporter(currentUser.getId()));
         } catch (Exception e) {
             return 0L;
         }
@@ -481,12 +864,9 @@ public class IssueService {
         }
         List<IssueReport> issues;
         if (currentUser.getRole() == Role.ADMIN) {
-            issues = repo.findTop5ByOrderByDateReportedDesc();
+            issues = fromEveryShard(() -> detachable(repo.findTop5ByOrderByDateReportedDesc()));
         } else {
-            issues = repo.findByReportedById(currentUser.getId()).stream()
-                .sorted((a, b) -> b.getDateReported().compareTo(a.getDateReported()))
-                .limit(5)
-                .toList();
+            issues = fromEveryShard(() -> detachable(newest5(repo.findByReportedById(currentUser.getId()))));
         }
         // Force load relationships before transaction closes
         issues.forEach(issue -> {
@@ -494,7 +874,7 @@ public class IssueService {
             if (issue.getReportedBy() != null) issue.getReportedBy().getId();
             if (issue.getTags() != null) issue.getTags().size();
         });
-        return issues;
+        return newest5(issues);
     }
 
     @org.springframework.transaction.annotation.Transactional(readOnly = true)
@@ -502,16 +882,15 @@ public class IssueService {
         if (currentUser == null) {
             return List.of();
         }
-        List<IssueReport> list;
+        Map<String, Long> map;
         if (currentUser.getRole() == Role.ADMIN) {
-            list = repo.findAll();
+            map = merged(() -> categoryCounts(repo.findAll()));
         } else {
-            list = repo.findByReportedById(currentUser.getId());
+            map = merged(() -> categoryCounts(repo.findByReportedById(currentUser.getId())));
         }
-        Map<String, Long> map = new java.util.HashMap<>();
-        for (var i : list) {
-            String cat = i.getCategory() == null ? "UNCATEGORIZED" : i.getCategory();
-            map.put(cat, map.getOrDefault(cat, 0L) + 1);
+        // The archive keeps per-category counts for all issues only, not per reporter
+        if (currentUser.getRole() == Role.ADMIN) {
+            addArchivedByCategory(map);
         }
         List<Map<String, Object>> out = new ArrayList<>();
         for (var e : map.entrySet()) {
@@ -528,12 +907,35 @@ public class IssueService {
         if (currentUser == null) {
             return List.of();
         }
-        List<IssueReport> list;
+        Map<String, Long> map;
         if (currentUser.getRole() == Role.ADMIN) {
-            list = repo.findAll();
+            map = merged(() -> locationCounts(repo.findAll()));
         } else {
-            list = repo.findByReportedById(currentUser.getId());
+            map = merged(() -> locationCounts(repo.findByReportedById(currentUser.getId())));
+        }
+        if (currentUser.getRole() == Role.ADMIN) {
+            addArchivedByLocation(map);
+        }
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (var e : map.entrySet()) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("location", e.getKey());
+            m.put("count", e.getValue());
+            out.add(m);
         }
+        return out;
+    }
+
+    private static Map<String, Long> categoryCounts(List<IssueReport> list) {
+        Map<String, Long> map = new java.util.HashMap<>();
+        for (var i : list) {
+            String cat = i.getCategory() == null ? "UNCATEGORIZED" : i.getCategory();
+            map.put(cat, map.getOrDefault(cat, 0L) + 1);
+        }
+        return map;
+    }
+
+    private static Map<String, Long> locationCounts(List<IssueReport> list) {
         Map<String, Long> map = new java.util.HashMap<>();
         for (var i : list) {
             // Force load location relationship within transaction
@@ -544,49 +946,89 @@ public class IssueService {
             }
             map.put(loc, map.getOrDefault(loc, 0L) + 1);
         }
-        List<Map<String, Object>> out = new ArrayList<>();
-        for (var e : map.entrySet()) {
-            Map<String, Object> m = new HashMap<>();
-            m.put("location", e.getKey());
-            m.put("count", e.getValue());
-            out.add(m);
+        return map;
+    }
+
+    private void addArchivedByCategory(Map<String, Long> counts) {
+        coldArchive.countByCategory().forEach((category, n) ->
+            counts.merge(category == null ? "UNCATEGORIZED" : category, n, Long::sum));
+    }
+
+    private void addArchivedByLocation(Map<String, Long> counts) {
+        Map<UUID, Long> archived = coldArchive.countByLocation();
+        Map<UUID, String> names = new HashMap<>();
+        for (Location location : locationRepo.findAllById(archived.keySet().stream().filter(Objects::nonNull).toList())) {
+            names.put(location.getId(), location.getName());
         }
-        return out;
+        archived.forEach((locationId, n) -> {
+            String name = locationId == null ? null : names.get(locationId);
+            counts.merge(name == null ? "UNKNOWN" : name, n, Long::sum);
+        });
     }
 
     /**
      * Add a tag to an issue
      */
+    @org.springframework.transaction.annotation.Transactional
     public IssueReport addTag(UUID issueId, UUID tagId) {
+        shards.pin(shards.locate(issueId));
         IssueReport issue = repo.findById(issueId)
             .orElseThrow(() -> new RuntimeException("Issue not found"));
         Tag tag = tagService.getById(tagId)
             .orElseThrow(() -> new RuntimeException("Tag not found"));
         
-        issue.addTag(tag);
-        return repo.save(issue);
+        if (!issue.addTag(tag)) {
+            return issue;
+        }
+        IssueReport saved = repo.save(issue);
+        recordTagUsage(List.of(tagId));
+        return saved;
     }
 
     /**
      * Remove a tag from an issue
      */
+    @org.springframework.transaction.annotation.Transactional
     public IssueReport removeTag(UUID issueId, UUID tagId) {
+        shards.pin(shards.locate(issueId));
         IssueReport issue = repo.findById(issueId)
             .orElseThrow(() -> new RuntimeException("Issue not found"));
         Tag tag = tagService.getById(tagId)
             .orElseThrow(() -> new RuntimeException("Tag not found"));
         
-        issue.removeTag(tag);
-        return repo.save(issue);
+        if (!issue.removeTag(tag)) {
+            return issue;
+        }
+        IssueReport saved = repo.save(issue);
+        releaseTagUsage(List.of(tagId));
+        return saved;
+    }
+
+    /**
+     * Status changes of an issue, oldest first
+     */
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public List<com.comunityalert.cas.model.IssueStatusEvent> getStatusHistory(UUID issueId) {
+        shards.pin(shards.locate(issueId));
+        if (!repo.existsById(issueId) && !coldArchive.contains(issueId)) {
+            throw new RuntimeException("Issue not found");
+        }
+        return statusHistory.history(issueId);
     }
 
     /**
      * Get all tags for an issue
      */
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public Set<Tag> getIssueTags(UUID issueId) {
-        IssueReport issue = repo.findById(issueId)
-            .orElseThrow(() -> new RuntimeException("Issue not found"));
-        return issue.getTags();
+        shards.pin(shards.locate(issueId));
+        Optional<IssueReport> issue = repo.findById(issueId);
+        if (issue.isPresent()) {
+            return detachable(issue.get()).getTags();
+        }
+        return coldArchive.find(issueId).map(this::fromArchive)
+            .orElseThrow(() -> new RuntimeException("Issue not found"))
+            .getTags();
     }
 
     /**
@@ -600,16 +1042,15 @@ public class IssueService {
         }
         
         String lowerQuery = query.toLowerCase();
-        List<IssueReport> issuesToSearch;
-        
-        if (currentUser.getRole() == Role.ADMIN) {
+        // Every shard searches its own issues
+        return fromEveryShard(() -> detachable(search(lowerQuery, currentUser.getRole() == Role.ADMIN
             // Admin searches all issues
-            issuesToSearch = repo.findAll();
-        } else {
+            ? repo.findAll()
             // Resident searches only their own issues
-            issuesToSearch = repo.findByReportedById(currentUser.getId());
-        }
-        
+            : repo.findByReportedById(currentUser.getId()))));
+    }
+
+    private static List<IssueReport> search(String lowerQuery, List<IssueReport> issuesToSearch) {
         List<IssueReport> results = issuesToSearch.stream()
             .filter(issue -> 
                 (issue.getTitle() != null && issue.getTitle().toLowerCase().contains(lowerQuery)) ||
@@ -37,4 +37,12 @@ public class JwtService {
     public void invalidateToken(String token) {
         tokenToUserId.remove(token);
     }
+
+    public int getTokenCount() {
+        return tokenToUserId.size();
+    }
+
+    public int getTempTokenCount() {
+        return tempTokenToUserId.size();
+    }
 }
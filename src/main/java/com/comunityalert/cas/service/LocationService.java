@@ -1,11 +1,13 @@
 package com.comunityalert.cas.service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.stereotype.Service;
@@ -17,6 +19,7 @@ import com.comunityalert.cas.model.Location;
 import com.comunityalert.cas.repository.LocationRepository;
 import com.comunityalert.cas.dto.LocationDTO;
 import com.comunityalert.cas.mapper.LocationMapper;
+import com.comunityalert.cas.startup.StartupReport;
 import com.comunityalert.cas.utils.RwandaLocations;
 
 @Service
@@ -24,58 +27,74 @@ public class LocationService {
     
     private final LocationRepository repo;
     private final LocationMapper mapper;
-    private RwandaLocations rwandaLocations;
+    private final StartupReport startupReport;
+    private volatile CompletableFuture<RwandaLocations> rwandaLocations = CompletableFuture.completedFuture(null);
     private final Map<String, List<Map<String, Object>>> cache = new ConcurrentHashMap<>();
 
-    public LocationService(LocationRepository repo, LocationMapper mapper) {
+    public LocationService(LocationRepository repo, LocationMapper mapper, StartupReport startupReport) {
         this.repo = repo;
         this.mapper = mapper;
+        this.startupReport = startupReport;
     }
 
     /**
-     * Initialize RwandaLocations on startup
+     * Start loading RwandaLocations in the background, so parsing locations.json overlaps the rest of startup
      */
     @PostConstruct
     public void init() {
-        try {
-            // Load from classpath (Spring Boot resources folder)
-            java.io.InputStream is = getClass().getClassLoader().getResourceAsStream("locations.json");
-            if (is == null) {
-                // Try loading from file system as fallback
-                String[] possiblePaths = {
-                    "locations.json",
-                    "src/main/resources/locations.json"
-                };
-                
-                IOException lastException = null;
-                for (String path : possiblePaths) {
-                    try {
-                        rwandaLocations = new RwandaLocations(path);
-                        rwandaLocations.load();
-                        System.out.println("✅ RwandaLocations initialized successfully from: " + path);
-                        return;
-                    } catch (IOException e) {
-                        lastException = e;
-                    }
+        rwandaLocations = CompletableFuture.supplyAsync(
+            () -> startupReport.time("location index", this::loadRwandaLocations));
+    }
+
+    /**
+     * Completes once the location index is loaded (or failed to load)
+     */
+    public CompletableFuture<?> locationIndexLoaded() {
+        return rwandaLocations;
+    }
+
+    private RwandaLocations loadRwandaLocations() {
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("locations.json")) {
+            if (is != null) {
+                // Parsed straight from the classpath stream, no temp file
+                RwandaLocations locations = new RwandaLocations().load(is);
+                System.out.println("✅ RwandaLocations initialized successfully from classpath");
+                return locations;
+            }
+
+            // Try loading from file system as fallback
+            String[] possiblePaths = {
+                "locations.json",
+                "src/main/resources/locations.json"
+            };
+            IOException lastException = null;
+            for (String path : possiblePaths) {
+                try {
+                    RwandaLocations locations = new RwandaLocations(path).load();
+                    System.out.println("✅ RwandaLocations initialized successfully from: " + path);
+                    return locations;
+                } catch (IOException e) {
+                    lastException = e;
                 }
-                throw lastException != null ? lastException : new IOException("Could not find locations.json");
             }
-            
-            // Copy to temp file since RwandaLocations expects a file path
-            java.nio.file.Path tempFile = java.nio.file.Files.createTempFile("locations", ".json");
-            java.nio.file.Files.copy(is, tempFile, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-            is.close();
-            
-            // Initialize RwandaLocations with temp file path
-            rwandaLocations = new RwandaLocations(tempFile.toString());
-            rwandaLocations.load();
-            System.out.println("✅ RwandaLocations initialized successfully from classpath");
+            throw lastException != null ? lastException : new IOException("Could not find locations.json");
         } catch (Exception e) {
             System.err.println("⚠️ Warning: Could not initialize RwandaLocations: " + e.getMessage());
             System.err.println("   Location hierarchy endpoints will not be available.");
             System.err.println("   Make sure locations.json is in src/main/resources/");
-            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * The location index, waiting for the background load if it is still running
+     */
+    private RwandaLocations locations() {
+        RwandaLocations locations = rwandaLocations.join();
+        if (locations == null) {
+            throw new RuntimeException("RwandaLocations not initialized. Check if locations.json exists in src/main/resources/");
         }
+        return locations;
     }
 
     public LocationDTO create(LocationDTO dto) {
@@ -139,9 +158,7 @@ public class LocationService {
      * Get all provinces
      */
     public List<Map<String, Object>> getProvinces() {
-        if (rwandaLocations == null) {
-            throw new RuntimeException("RwandaLocations not initialized. Check if locations.json exists in src/main/resources/");
-        }
+        RwandaLocations rwandaLocations = locations();
         
         String cacheKey = "provinces";
         if (cache.containsKey(cacheKey)) {
@@ -161,9 +178,7 @@ public class LocationService {
      * Get districts by province code
      */
     public List<Map<String, Object>> getDistricts(Integer provinceCode) {
-        if (rwandaLocations == null) {
-            throw new RuntimeException("RwandaLocations not initialized");
-        }
+        RwandaLocations rwandaLocations = locations();
         
         String cacheKey = "districts_" + (provinceCode != null ? provinceCode : "all");
         if (cache.containsKey(cacheKey)) {
@@ -183,9 +198,7 @@ public class LocationService {
      * Get sectors by district code
      */
     public List<Map<String, Object>> getSectors(Integer districtCode) {
-        if (rwandaLocations == null) {
-            throw new RuntimeException("RwandaLocations not initialized");
-        }
+        RwandaLocations rwandaLocations = locations();
         
         String cacheKey = "sectors_" + (districtCode != null ? districtCode : "all");
         if (cache.containsKey(cacheKey)) {
@@ -205,9 +218,7 @@ public class LocationService {
      * Get cells by sector code
      */
     public List<Map<String, Object>> getCells(String sectorCode) {
-        if (rwandaLocations == null) {
-            throw new RuntimeException("RwandaLocations not initialized");
-        }
+        RwandaLocations rwandaLocations = locations();
         
         String cacheKey = "cells_" + (sectorCode != null ? sectorCode : "all");
         if (cache.containsKey(cacheKey)) {
@@ -227,9 +238,7 @@ public class LocationService {
      * Get villages by cell code
      */
     public List<Map<String, Object>> getVillages(Integer cellCode) {
-        if (rwandaLocations == null) {
-            throw new RuntimeException("RwandaLocations not initialized");
-        }
+        RwandaLocations rwandaLocations = locations();
         
         String cacheKey = "villages_" + (cellCode != null ? cellCode : "all");
         if (cache.containsKey(cacheKey)) {
@@ -249,9 +258,7 @@ public class LocationService {
      * Get location hierarchy by village code
      */
     public Map<String, Object> getLocationByVillageCode(Integer villageCode) {
-        if (rwandaLocations == null) {
-            throw new RuntimeException("RwandaLocations not initialized");
-        }
+        RwandaLocations rwandaLocations = locations();
         
         try {
             return rwandaLocations.getLocationByVillageCode(villageCode);
@@ -264,9 +271,7 @@ public class LocationService {
      * Search locations by name
      */
     public List<Map<String, Object>> searchLocations(String searchTerm, String level) {
-        if (rwandaLocations == null) {
-            throw new RuntimeException("RwandaLocations not initialized");
-        }
+        RwandaLocations rwandaLocations = locations();
         
         try {
             return rwandaLocations.search(searchTerm, level != null ? level : "all");
@@ -279,9 +284,7 @@ public class LocationService {
      * Get statistics about locations
      */
     public Map<String, Integer> getLocationStats() {
-        if (rwandaLocations == null) {
-            throw new RuntimeException("RwandaLocations not initialized");
-        }
+        RwandaLocations rwandaLocations = locations();
         
         try {
             return rwandaLocations.getStats();
@@ -1,27 +1,117 @@
 package com.comunityalert.cas.service;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.comunityalert.cas.datasource.ShardRouter;
+import com.comunityalert.cas.datasource.ShardRouting;
 import com.comunityalert.cas.enums.Channel;
 import com.comunityalert.cas.enums.Role;
+import com.comunityalert.cas.enums.Status;
 import com.comunityalert.cas.model.IssueReport;
 import com.comunityalert.cas.model.Notification;
 import com.comunityalert.cas.model.User;
 import com.comunityalert.cas.repository.NotificationRepository;
+import com.comunityalert.cas.utils.Transactions;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+
+/**
+ * System notifications. New-issue and status-change notifications go through a coalescing stage
+ * (cas.notifications.digest.*): a recipient's notifications, the first one included, are held for the window
+ * that starts with the first one and then written together. An admin gets one row per district ("12 new issues in Gasabo") instead of one
+ * per issue, and a resident's status changes that end where they started within the window (flapping)
+ * are not written at all. Held notifications are kept in memory only; they are written on shutdown, within
+ * cas.notifications.digest.shutdown-timeout, and dropped (with a log line) past it.
+ *
+ * Listings only go back cas.notifications.list-window unless asked for more, so they read the latest
+ * monthly partitions of the table instead of all of them.
+ *
+ * With issue shards a notification is stored with its issue (ShardRouter); digests and notifications
+ * without an issue go to the home database.
+ */
 @Service
 public class NotificationService {
     
     private final NotificationRepository repo;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shards;
+    private final boolean coalescing;
+    private final Duration window;
+    private final Duration listWindow;
+    private final Duration shutdownTimeout;
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final Counter written;
+    private final Counter merged;
+    private final Counter suppressed;
 
-    public NotificationService(NotificationRepository repo) { 
+    public NotificationService(NotificationRepository repo, EntityManager entityManager,
+                               PlatformTransactionManager transactionManager, MeterRegistry registry,
+                               ShardRouter shards,
+                               @Value("${cas.notifications.digest.enabled:true}") boolean enabled,
+                               @Value("${cas.notifications.digest.window:60s}") Duration window,
+                               @Value("${cas.notifications.list-window:90d}") Duration listWindow,
+                               @Value("${cas.notifications.digest.shutdown-timeout:10s}") Duration shutdownTimeout) { 
         this.repo = repo; 
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+        this.coalescing = enabled && !window.isZero() && !window.isNegative();
+        this.window = window;
+        this.listWindow = listWindow;
+        this.shutdownTimeout = shutdownTimeout;
+        this.written = Counter.builder("cas.notifications.coalesced")
+            .description("Coalesced notification events by outcome")
+            .tag("outcome", "written")
+            .register(registry);
+        this.merged = Counter.builder("cas.notifications.coalesced")
+            .description("Coalesced notification events by outcome")
+            .tag("outcome", "merged")
+            .register(registry);
+        this.suppressed = Counter.builder("cas.notifications.coalesced")
+            .description("Coalesced notification events by outcome")
+            .tag("outcome", "suppressed")
+            .register(registry);
+        Gauge.builder("cas.notifications.pending", pending, Map::size)
+            .description("Recipients with notifications held for coalescing")
+            .register(registry);
+        if (coalescing) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "notification-digest");
+                t.setDaemon(true);
+                return t;
+            });
+            long tick = Math.max(100, Math.min(window.toMillis() / 4, 1000));
+            flusher.scheduleWithFixedDelay(() -> flush(false), tick, tick, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
     }
 
     /**
@@ -40,9 +130,179 @@ public class NotificationService {
         n.setSentAt(Instant.now());
         n.setDelivered(true);
         n.setRead(false);
+        // Inside the issue's own (pinned) transaction the row already goes to its shard
+        if (issue != null && issue.getId() != null && ShardRouting.current() == null) {
+            return shards.on(shards.locate(issue.getId()), () -> repo.save(n));
+        }
         return repo.save(n);
     }
 
+    /**
+     * Tell admins about a new issue in area (its district); with coalescing on, several new issues in one
+     * area within the window become a single "N new issues in area" notification per admin
+     */
+    public void notifyNewIssue(List<User> recipients, IssueReport issue, String area, String message) {
+        if (!coalescing) {
+            recipients.forEach(recipient -> createNotification(recipient, issue, message));
+            return;
+        }
+        UUID issueId = issue.getId();
+        List<UUID> recipientIds = recipients.stream().map(User::getId).toList();
+        Instant at = Instant.now();
+        // Held only once the issue exists: a rolled-back report notifies nobody
+        Transactions.afterCommit(() -> recipientIds.forEach(recipientId -> hold(recipientId, at, p -> {
+            Digest digest = p.newIssues.computeIfAbsent(area, k -> new Digest(issueId, message));
+            digest.count++;
+        })));
+    }
+
+    /**
+     * Tell a resident their issue changed status; with coalescing on, only the latest change per issue
+     * within the window is written, and none when the issue is back where it started
+     */
+    public void notifyStatusChange(User recipient, IssueReport issue, Status from, Status to, String message) {
+        if (!coalescing) {
+            createNotification(recipient, issue, message);
+            return;
+        }
+        UUID recipientId = recipient.getId();
+        UUID issueId = issue.getId();
+        Instant at = Instant.now();
+        Transactions.afterCommit(() -> hold(recipientId, at, p -> {
+            StatusChange change = p.statusChanges.computeIfAbsent(issueId, k -> new StatusChange(from));
+            change.events++;
+            change.to = to;
+            change.message = message;
+        }));
+    }
+
+    /**
+     * Write every held notification whose window has passed (all of them when force is set)
+     */
+    void flush(boolean force) {
+        flush(force, Long.MAX_VALUE);
+    }
+
+    private void flush(boolean force, long deadline) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<UUID, Pending> entry : pending.entrySet()) {
+            if (System.currentTimeMillis() >= deadline) {
+                return;
+            }
+            Pending p = entry.getValue();
+            if (!force && now - p.since < window.toMillis()) {
+                continue;
+            }
+            if (!pending.remove(entry.getKey(), p)) {
+                continue;
+            }
+            try {
+                write(entry.getKey(), p);
+            } catch (Exception e) {
+                System.err.println("Error writing coalesced notifications for " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        // On its own thread: with the database gone every write waits out the pool's connection timeout,
+        // which must not hold up shutdown past the budget
+        long deadline = System.currentTimeMillis() + shutdownTimeout.toMillis();
+        Thread last = Thread.ofPlatform().name("notification-digest-shutdown").daemon()
+            .start(() -> flush(true, deadline));
+        try {
+            last.join(shutdownTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int dropped = pending.size() + (last.isAlive() ? 1 : 0);
+        if (dropped > 0) {
+            System.err.println("Dropped held notifications for " + dropped + " recipients: not written within "
+                + shutdownTimeout.toMillis() + " ms of shutdown");
+        }
+    }
+
+    private void hold(UUID recipientId, Instant at, Consumer<Pending> change) {
+        pending.compute(recipientId, (k, p) -> {
+            Pending held = p != null ? p : new Pending(at.toEpochMilli());
+            change.accept(held);
+            held.latest = at;
+            return held;
+        });
+    }
+
+    private void write(UUID recipientId, Pending p) {
+        int mergedEvents = 0;
+        int suppressedEvents = 0;
+        List<Row> rows = new ArrayList<>();
+        for (Map.Entry<String, Digest> e : p.newIssues.entrySet()) {
+            Digest digest = e.getValue();
+            if (digest.count == 1) {
+                rows.add(new Row(digest.firstMessage, digest.firstIssueId));
+            } else {
+                rows.add(new Row(digest.count + " new issues in " + e.getKey(), null));
+                mergedEvents += digest.count - 1;
+            }
+        }
+        for (Map.Entry<UUID, StatusChange> e : p.statusChanges.entrySet()) {
+            StatusChange change = e.getValue();
+            if (change.to == change.from) {
+                suppressedEvents += change.events;
+            } else {
+                rows.add(new Row(change.message, e.getKey()));
+                mergedEvents += change.events - 1;
+            }
+        }
+        // One transaction per shard the rows' issues live on
+        Map<String, List<Row>> byShard = new LinkedHashMap<>();
+        for (Row row : rows) {
+            byShard.computeIfAbsent(shards.locate(row.issueId()), k -> new ArrayList<>()).add(row);
+        }
+        byShard.forEach((shard, shardRows) -> shards.on(shard, () -> {
+            transactionTemplate.executeWithoutResult(tx -> {
+                // An issue deleted while its rows were held would fail the whole batch on the foreign key
+                Set<UUID> liveIssues = liveIssues(shardRows);
+                // References only: a row needs the recipient's and issue's ids, not the entities
+                User recipient = entityManager.getReference(User.class, recipientId);
+                List<Notification> notifications = new ArrayList<>(shardRows.size());
+                for (Row row : shardRows) {
+                    if (row.issueId() != null && !liveIssues.contains(row.issueId())) {
+                        continue;
+                    }
+                    Notification n = new Notification();
+                    n.setRecipient(recipient);
+                    n.setIssue(row.issueId() != null ? entityManager.getReference(IssueReport.class, row.issueId()) : null);
+                    n.setMessage(row.message());
+                    n.setChannel(Channel.SYSTEM);
+                    n.setSentAt(p.latest);
+                    n.setDelivered(true);
+                    n.setRead(false);
+                    notifications.add(n);
+                }
+                repo.saveAll(notifications);
+                written.increment(notifications.size());
+            });
+        }));
+        merged.increment(mergedEvents);
+        suppressed.increment(suppressedEvents);
+    }
+
+    private Set<UUID> liveIssues(List<Row> rows) {
+        List<UUID> ids = rows.stream().map(Row::issueId).filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(entityManager
+            .createQuery("SELECT i.id FROM IssueReport i WHERE i.id IN :ids", UUID.class)
+            .setParameter("ids", ids)
+            .getResultList());
+    }
+
     /**
      * Legacy method - kept for backward compatibility
      * @deprecated Use createNotification instead
@@ -56,41 +316,48 @@ public class NotificationService {
      * Mark a notification as read
      */
     public Notification markAsRead(UUID notificationId) {
-        Notification notification = repo.findById(notificationId)
-            .orElseThrow(() -> new RuntimeException("Notification not found"));
-        notification.setRead(true);
-        return repo.save(notification);
+        String shard = shards.find(() -> repo.existsById(notificationId));
+        if (shard == null) {
+            throw new RuntimeException("Notification not found");
+        }
+        return shards.on(shard, () -> {
+            Notification notification = repo.findById(notificationId)
+                .orElseThrow(() -> new RuntimeException("Notification not found"));
+            notification.setRead(true);
+            return repo.save(notification);
+        });
+    }
+
+    /**
+     * Mark every unread notification of a recipient as read; returns how many changed
+     */
+    @org.springframework.transaction.annotation.Transactional
+    public int markAllAsRead(UUID recipientId) {
+        return shards.writeEach(() -> repo.markAllReadByRecipientId(recipientId)).stream()
+            .mapToInt(Integer::intValue).sum();
     }
 
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public List<Notification> getByRecipient(UUID userId) {
-        return repo.findByRecipientId(userId);
+        Instant since = listedSince();
+        List<Notification> all = new ArrayList<>();
+        shards.scatter(() -> loadRelationships(repo.findByRecipientIdSince(userId, since), shards.isEnabled()))
+            .forEach(all::addAll);
+        return all;
     }
 
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public List<Notification> getByIssue(UUID issueId) {
-        return repo.findByIssueId(issueId);
+        shards.pin(shards.locate(issueId));
+        return loadRelationships(repo.findByIssueId(issueId), shards.isEnabled());
     }
 
     @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public Page<Notification> getAll(Pageable pageable) {
-        Page<Notification> pageData = repo.findAll(pageable);
-        // Force load relationships before transaction closes
-        pageData.getContent().forEach(notif -> {
-            try {
-                // Initialize recipient proxy
-                if (notif.getRecipient() != null) {
-                    notif.getRecipient().getId();
-                    notif.getRecipient().getEmail();
-                }
-                // Initialize issue proxy
-                if (notif.getIssue() != null) {
-                    notif.getIssue().getId();
-                    notif.getIssue().getTitle();
-                }
-            } catch (Exception e) {
-                System.err.println("DEBUG NotificationService: Error loading relationships: " + e.getMessage());
-            }
-        });
-        return pageData;
+        Instant since = listedSince();
+        // Relationships are loaded in each shard's transaction, before it closes
+        return shards.page(pageable, newestFirst(pageable),
+            p -> loadRelationships(repo.findSince(since, p)));
     }
 
     /**
@@ -100,21 +367,44 @@ public class NotificationService {
      */
     @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public Page<Notification> getAll(Pageable pageable, User currentUser) {
+        return getAll(pageable, currentUser, null);
+    }
+
+    /**
+     * Same, for notifications sent at or after since (null: the last cas.notifications.list-window)
+     */
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public Page<Notification> getAll(Pageable pageable, User currentUser, Instant since) {
         if (currentUser == null) {
             return Page.empty(pageable);
         }
         
+        Instant from = since != null ? since : listedSince();
         Page<Notification> pageData;
         if (currentUser.getRole() == Role.ADMIN) {
             // Admin sees all notifications
-            pageData = repo.findAll(pageable);
+            pageData = shards.page(pageable, newestFirst(pageable),
+                p -> loadRelationships(repo.findSince(from, p)));
         } else {
             // Resident sees only their own notifications
-            pageData = repo.findByRecipientId(currentUser.getId(), pageable);
+            pageData = shards.page(pageable, newestFirst(pageable),
+                p -> loadRelationships(repo.findByRecipientIdSince(currentUser.getId(), from, p)));
         }
         
+        return pageData;
+    }
+
+    private Page<Notification> loadRelationships(Page<Notification> pageData) {
+        loadRelationships(pageData.getContent(), true);
+        return pageData;
+    }
+
+    private List<Notification> loadRelationships(List<Notification> notifications, boolean load) {
+        if (!load) {
+            return notifications;
+        }
         // Force load relationships before transaction closes
-        pageData.getContent().forEach(notif -> {
+        notifications.forEach(notif -> {
             try {
                 // Initialize recipient proxy
                 if (notif.getRecipient() != null) {
@@ -130,7 +420,59 @@ public class NotificationService {
                 System.err.println("DEBUG NotificationService: Error loading relationships: " + e.getMessage());
             }
         });
-        
-        return pageData;
+        return notifications;
+    }
+
+    /**
+     * Merge order for a page read from several shards: the page's sort, or newest first when it has none
+     */
+    private static java.util.Comparator<Notification> newestFirst(Pageable pageable) {
+        java.util.Comparator<Notification> order = ShardRouter.comparator(pageable.getSort());
+        return order != null ? order
+            : java.util.Comparator.comparing(Notification::getSentAt, java.util.Comparator.nullsLast(java.util.Comparator.reverseOrder()));
+    }
+
+    private Instant listedSince() {
+        return Instant.now().minus(listWindow);
+    }
+
+    /** A notification to write; issueId is null for a digest */
+    private record Row(String message, UUID issueId) {
+    }
+
+    /** One recipient's held notifications; only touched inside pending.compute or after removal */
+    private static final class Pending {
+        final long since;
+        Instant latest;
+        final Map<String, Digest> newIssues = new LinkedHashMap<>();
+        final Map<UUID, StatusChange> statusChanges = new LinkedHashMap<>();
+
+        Pending(long since) {
+            this.since = since;
+        }
+    }
+
+    /** New issues in one area; the first one's message is kept for when it stays alone */
+    private static final class Digest {
+        final UUID firstIssueId;
+        final String firstMessage;
+        int count;
+
+        Digest(UUID firstIssueId, String firstMessage) {
+            this.firstIssueId = firstIssueId;
+            this.firstMessage = firstMessage;
+        }
+    }
+
+    /** Status changes of one issue: where it started and where it is now */
+    private static final class StatusChange {
+        final Status from;
+        Status to;
+        String message;
+        int events;
+
+        StatusChange(Status from) {
+            this.from = from;
+        }
     }
 }
@@ -37,4 +37,8 @@ public class OtpService {
         if (ok) store.remove(userId);
         return ok;
     }
+
+    public int getPendingCount() {
+        return store.size();
+    }
 }
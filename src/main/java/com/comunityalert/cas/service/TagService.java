@@ -1,13 +1,28 @@
 package com.comunityalert.cas.service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import com.comunityalert.cas.datasource.ReplicaRouting;
+import com.comunityalert.cas.datasource.ShardRouter;
+import com.comunityalert.cas.dto.TagDTO;
 import com.comunityalert.cas.model.Tag;
 import com.comunityalert.cas.repository.TagRepository;
 
@@ -15,9 +30,37 @@ import com.comunityalert.cas.repository.TagRepository;
 public class TagService {
     
     private final TagRepository repo;
+    private final ShardRouter shards;
 
-    public TagService(TagRepository repo) {
+    /**
+     * In-memory snapshot of active tags, keyed by ID.
+     * Loaded lazily with a single query and dropped whenever a tag is written,
+     * so the issue form and tag validation don't hit the DB on every request.
+     */
+    private volatile Map<UUID, Tag> activeTagCache;
+    // Set instead of the snapshot when more tags are active than it may hold; until the next tag write,
+    // validation looks tags up in activeTagsById, which keeps the most recently used of them
+    private boolean activeTagsOversized;
+    private final Map<UUID, Tag> activeTagsById = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Tag> eldest) {
+            return size() > activeTagCacheMaxSize;
+        }
+    };
+    private long activeTagCacheVersion;
+    // Guards field updates only, never held across I/O, so it cannot pin a virtual thread
+    private final Object activeTagCacheLock = new Object();
+
+    @Value("${cas.tags.cache.max-size:1000}")
+    private int activeTagCacheMaxSize = 1000;
+
+    // Half-life of a tag use when ranking popular tags
+    @Value("${cas.tags.popularity.half-life-days:7}")
+    private double popularityHalfLifeDays = 7;
+
+    public TagService(TagRepository repo, ShardRouter shards) {
         this.repo = repo;
+        this.shards = shards;
     }
 
     /**
@@ -28,7 +71,13 @@ public class TagService {
         if (repo.existsByName(tag.getName())) {
             throw new RuntimeException("Tag with name '" + tag.getName() + "' already exists");
         }
-        return repo.save(tag);
+        // Usage is tracked by the system, never taken from the request
+        tag.setUsageCount(0);
+        tag.setLastUsedAt(null);
+        tag.setPopularityScore(null);
+        Tag saved = repo.save(tag);
+        invalidateActiveTagCache();
+        return saved;
     }
 
     /**
@@ -48,11 +97,16 @@ public class TagService {
     }
 
     /**
-     * Get all active tags (for residents to select from)
+     * Get all active tags (for residents to select from).
+     * Served from the active-tag cache, so without usage counts: those are only current in /popular and /used.
      */
     @org.springframework.transaction.annotation.Transactional(readOnly = true)
-    public List<Tag> getActiveTags() {
-        return repo.findByActiveTrue();
+    public List<TagDTO> getActiveTags() {
+        Map<UUID, Tag> cached = activeTagCache;
+        Collection<Tag> tags = cached != null ? cached.values() : loadActiveTags();
+        return tags.stream()
+            .map(t -> new TagDTO(t.getId(), t.getName(), t.getDescription()))
+            .toList();
     }
 
     /**
@@ -66,6 +120,7 @@ public class TagService {
     /**
      * Get tag by ID
      */
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public Optional<Tag> getById(UUID id) {
         return repo.findById(id);
     }
@@ -73,6 +128,7 @@ public class TagService {
     /**
      * Get tag by name
      */
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public Optional<Tag> getByName(String name) {
         return repo.findByName(name);
     }
@@ -80,6 +136,7 @@ public class TagService {
     /**
      * Search tags by name (partial match)
      */
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public List<Tag> searchByName(String name) {
         return repo.findByNameContainingIgnoreCase(name);
     }
@@ -87,6 +144,7 @@ public class TagService {
     /**
      * Get all tags that are used in at least one issue
      */
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public List<Tag> getUsedTags() {
         return repo.findUsedTags();
     }
@@ -94,10 +152,92 @@ public class TagService {
     /**
      * Get all tags that are not used in any issue
      */
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public List<Tag> getUnusedTags() {
         return repo.findUnusedTags();
     }
 
+    /**
+     * Get the most popular tags, weighting recent uses more than old ones
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getPopularTags(int limit) {
+        Instant now = Instant.now();
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Tag tag : repo.findPopularTags(PageRequest.of(0, Math.max(1, limit)))) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("id", tag.getId());
+            m.put("name", tag.getName());
+            m.put("active", tag.isActive());
+            m.put("usageCount", tag.getUsageCount());
+            m.put("lastUsedAt", tag.getLastUsedAt());
+            m.put("popularity", Math.exp(tag.getPopularityScore() - popularityExponent(now)));
+            out.add(m);
+        }
+        return out;
+    }
+
+    /**
+     * Count one new issue link for each tag (call in the same transaction that writes issue_tags;
+     * with issue shards, after that transaction commits, on the home database)
+     */
+    @Transactional
+    public void recordUsage(Collection<UUID> tagIds) {
+        if (tagIds == null || tagIds.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        repo.recordUsage(tagIds, now, popularityExponent(now));
+    }
+
+    /**
+     * Count one removed issue link for each tag (call in the same transaction that writes issue_tags;
+     * with issue shards, after that transaction commits, on the home database)
+     */
+    @Transactional
+    public void releaseUsage(Collection<UUID> tagIds) {
+        if (tagIds == null || tagIds.isEmpty()) {
+            return;
+        }
+        repo.releaseUsage(tagIds);
+    }
+
+    /**
+     * Count the given number of removed issue links per tag (archived issues), on the same terms as
+     * releaseUsage
+     */
+    @Transactional
+    public void releaseUsage(Map<UUID, Long> linksByTag) {
+        linksByTag.forEach(repo::releaseUsage);
+    }
+
+    /**
+     * Fill in usage counts for tags created before usage_count existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillUsageCounts() {
+        try {
+            int updated = repo.backfillUsageCounts();
+            if (updated > 0) {
+                System.out.println("Backfilled usage_count for " + updated + " tags");
+            }
+        } catch (Exception e) {
+            System.err.println("Could not backfill tag usage counts: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exponent of a single use at the given time.
+     * A use at time t contributes exp(lambda * t); summing these on a log scale (log-sum-exp)
+     * gives a score that ranks correctly at any later time without rewriting every row,
+     * because decaying all tags by exp(-lambda * now) does not change their order.
+     */
+    private double popularityExponent(Instant at) {
+        double lambdaPerDay = Math.log(2) / popularityHalfLifeDays;
+        return lambdaPerDay * (at.getEpochSecond() / 86400.0);
+    }
+
     /**
      * Update a tag (rename, change description, or activate/deactivate)
      */
@@ -116,7 +256,9 @@ public class TagService {
         existing.setDescription(payload.getDescription());
         }
         existing.setActive(payload.isActive());
-        return repo.save(existing);
+        Tag saved = repo.save(existing);
+        invalidateActiveTagCache();
+        return saved;
     }
 
     /**
@@ -126,7 +268,9 @@ public class TagService {
         Tag tag = repo.findById(id)
             .orElseThrow(() -> new RuntimeException("Tag not found"));
         tag.setActive(false);
-        return repo.save(tag);
+        Tag saved = repo.save(tag);
+        invalidateActiveTagCache();
+        return saved;
     }
 
     /**
@@ -136,38 +280,84 @@ public class TagService {
         Tag tag = repo.findById(id)
             .orElseThrow(() -> new RuntimeException("Tag not found"));
         tag.setActive(true);
-        return repo.save(tag);
+        Tag saved = repo.save(tag);
+        invalidateActiveTagCache();
+        return saved;
     }
 
     /**
      * Validate that tag IDs exist and are active (for residents selecting tags)
      */
     public void validateTagIds(List<UUID> tagIds) {
+        resolveActiveTags(tagIds);
+    }
+
+    /**
+     * Validate tag IDs in one pass and return them as active tags, in request order.
+     * Served from the active-tag cache; only IDs missing from it (unknown, inactive, or not
+     * among the cached tags when too many are active) cost a single batched lookup.
+     */
+    public List<Tag> resolveActiveTags(List<UUID> tagIds) {
         if (tagIds == null || tagIds.isEmpty()) {
-            return; // No tags selected is valid
+            return List.of(); // No tags selected is valid
         }
-        
+
+        Map<UUID, Tag> active = activeTagCache;
+        if (active == null && !isActiveTagsOversized()) {
+            loadActiveTags();
+            active = activeTagCache;
+        }
+        long version = activeTagCacheVersion();
+
+        Map<UUID, Tag> resolved = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
         for (UUID tagId : tagIds) {
-            Tag tag = repo.findById(tagId)
-                .orElseThrow(() -> new RuntimeException("Tag with ID " + tagId + " not found"));
-            
-            if (!tag.isActive()) {
-                throw new RuntimeException("Tag '" + tag.getName() + "' is not active and cannot be selected");
+            Tag tag = active != null ? active.get(tagId) : cachedActiveTag(tagId);
+            if (tag != null && tag.isActive()) {
+                resolved.put(tagId, tag);
+            } else {
+                missing.add(tagId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<UUID, Tag> found = new HashMap<>();
+            for (Tag tag : repo.findAllById(missing)) {
+                found.put(tag.getId(), tag);
+            }
+            for (UUID tagId : missing) {
+                Tag tag = found.get(tagId);
+                if (tag == null) {
+                    throw new RuntimeException("Tag with ID " + tagId + " not found");
+                }
+                if (!tag.isActive()) {
+                    throw new RuntimeException("Tag '" + tag.getName() + "' is not active and cannot be selected");
+                }
+                // Activated after the snapshot was taken, or not among the cached tags
+                resolved.put(tagId, tag);
+            }
+            if (active == null) {
+                rememberActiveTags(found.values(), version);
             }
         }
+
+        return new ArrayList<>(resolved.values());
     }
 
     /**
      * Delete a tag
      */
+    @Transactional
     public void delete(UUID id) {
-        Tag tag = repo.findById(id)
-            .orElseThrow(() -> new RuntimeException("Tag not found"));
+        if (!repo.existsById(id)) {
+            throw new RuntimeException("Tag not found");
+        }
         
-        // Remove tag from all issues before deleting
-        tag.getIssues().forEach(issue -> issue.getTags().remove(tag));
+        // Remove tag from all issues before deleting (one statement per shard, the issues are not loaded)
+        shards.writeEach(() -> repo.deleteIssueLinks(id));
         
         repo.deleteById(id);
+        invalidateActiveTagCache();
     }
 
     /**
@@ -178,7 +368,90 @@ public class TagService {
             .orElseGet(() -> {
                 Tag newTag = new Tag();
                 newTag.setName(name);
-                return repo.save(newTag);
+                Tag saved = repo.save(newTag);
+                invalidateActiveTagCache();
+                return saved;
             });
     }
+
+    /**
+     * Load the active tags with one query and keep them: as the snapshot when they fit in it,
+     * otherwise as many of them as it may hold, for lookups by ID
+     */
+    private List<Tag> loadActiveTags() {
+        long version = activeTagCacheVersion();
+
+        // From the primary: a lagging replica could hand back the tags from before the write that cleared the cache
+        List<Tag> activeTags = ReplicaRouting.onPrimary(repo::findByActiveTrue);
+        Map<UUID, Tag> loaded = null;
+        if (activeTags.size() <= activeTagCacheMaxSize) {
+            loaded = new LinkedHashMap<>();
+            for (Tag tag : activeTags) {
+                loaded.put(tag.getId(), tag);
+            }
+            loaded = Collections.unmodifiableMap(loaded);
+        }
+
+        synchronized (activeTagCacheLock) {
+            // Don't publish a snapshot that a concurrent write has already made stale
+            if (version == activeTagCacheVersion) {
+                if (loaded != null) {
+                    activeTagCache = loaded;
+                } else if (!activeTagsOversized) {
+                    activeTagsOversized = true;
+                    for (Tag tag : activeTags.subList(0, activeTagCacheMaxSize)) {
+                        activeTagsById.put(tag.getId(), tag);
+                    }
+                }
+            }
+        }
+        return activeTags;
+    }
+
+    private boolean isActiveTagsOversized() {
+        synchronized (activeTagCacheLock) {
+            return activeTagsOversized;
+        }
+    }
+
+    private long activeTagCacheVersion() {
+        synchronized (activeTagCacheLock) {
+            return activeTagCacheVersion;
+        }
+    }
+
+    private Tag cachedActiveTag(UUID tagId) {
+        synchronized (activeTagCacheLock) {
+            return activeTagsById.get(tagId);
+        }
+    }
+
+    /**
+     * Keep active tags looked up by ID while too many are active for the snapshot,
+     * unless a tag write since version has made them stale
+     */
+    private void rememberActiveTags(Collection<Tag> tags, long version) {
+        synchronized (activeTagCacheLock) {
+            if (version != activeTagCacheVersion || !activeTagsOversized) {
+                return;
+            }
+            for (Tag tag : tags) {
+                if (tag.isActive()) {
+                    activeTagsById.put(tag.getId(), tag);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop the active-tag snapshot after any tag write
+     */
+    private void invalidateActiveTagCache() {
+        synchronized (activeTagCacheLock) {
+            activeTagCacheVersion++;
+            activeTagCache = null;
+            activeTagsOversized = false;
+            activeTagsById.clear();
+        }
+    }
 }
\ No newline at end of file
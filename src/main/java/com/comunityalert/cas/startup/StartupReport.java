@@ -0,0 +1,103 @@
+package com.comunityalert.cas.startup;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationStartupAware;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+/**
+ * Where startup time went: context refresh, the application's own phases (location index, warm-up)
+ * and the slowest bean creations. Logged once the application is ready; phases are also recorded as
+ * "cas.startup.*" steps in the /actuator/startup timeline.
+ */
+@Component
+public class StartupReport implements ApplicationStartupAware {
+
+    private static final int SLOWEST_BEANS = 5;
+
+    private record Phase(String name, String thread, long startMs, long durationMs) {
+    }
+
+    private final List<Phase> phases = new CopyOnWriteArrayList<>();
+    private volatile ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+    private volatile Duration startedTime;
+
+    /**
+     * Time a phase; safe to call from any thread
+     */
+    public <T> T time(String name, Supplier<T> work) {
+        StartupStep step = applicationStartup.start("cas.startup." + name);
+        long uptimeAtStart = ManagementFactory.getRuntimeMXBean().getUptime();
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            phases.add(new Phase(name, Thread.currentThread().getName(), uptimeAtStart,
+                (System.nanoTime() - start) / 1_000_000));
+            step.end();
+        }
+    }
+
+    public void time(String name, Runnable work) {
+        time(name, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    @Override
+    public void setApplicationStartup(ApplicationStartup applicationStartup) {
+        this.applicationStartup = applicationStartup;
+    }
+
+    @EventListener
+    public void onStarted(ApplicationStartedEvent event) {
+        startedTime = event.getTimeTaken();
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        StringBuilder report = new StringBuilder("Startup report (ms since JVM start / duration ms):\n");
+        report.append(String.format("  %-48s %8s %8d%n", "context started (SpringApplication.run)", "",
+            startedTime != null ? startedTime.toMillis() : -1));
+        List<Phase> ordered = new ArrayList<>(phases);
+        ordered.sort(Comparator.comparingLong(Phase::startMs));
+        for (Phase phase : ordered) {
+            report.append(String.format("  %-48s %8d %8d  [%s]%n",
+                phase.name(), phase.startMs(), phase.durationMs(), phase.thread()));
+        }
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup buffering) {
+            report.append("  slowest beans:\n");
+            buffering.getBufferedTimeline().getEvents().stream()
+                .filter(e -> "spring.beans.instantiate".equals(e.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_BEANS)
+                .forEach(e -> report.append(String.format("    %-46s %17d%n", beanName(e), e.getDuration().toMillis())));
+        }
+        report.append(String.format("  %-48s %8d %8d", "ready",
+            ManagementFactory.getRuntimeMXBean().getUptime(), event.getTimeTaken().toMillis()));
+        System.out.println(report);
+    }
+
+    private static String beanName(StartupTimeline.TimelineEvent event) {
+        for (StartupStep.Tag tag : event.getStartupStep().getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+}
@@ -0,0 +1,191 @@
+package com.comunityalert.cas.startup;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.comunityalert.cas.enums.Role;
+import com.comunityalert.cas.model.User;
+import com.comunityalert.cas.repository.LocationRepository;
+import com.comunityalert.cas.service.IssueService;
+import com.comunityalert.cas.service.LocationService;
+import com.comunityalert.cas.service.NotificationService;
+import com.comunityalert.cas.service.TagService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Warms the application before it reports ready. Runners finish before Boot publishes
+ * ReadinessState.ACCEPTING_TRAFFIC, so /actuator/health/readiness stays OUT_OF_SERVICE until this is done.
+ * The connection pool and caches are filled in parallel, the queries behind the authenticated admin
+ * views are run once, then each cas.startup.warmup.paths endpoint is called once (without a token)
+ * so the first real requests don't pay for cold query plans and JIT.
+ * A failed step is logged and skipped; it never stops startup.
+ */
+@Component
+@ConditionalOnProperty(name = "cas.startup.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class StartupWarmup implements ApplicationRunner {
+
+    private final ApplicationContext context;
+    private final StartupReport report;
+    private final DataSource dataSource;
+    private final LocationService locationService;
+    private final LocationRepository locationRepo;
+    private final TagService tagService;
+    private final IssueService issueService;
+    private final NotificationService notificationService;
+    private final List<String> paths;
+
+    public StartupWarmup(ApplicationContext context, StartupReport report, DataSource dataSource,
+                         LocationService locationService, LocationRepository locationRepo, TagService tagService,
+                         IssueService issueService, NotificationService notificationService,
+                         @Value("${cas.startup.warmup.paths:}") List<String> paths) {
+        this.context = context;
+        this.report = report;
+        this.dataSource = dataSource;
+        this.locationService = locationService;
+        this.locationRepo = locationRepo;
+        this.tagService = tagService;
+        this.issueService = issueService;
+        this.notificationService = notificationService;
+        this.paths = paths;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        report.time("warm-up", () -> {
+            ExecutorService workers = Executors.newFixedThreadPool(4, Thread.ofPlatform().name("warmup-", 0).factory());
+            try {
+                CompletableFuture<Void> pool = CompletableFuture.runAsync(
+                    () -> step("connection pool", this::fillPool), workers);
+                CompletableFuture<Void> tags = CompletableFuture.runAsync(
+                    () -> step("active tags", tagService::getActiveTags), workers);
+                CompletableFuture<Void> locations = CompletableFuture.runAsync(
+                    () -> step("location entities", locationRepo::findAll), workers);
+                CompletableFuture<Void> hierarchy = CompletableFuture.runAsync(() -> step("location hierarchy", () -> {
+                    locationService.locationIndexLoaded().join();
+                    locationService.getProvinces();
+                    locationService.getDistricts(null);
+                }), workers);
+                CompletableFuture.allOf(pool, tags, locations, hierarchy).join();
+            } finally {
+                workers.shutdown();
+            }
+            step("dashboard queries", this::dashboardQueries);
+            step("notifications page", () -> notificationService.getAll(PageRequest.of(0, 10)));
+            step("endpoints", this::callEndpoints);
+        });
+    }
+
+    /**
+     * Open the pool's idle connections together instead of one by one on first use
+     */
+    private void fillPool() {
+        int connections = 1;
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+                connections = Math.max(1, Math.min(hikari.getMinimumIdle(), hikari.getMaximumPoolSize()));
+            }
+        } catch (Exception e) {
+            // not a Hikari pool: one connection still checks the database
+        }
+        ExecutorService openers = Executors.newFixedThreadPool(connections, Thread.ofPlatform().name("warmup-db-", 0).factory());
+        List<Connection> opened = new ArrayList<>();
+        try {
+            List<CompletableFuture<Connection>> pending = new ArrayList<>();
+            for (int i = 0; i < connections; i++) {
+                pending.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        Connection connection = dataSource.getConnection();
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        return connection;
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, openers));
+            }
+            for (CompletableFuture<Connection> future : pending) {
+                opened.add(future.join());
+            }
+        } finally {
+            openers.shutdown();
+            for (Connection connection : opened) {
+                try {
+                    connection.close();
+                } catch (Exception ignored) {
+                    // returning to the pool
+                }
+            }
+        }
+    }
+
+    /**
+     * The total and recent-issues queries /api/dashboard/stats runs for an admin (the endpoint itself needs
+     * a token). Its per-status, category and location figures read every issue and are left to the first request.
+     */
+    private void dashboardQueries() {
+        User admin = new User();
+        admin.setRole(Role.ADMIN);
+        issueService.count(admin);
+        issueService.findTop5ByOrderByDateReportedDesc(admin);
+    }
+
+    private void callEndpoints() {
+        if (paths.isEmpty() || !(context instanceof WebServerApplicationContext web) || web.getWebServer() == null) {
+            return;
+        }
+        int port = web.getWebServer().getPort();
+        if (port <= 0) {
+            return;
+        }
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        for (String path : paths) {
+            step("GET " + path, () -> {
+                try {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .timeout(Duration.ofSeconds(30))
+                        .GET().build();
+                    int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status < 200 || status >= 300) {
+                        // Nothing was warmed: an authenticated path, or a wrong one
+                        throw new IllegalStateException("HTTP " + status);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+    }
+
+    private void step(String name, Runnable work) {
+        try {
+            report.time("warm-up/" + name, work);
+        } catch (Exception e) {
+            System.err.println("Startup warm-up step '" + name + "' failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.comunityalert.cas.tracing;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One sampled request: a flat list of spans in start order (depth gives the nesting).
+ * Only touched by the request thread until finish(), then read-only in TraceBuffer.
+ */
+public final class Trace {
+
+    static final int MAX_SPANS = 1000;
+
+    private final String traceId;
+    private final String method;
+    private final String path;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final List<Span> spans = new ArrayList<>();
+    private final ArrayDeque<Span> open = new ArrayDeque<>();
+
+    private String endpoint;
+    private int status;
+    private long durationNanos;
+    private int droppedSpans;
+    private int jdbcStatements;
+    private long jdbcNanos;
+    private long jdbcStartedAt;
+
+    Trace(String traceId, String method, String path) {
+        this.traceId = traceId;
+        this.method = method;
+        this.path = path;
+    }
+
+    Span enter(String layer, String name) {
+        Span parent = open.peek();
+        Span span = new Span(layer, name, open.size(), System.nanoTime() - startNanos);
+        if (spans.size() < MAX_SPANS) {
+            spans.add(span);
+        } else {
+            // Still timed so the parent's self time stays right, just not listed
+            droppedSpans++;
+        }
+        span.parent = parent;
+        open.push(span);
+        return span;
+    }
+
+    void exit(Span span) {
+        span.durationNanos = System.nanoTime() - startNanos - span.startNanos;
+        // Pop up to and including this span, in case an inner exit was skipped
+        Span top;
+        do {
+            top = open.poll();
+        } while (top != null && top != span);
+        if (span.parent != null) {
+            span.parent.childNanos += span.durationNanos;
+        }
+    }
+
+    void jdbcStarted() {
+        jdbcStartedAt = System.nanoTime();
+    }
+
+    void jdbcFinished() {
+        long nanos = System.nanoTime() - jdbcStartedAt;
+        jdbcStatements++;
+        jdbcNanos += nanos;
+        Span current = open.peek();
+        if (current != null) {
+            current.statements++;
+            current.jdbcNanos += nanos;
+        }
+    }
+
+    void finish(String endpoint, int status) {
+        this.endpoint = endpoint;
+        this.status = status;
+        this.durationNanos = System.nanoTime() - startNanos;
+        open.clear();
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Summary row for the slowest-traces list
+     */
+    public Map<String, Object> toSummary() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("traceId", traceId);
+        m.put("endpoint", method + " " + (endpoint != null ? endpoint : path));
+        m.put("path", path);
+        m.put("status", status);
+        m.put("startedAt", startedAt);
+        m.put("durationMs", millis(durationNanos));
+        m.put("jdbcStatements", jdbcStatements);
+        m.put("jdbcMs", millis(jdbcNanos));
+        m.put("spans", spans.size() + droppedSpans);
+        return m;
+    }
+
+    /**
+     * Full span breakdown. selfMs is time not covered by child spans; for the controller span
+     * that includes argument binding, and the gap between the controller span and durationMs
+     * is filters plus Jackson serialization of the response.
+     */
+    public Map<String, Object> toDetail() {
+        Map<String, Object> m = toSummary();
+        List<Map<String, Object>> rows = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("layer", span.layer);
+            row.put("name", span.name);
+            row.put("depth", span.depth);
+            row.put("startMs", millis(span.startNanos));
+            row.put("durationMs", millis(span.durationNanos));
+            row.put("selfMs", millis(span.durationNanos - span.childNanos));
+            row.put("statements", span.statements);
+            row.put("jdbcMs", millis(span.jdbcNanos));
+            rows.add(row);
+        }
+        m.put("droppedSpans", droppedSpans);
+        m.put("spanList", rows);
+        return m;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    static final class Span {
+        final String layer;
+        final String name;
+        final int depth;
+        final long startNanos;
+        Span parent;
+        long durationNanos;
+        long childNanos;
+        int statements;
+        long jdbcNanos;
+
+        Span(String layer, String name, int depth, long startNanos) {
+            this.layer = layer;
+            this.name = name;
+            this.depth = depth;
+            this.startNanos = startNanos;
+        }
+    }
+}
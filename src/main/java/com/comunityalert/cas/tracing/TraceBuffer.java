@@ -0,0 +1,60 @@
+package com.comunityalert.cas.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local exporter: keeps the last N finished traces in a fixed ring, overwriting the oldest.
+ * Writers never block each other; readers take a snapshot.
+ */
+@Component
+public class TraceBuffer {
+
+    private final AtomicReferenceArray<Trace> ring;
+    private final AtomicLong next = new AtomicLong();
+
+    public TraceBuffer(@Value("${cas.tracing.buffer-size:500}") int size) {
+        this.ring = new AtomicReferenceArray<>(Math.max(1, size));
+    }
+
+    void add(Trace trace) {
+        int slot = (int) (next.getAndIncrement() % ring.length());
+        ring.set(slot, trace);
+    }
+
+    /**
+     * Slowest traces currently in the buffer, slowest first
+     */
+    public List<Trace> slowest(int limit) {
+        List<Trace> snapshot = new ArrayList<>(ring.length());
+        for (int i = 0; i < ring.length(); i++) {
+            Trace trace = ring.get(i);
+            if (trace != null) {
+                snapshot.add(trace);
+            }
+        }
+        snapshot.sort(Comparator.comparingLong(Trace::getDurationNanos).reversed());
+        return snapshot.subList(0, Math.min(limit, snapshot.size()));
+    }
+
+    public Optional<Trace> find(String traceId) {
+        for (int i = 0; i < ring.length(); i++) {
+            Trace trace = ring.get(i);
+            if (trace != null && trace.getTraceId().equals(traceId)) {
+                return Optional.of(trace);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public int capacity() {
+        return ring.length();
+    }
+}
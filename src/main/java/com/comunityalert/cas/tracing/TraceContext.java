@@ -0,0 +1,47 @@
+package com.comunityalert.cas.tracing;
+
+/**
+ * The sampled trace of the current request thread, if any.
+ * Every hook starts with current() == null, so unsampled requests pay one ThreadLocal read per call.
+ */
+public final class TraceContext {
+
+    public static final String MDC_KEY = "traceId";
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private TraceContext() {
+    }
+
+    static Trace current() {
+        return CURRENT.get();
+    }
+
+    static void start(Trace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * JDBC statement about to execute (called from the datasource proxy)
+     */
+    public static void jdbcStarted() {
+        Trace trace = CURRENT.get();
+        if (trace != null) {
+            trace.jdbcStarted();
+        }
+    }
+
+    /**
+     * Attribute the statement that just finished to the innermost open span
+     */
+    public static void jdbcFinished() {
+        Trace trace = CURRENT.get();
+        if (trace != null) {
+            trace.jdbcFinished();
+        }
+    }
+}
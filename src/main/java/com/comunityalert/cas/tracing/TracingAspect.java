@@ -0,0 +1,58 @@
+package com.comunityalert.cas.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * One span per controller, @Service and repository call while the request is being traced
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "cas.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingAspect {
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *)")
+    public Object controller(ProceedingJoinPoint pjp) throws Throwable {
+        return trace("controller", pjp);
+    }
+
+    @Around("within(@org.springframework.stereotype.Service *)")
+    public Object service(ProceedingJoinPoint pjp) throws Throwable {
+        return trace("service", pjp);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object repository(ProceedingJoinPoint pjp) throws Throwable {
+        return trace("repository", pjp);
+    }
+
+    private Object trace(String layer, ProceedingJoinPoint pjp) throws Throwable {
+        Trace trace = TraceContext.current();
+        if (trace == null) {
+            return pjp.proceed();
+        }
+        Trace.Span span = trace.enter(layer, spanName(layer, pjp));
+        try {
+            return pjp.proceed();
+        } finally {
+            trace.exit(span);
+        }
+    }
+
+    private static String spanName(String layer, ProceedingJoinPoint pjp) {
+        // Repository beans are JDK proxies; name them after the repository interface, not the proxy class
+        Class<?> type = pjp.getSignature().getDeclaringType();
+        if ("repository".equals(layer)) {
+            for (Class<?> candidate : pjp.getThis().getClass().getInterfaces()) {
+                if (org.springframework.data.repository.Repository.class.isAssignableFrom(candidate)) {
+                    type = candidate;
+                    break;
+                }
+            }
+        }
+        return type.getSimpleName() + "." + pjp.getSignature().getName();
+    }
+}
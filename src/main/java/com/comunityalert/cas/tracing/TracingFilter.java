@@ -0,0 +1,76 @@
+package com.comunityalert.cas.tracing;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Gives every API request a traceId (MDC "traceId" and the X-Trace-Id response header) and,
+ * for a cas.tracing.sample-rate fraction of requests, records spans into TraceBuffer.
+ * With cas.tracing.force-header.enabled, clients can force a trace with the request header X-Trace: 1;
+ * off by default, since any anonymous client could then fill TraceBuffer and evict the sampled traces.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    private final TraceBuffer buffer;
+    private final double sampleRate;
+    private final boolean forceHeader;
+
+    public TracingFilter(TraceBuffer buffer, @Value("${cas.tracing.sample-rate:0.0}") double sampleRate,
+                         @Value("${cas.tracing.force-header.enabled:false}") boolean forceHeader) {
+        this.buffer = buffer;
+        this.sampleRate = sampleRate;
+        this.forceHeader = forceHeader;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String traceId = Long.toHexString(random.nextLong() | Long.MIN_VALUE);
+        MDC.put(TraceContext.MDC_KEY, traceId);
+        response.setHeader("X-Trace-Id", traceId);
+
+        boolean sampled = (forceHeader && "1".equals(request.getHeader("X-Trace")))
+            || (sampleRate > 0 && random.nextDouble() < sampleRate);
+        if (!sampled) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                MDC.remove(TraceContext.MDC_KEY);
+            }
+            return;
+        }
+
+        Trace trace = new Trace(traceId, request.getMethod(), request.getRequestURI());
+        TraceContext.start(trace);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TraceContext.clear();
+            MDC.remove(TraceContext.MDC_KEY);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            trace.finish(pattern != null ? pattern.toString() : null, response.getStatus());
+            buffer.add(trace);
+        }
+    }
+}
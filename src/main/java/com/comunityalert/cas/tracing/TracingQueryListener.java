@@ -0,0 +1,24 @@
+package com.comunityalert.cas.tracing;
+
+import java.util.List;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Adds JDBC statement counts and time to the span that issued them, so lazy-loading loops
+ * show up as one service span with hundreds of statements
+ */
+public class TracingQueryListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        TraceContext.jdbcStarted();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        TraceContext.jdbcFinished();
+    }
+}
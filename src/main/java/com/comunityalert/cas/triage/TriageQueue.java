@@ -0,0 +1,240 @@
+package com.comunityalert.cas.triage;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.comunityalert.cas.datasource.ShardRouter;
+import com.comunityalert.cas.enums.Status;
+import com.comunityalert.cas.repository.IssueRepository;
+import com.comunityalert.cas.startup.StartupReport;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Open issues (REPORTED, IN_PROGRESS) ranked for admin triage, most urgent first.
+ *
+ * An issue scores its age in hours, plus its category's weight (cas.triage.category-weight.*, in hours),
+ * plus duplicate-weight hours per report linked to it as a duplicate; duplicates themselves are not listed.
+ * Age grows at the same rate for every issue, so the order only changes when an issue does: each entry is
+ * kept in a sorted set under the time-independent part of its score (score minus the current time), which
+ * makes an update O(log n) and reading the first k entries O(k). Ties go to the lower issue id, so a rebuild
+ * from the database at startup (before readiness) gives the same order every time.
+ */
+@Component
+public class TriageQueue implements ApplicationRunner {
+
+    private static final double MILLIS_PER_HOUR = 3_600_000.0;
+
+    /**
+     * One ranked issue; score = ageHours + categoryWeight + duplicates x duplicate weight
+     */
+    public record Ranked(UUID issueId, double score, double ageHours, double categoryWeight, int duplicates) {
+    }
+
+    /**
+     * A page of the queue plus its size
+     */
+    public record Result(List<Ranked> ranked, long total) {
+    }
+
+    private static final class Entry {
+        final UUID issueId;
+        final long reportedAt;
+        final double categoryWeight;
+        final int duplicates;
+        final double rank;
+
+        Entry(UUID issueId, long reportedAt, double categoryWeight, int duplicates, double duplicateWeight) {
+            this.issueId = issueId;
+            this.reportedAt = reportedAt;
+            this.categoryWeight = categoryWeight;
+            this.duplicates = duplicates;
+            this.rank = categoryWeight + duplicates * duplicateWeight - reportedAt / MILLIS_PER_HOUR;
+        }
+    }
+
+    private static final Comparator<Entry> MOST_URGENT_FIRST = Comparator
+        .comparingDouble((Entry e) -> e.rank).reversed()
+        .thenComparing(e -> e.issueId);
+
+    private final IssueRepository issueRepo;
+    private final ShardRouter shards;
+    private final StartupReport startupReport;
+    private final Map<String, Double> categoryWeights;
+    private final double defaultCategoryWeight;
+    private final double duplicateWeight;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeSet<Entry> ranked = new TreeSet<>(MOST_URGENT_FIRST);
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    // Duplicates linked to each original, listed or not: an original may be reopened later
+    private final Map<UUID, Integer> duplicateCounts = new HashMap<>();
+
+    public TriageQueue(IssueRepository issueRepo, ShardRouter shards, StartupReport startupReport,
+                       MeterRegistry registry, Environment env,
+                       @Value("${cas.triage.default-category-weight:0}") double defaultCategoryWeight,
+                       @Value("${cas.triage.duplicate-weight:24}") double duplicateWeight) {
+        this.issueRepo = issueRepo;
+        this.shards = shards;
+        this.startupReport = startupReport;
+        // Keyed by lower-case category: property map keys are matched case-insensitively
+        this.categoryWeights = new HashMap<>();
+        Binder.get(env)
+            .bind("cas.triage.category-weight", Bindable.mapOf(String.class, Double.class))
+            .orElse(Map.of())
+            .forEach((category, weight) -> categoryWeights.put(category.toLowerCase(), weight));
+        this.defaultCategoryWeight = defaultCategoryWeight;
+        this.duplicateWeight = duplicateWeight;
+        Gauge.builder("cas.issues.triage.size", this, TriageQueue::size)
+            .description("Open issues in the triage queue")
+            .register(registry);
+    }
+
+    /**
+     * Add or re-rank an open issue that is not itself a duplicate
+     */
+    public void put(UUID issueId, String category, Instant reportedAt) {
+        long at = reportedAt != null ? reportedAt.toEpochMilli() : System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            replace(issueId, new Entry(issueId, at, weight(category),
+                duplicateCounts.getOrDefault(issueId, 0), duplicateWeight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID issueId) {
+        lock.writeLock().lock();
+        try {
+            replace(issueId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forget a deleted issue, including its duplicate count (its duplicates are unlinked by the database)
+     */
+    public void delete(UUID issueId) {
+        lock.writeLock().lock();
+        try {
+            replace(issueId, null);
+            duplicateCounts.remove(issueId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A new report was linked to originalId as its duplicate (+1) or such a report was deleted (-1)
+     */
+    public void duplicateLinked(UUID originalId, int delta) {
+        lock.writeLock().lock();
+        try {
+            int count = Math.max(0, duplicateCounts.getOrDefault(originalId, 0) + delta);
+            if (count == 0) {
+                duplicateCounts.remove(originalId);
+            } else {
+                duplicateCounts.put(originalId, count);
+            }
+            Entry entry = entries.get(originalId);
+            if (entry != null) {
+                replace(originalId, new Entry(originalId, entry.reportedAt, entry.categoryWeight, count, duplicateWeight));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Most urgent issues, skipping the first offset
+     */
+    public Result top(int offset, int limit) {
+        long now = System.currentTimeMillis();
+        lock.readLock().lock();
+        try {
+            List<Ranked> page = new ArrayList<>(Math.min(limit, ranked.size()));
+            Iterator<Entry> it = ranked.iterator();
+            for (int skipped = 0; skipped < offset && it.hasNext(); skipped++) {
+                it.next();
+            }
+            while (page.size() < limit && it.hasNext()) {
+                Entry e = it.next();
+                double ageHours = (now - e.reportedAt) / MILLIS_PER_HOUR;
+                page.add(new Ranked(e.issueId, e.rank + now / MILLIS_PER_HOUR, ageHours, e.categoryWeight, e.duplicates));
+            }
+            return new Result(page, ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ranked.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        startupReport.time("triage queue", () -> {
+            List<Object[]> duplicates = new ArrayList<>();
+            shards.scatter(issueRepo::countDuplicatesByOriginal).forEach(duplicates::addAll);
+            List<Object[]> open = new ArrayList<>();
+            shards.scatter(() -> issueRepo.findOpenForTriage(List.of(Status.REPORTED, Status.IN_PROGRESS)))
+                .forEach(open::addAll);
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : duplicates) {
+                    duplicateCounts.merge((UUID) row[0], ((Number) row[1]).intValue(), Integer::sum);
+                }
+                for (Object[] row : open) {
+                    UUID id = (UUID) row[0];
+                    Instant reportedAt = (Instant) row[2];
+                    replace(id, new Entry(id, reportedAt != null ? reportedAt.toEpochMilli() : 0, weight((String) row[1]),
+                        duplicateCounts.getOrDefault(id, 0), duplicateWeight));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            System.out.println("Triage queue: " + open.size() + " open issues, " + duplicates.size() + " with duplicates");
+        });
+    }
+
+    // Caller holds the write lock; an entry's rank never changes while it is in the sorted set
+    private void replace(UUID issueId, Entry entry) {
+        Entry old = entry != null ? entries.put(issueId, entry) : entries.remove(issueId);
+        if (old != null) {
+            ranked.remove(old);
+        }
+        if (entry != null) {
+            ranked.add(entry);
+        }
+    }
+
+    private double weight(String category) {
+        return category == null ? defaultCategoryWeight
+            : categoryWeights.getOrDefault(category.toLowerCase(), defaultCategoryWeight);
+    }
+}
@@ -0,0 +1,18 @@
+package com.comunityalert.cas.triage;
+
+import com.comunityalert.cas.model.IssueReport;
+
+/**
+ * An issue of GET /api/issues/triage with the parts of its score (hours, rounded to 0.1)
+ */
+public record TriagedIssue(IssueReport issue, double score, double ageHours, double categoryWeight, int duplicates) {
+
+    public static TriagedIssue of(IssueReport issue, TriageQueue.Ranked ranked) {
+        return new TriagedIssue(issue, round(ranked.score()), round(ranked.ageHours()), ranked.categoryWeight(),
+            ranked.duplicates());
+    }
+
+    private static double round(double hours) {
+        return Math.round(hours * 10) / 10.0;
+    }
+}
@@ -21,17 +21,25 @@ package com.comunityalert.cas.utils;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class RwandaLocations {
-    private JSONArray data;
+    private volatile JSONArray data;
     private Map<String, List<Map<String, Object>>> cache;
     private String dataFilePath;
+    // village_code -> position in data, built once at load
+    private Map<Integer, Integer> villageIndex = Map.of();
 
     /**
      * Constructor with default data file path
@@ -48,7 +56,7 @@ public class RwandaLocations {
     public RwandaLocations(String dataFilePath) {
         this.dataFilePath = dataFilePath;
         this.data = null;
-        this.cache = new HashMap<>();
+        this.cache = new ConcurrentHashMap<>();
     }
 
     /**
@@ -59,12 +67,40 @@ public class RwandaLocations {
      */
     public RwandaLocations load() throws IOException {
         if (data == null) {
-            String content = new String(Files.readAllBytes(Paths.get(dataFilePath)));
-            data = new JSONArray(content);
+            try (InputStream in = Files.newInputStream(Paths.get(dataFilePath))) {
+                load(in);
+            }
         }
         return this;
     }
 
+    /**
+     * Load the locations data straight from a stream (e.g. a classpath resource), without a temp file
+     *
+     * @param in UTF-8 JSON array of locations; not closed
+     * @return this instance for method chaining
+     * @throws IOException if the stream cannot be read or parsed
+     */
+    public RwandaLocations load(InputStream in) throws IOException {
+        if (data != null) {
+            return this;
+        }
+        JSONArray parsed;
+        try {
+            Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+            parsed = new JSONArray(new JSONTokener(reader));
+        } catch (org.json.JSONException e) {
+            throw new IOException("Invalid locations JSON: " + e.getMessage(), e);
+        }
+        Map<Integer, Integer> index = new HashMap<>(parsed.length() * 2);
+        for (int i = 0; i < parsed.length(); i++) {
+            index.putIfAbsent(parsed.getJSONObject(i).getInt("village_code"), i);
+        }
+        villageIndex = index;
+        data = parsed;
+        return this;
+    }
+
     /**
      * Get all provinces
      *
@@ -314,23 +350,21 @@ public class RwandaLocations {
     public Map<String, Object> getLocationByVillageCode(int villageCode) throws IOException {
         load();
 
-        for (int i = 0; i < data.length(); i++) {
-            JSONObject location = data.getJSONObject(i);
-
-            if (location.getInt("village_code") == villageCode) {
-                Map<String, Object> result = new HashMap<>();
-                result.put("country", createSimpleMap(location.getString("country_code"), location.getString("country_name")));
-                result.put("province", createSimpleMap(location.getInt("province_code"), location.getString("province_name")));
-                result.put("district", createSimpleMap(location.getInt("district_code"), location.getString("district_name")));
-                result.put("sector", createSimpleMap(location.getString("sector_code"), location.getString("sector_name")));
-                result.put("cell", createSimpleMap(location.getInt("cell_code"), location.getString("cell_name")));
-                result.put("village", createSimpleMap(location.getInt("village_code"), location.getString("village_name")));
-
-                return result;
-            }
+        Integer i = villageIndex.get(villageCode);
+        if (i == null) {
+            return null;
         }
 
-        return null;
+        JSONObject location = data.getJSONObject(i);
+        Map<String, Object> result = new HashMap<>();
+        result.put("country", createSimpleMap(location.getString("country_code"), location.getString("country_name")));
+        result.put("province", createSimpleMap(location.getInt("province_code"), location.getString("province_name")));
+        result.put("district", createSimpleMap(location.getInt("district_code"), location.getString("district_name")));
+        result.put("sector", createSimpleMap(location.getString("sector_code"), location.getString("sector_name")));
+        result.put("cell", createSimpleMap(location.getInt("cell_code"), location.getString("cell_name")));
+        result.put("village", createSimpleMap(location.getInt("village_code"), location.getString("village_name")));
+
+        return result;
     }
 
     /**
@@ -0,0 +1,29 @@
+package com.comunityalert.cas.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction hooks shared by the services that keep in-memory state in step with the database
+ */
+public final class Transactions {
+
+    private Transactions() {
+    }
+
+    /**
+     * Run action once the current transaction commits (never after a rollback), or now outside a transaction
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
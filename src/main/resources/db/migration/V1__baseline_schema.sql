@@ -0,0 +1,108 @@
+-- Schema as Hibernate (ddl-auto) created it before migrations took over.
+-- Databases that already have these tables are baselined at version 1 and skip this script
+-- (spring.flyway.baseline-on-migrate); constraint names are Hibernate's, so both paths end up identical.
+
+create table locations (
+    id uuid not null,
+    parent_id uuid,
+    name varchar(255) not null,
+    type varchar(255) not null check (type in ('PROVINCE','DISTRICT','SECTOR','CELL','VILLAGE')),
+    primary key (id)
+);
+
+create table users (
+    created_at timestamp(6) with time zone,
+    reset_token_expiry timestamp(6) with time zone,
+    id uuid not null,
+    location_id uuid,
+    email varchar(255) not null unique,
+    full_name varchar(255),
+    password varchar(255) not null,
+    phone_number varchar(255),
+    reset_token varchar(255),
+    role varchar(255) not null check (role in ('RESIDENT','ADMIN')),
+    primary key (id)
+);
+
+create table user_profiles (
+    id uuid not null,
+    user_id uuid not null unique,
+    address varchar(255),
+    bio TEXT,
+    emergencyContact varchar(255),
+    nationalId varchar(255) unique,
+    profilePictureUrl varchar(255),
+    primary key (id)
+);
+
+create table issues (
+    comment_count integer,
+    date_reported timestamp(6) with time zone,
+    date_resolved timestamp(6) with time zone,
+    last_activity_at timestamp(6) with time zone,
+    id uuid not null,
+    location_id uuid,
+    reported_by uuid,
+    category varchar(255),
+    description TEXT,
+    photo_url varchar(255),
+    status varchar(255) check (status in ('REPORTED','IN_PROGRESS','RESOLVED')),
+    title varchar(255),
+    primary key (id)
+);
+
+create table tags (
+    active boolean,
+    popularity_score float(53),
+    usage_count integer,
+    last_used_at timestamp(6) with time zone,
+    id uuid not null,
+    description varchar(255),
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+create table issue_tags (
+    issue_id uuid not null,
+    tag_id uuid not null,
+    primary key (issue_id, tag_id)
+);
+
+-- createdAt has no @Column name, so the physical column is createdat
+create table comments (
+    createdAt timestamp(6) with time zone,
+    created_by uuid,
+    id uuid not null,
+    issue_id uuid,
+    message TEXT,
+    primary key (id)
+);
+
+create table notifications (
+    delivered boolean,
+    read boolean,
+    sent_at timestamp(6) with time zone,
+    id uuid not null,
+    issue_id uuid,
+    recipient_id uuid not null,
+    channel varchar(255) check (channel in ('EMAIL','SMS','SYSTEM')),
+    message varchar(255),
+    primary key (id)
+);
+
+create index idx_comments_issue_created on comments (issue_id, createdAt, id);
+create index idx_issues_last_activity_at on issues (last_activity_at);
+create index idx_tags_usage_count on tags (usage_count);
+create index idx_tags_popularity_score on tags (popularity_score);
+
+alter table if exists comments add constraint FK44lfn5qjtv4kjiuvwnq6nl0e7 foreign key (created_by) references users;
+alter table if exists comments add constraint FK287j1dpionjmfs2yycfjmy5j2 foreign key (issue_id) references issues;
+alter table if exists issue_tags add constraint FKm2hx9nxyqgi25mq8uyaoxwydh foreign key (tag_id) references tags;
+alter table if exists issue_tags add constraint FK57ildehmbrelpv8j1l76jaqto foreign key (issue_id) references issues;
+alter table if exists issues add constraint FKryhtgm9o26lrihbj4rcu5ta5t foreign key (location_id) references locations;
+alter table if exists issues add constraint FKob1cgph8iy9o5rk7xymc5keoe foreign key (reported_by) references users;
+alter table if exists locations add constraint FKhjdkpuoptx1cd04r3atchkpi0 foreign key (parent_id) references locations;
+alter table if exists notifications add constraint FKmjyld6b6mv3pt4oq9bx79pesd foreign key (issue_id) references issues;
+alter table if exists notifications add constraint FKqqnsjxlwleyjbxlmm213jaj3f foreign key (recipient_id) references users;
+alter table if exists user_profiles add constraint FKjcad5nfve11khsnpwj1mv8frj foreign key (user_id) references users;
+alter table if exists users add constraint FKdk0xfnnthbj8afp1ira6sndte foreign key (location_id) references locations;
@@ -0,0 +1,15 @@
+-- A database baselined at version 1 may come from a build older than some V1 columns and indexes
+-- (ddl-auto=update used to add them on startup). Add whatever is missing; a no-op everywhere else.
+-- The ApplicationReadyEvent backfills (CommentService, TagService) fill the new counters.
+
+alter table issues add column if not exists comment_count integer;
+alter table issues add column if not exists last_activity_at timestamp(6) with time zone;
+
+alter table tags add column if not exists usage_count integer;
+alter table tags add column if not exists last_used_at timestamp(6) with time zone;
+alter table tags add column if not exists popularity_score float(53);
+
+create index if not exists idx_comments_issue_created on comments (issue_id, createdAt, id);
+create index if not exists idx_issues_last_activity_at on issues (last_activity_at);
+create index if not exists idx_tags_usage_count on tags (usage_count);
+create index if not exists idx_tags_popularity_score on tags (popularity_score);
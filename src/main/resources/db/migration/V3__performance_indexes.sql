@@ -0,0 +1,28 @@
+-- Indexes for the queries the API actually runs. Plain CREATE INDEX (in the migration's transaction)
+-- blocks writes to the table while it builds: seconds at a few hundred thousand rows.
+
+-- Issue lists and dashboard: newest first, overall and per reporter (RESIDENT sees only their own)
+create index if not exists idx_issues_date_reported on issues (date_reported desc);
+create index if not exists idx_issues_reported_by_date on issues (reported_by, date_reported desc);
+-- Counts and lists by status, newest first within a status
+create index if not exists idx_issues_status_date on issues (status, date_reported desc);
+create index if not exists idx_issues_location on issues (location_id);
+
+-- Notification lists per recipient, optionally by read state, newest first
+create index if not exists idx_notifications_recipient_read_sent on notifications (recipient_id, read, sent_at desc);
+-- Unread only: a small fraction of the table, so a partial index stays small and hot.
+-- Queries must say read = false to use it, so legacy NULLs become false first.
+update notifications set read = false where read is null;
+create index if not exists idx_notifications_unread on notifications (recipient_id, sent_at desc) where read = false;
+create index if not exists idx_notifications_issue on notifications (issue_id);
+
+-- Password reset lookups; almost every row has no token
+create index if not exists idx_users_reset_token on users (reset_token) where reset_token is not null;
+-- Users by location (findUsersByProvinceName joins users to their village)
+create index if not exists idx_users_location on users (location_id);
+
+-- The primary key (issue_id, tag_id) cannot serve lookups by tag
+create index if not exists idx_issue_tags_tag on issue_tags (tag_id);
+
+-- Location.children and the hierarchy endpoints
+create index if not exists idx_locations_parent on locations (parent_id);
@@ -0,0 +1,7 @@
+-- Near-duplicate reports (DuplicateIssueIndex) point at the open issue they repeat.
+-- Deleting the original unlinks its duplicates rather than failing.
+alter table issues add column if not exists duplicate_of_id uuid;
+alter table issues add constraint fk_issues_duplicate_of
+    foreign key (duplicate_of_id) references issues (id) on delete set null;
+-- "Duplicates of this issue"; most rows have none, so a partial index stays small
+create index if not exists idx_issues_duplicate_of on issues (duplicate_of_id) where duplicate_of_id is not null;
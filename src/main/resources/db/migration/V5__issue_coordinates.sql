@@ -0,0 +1,6 @@
+-- Optional position of a reported problem (WGS84 degrees), for "issues near me" and map views.
+-- GeoIndex answers those queries in memory; this index serves the SQL fallback, whose bounding box
+-- becomes a range scan on latitude with longitude checked from the index entries.
+alter table issues add column if not exists latitude double precision;
+alter table issues add column if not exists longitude double precision;
+create index if not exists idx_issues_lat_lon on issues (latitude, longitude) where latitude is not null;
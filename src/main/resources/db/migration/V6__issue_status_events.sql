@@ -0,0 +1,36 @@
+-- Append-only history of issue status changes, written by IssueService (creation and updateStatus).
+-- category and district_id are copied from the issue when the change happens, so IssueStatusHistory
+-- can rebuild its percentile sketches from this table alone.
+create table issue_status_events (
+    id bigserial primary key,
+    issue_id uuid not null references issues (id) on delete cascade,
+    from_status varchar(20),
+    to_status varchar(20) not null,
+    changed_at timestamp(6) with time zone not null,
+    category varchar(255),
+    district_id uuid
+);
+-- "Latest change of this issue" and the startup rebuild, which reads events issue by issue in order
+create index idx_issue_status_events_issue on issue_status_events (issue_id, changed_at, id);
+
+-- Backfill from what issues already record: the report, and the resolution for resolved issues.
+-- Earlier transitions were never stored, so the resolution's from_status is unknown (null).
+with recursive up (location_id, id, type, parent_id) as (
+    select id, id, type, parent_id from locations
+    union all
+    select up.location_id, l.id, l.type, l.parent_id
+    from up join locations l on l.id = up.parent_id
+    where up.type <> 'DISTRICT'
+), district as (
+    select location_id, id as district_id from up where type = 'DISTRICT'
+)
+insert into issue_status_events (issue_id, from_status, to_status, changed_at, category, district_id)
+select i.id, e.from_status, e.to_status, e.changed_at, i.category, d.district_id
+from issues i
+left join district d on d.location_id = i.location_id
+cross join lateral (
+    select null::varchar as from_status, 'REPORTED'::varchar as to_status, i.date_reported as changed_at
+    union all
+    select null, 'RESOLVED', i.date_resolved where i.status = 'RESOLVED' and i.date_resolved is not null
+) e
+where i.date_reported is not null;
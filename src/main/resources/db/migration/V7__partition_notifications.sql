@@ -0,0 +1,54 @@
+-- notifications becomes range-partitioned by sent_at, one partition per calendar month (UTC), named
+-- notifications_pYYYYMM. Listings bounded by sent_at only touch the months they cover, and old months
+-- are detached whole by NotificationPartitions (cas.notifications.partitions.*) instead of deleted row by row.
+-- The primary key has to include the partition key; ids stay unique (random UUIDs) and are still
+-- looked up by id alone. There is no default partition: NotificationPartitions keeps the coming months
+-- created ahead of time, and a default partition would block creating them (and detaching concurrently).
+set local time zone 'UTC';
+
+alter table notifications rename to notifications_unpartitioned;
+
+create table notifications (
+    delivered boolean,
+    read boolean,
+    sent_at timestamp(6) with time zone not null,
+    id uuid not null,
+    issue_id uuid,
+    recipient_id uuid not null,
+    channel varchar(255) check (channel in ('EMAIL','SMS','SYSTEM')),
+    message varchar(255)
+) partition by range (sent_at);
+
+do $$
+declare
+    m timestamp;
+    until timestamp;
+begin
+    select date_trunc('month', coalesce(min(sent_at), now())),
+           date_trunc('month', greatest(coalesce(max(sent_at), now()), now())) + interval '3 months'
+      into m, until
+      from notifications_unpartitioned;
+    while m <= until loop
+        execute format('create table %I partition of notifications for values from (%L) to (%L)',
+                       'notifications_p' || to_char(m, 'YYYYMM'), m, m + interval '1 month');
+        m := m + interval '1 month';
+    end loop;
+end $$;
+
+insert into notifications (delivered, read, sent_at, id, issue_id, recipient_id, channel, message)
+select delivered, coalesce(read, false), coalesce(sent_at, now()), id, issue_id, recipient_id, channel, message
+from notifications_unpartitioned;
+
+drop table notifications_unpartitioned;
+
+-- Declared on the parent, so every partition (including ones created later) gets its own copy
+alter table notifications add primary key (id, sent_at);
+alter table notifications add constraint FKmjyld6b6mv3pt4oq9bx79pesd foreign key (issue_id) references issues;
+alter table notifications add constraint FKqqnsjxlwleyjbxlmm213jaj3f foreign key (recipient_id) references users;
+create index idx_notifications_recipient_read_sent on notifications (recipient_id, read, sent_at desc);
+create index idx_notifications_unread on notifications (recipient_id, sent_at desc) where read = false;
+create index idx_notifications_issue on notifications (issue_id);
+-- The admin listing (everyone's notifications, newest first)
+create index idx_notifications_sent on notifications (sent_at desc);
+
+analyze notifications;
@@ -0,0 +1,7 @@
+-- Cold archive (IssueArchiver): resolved issues older than cas.archive.min-age move to segment files.
+-- Their status events stay here for the resolution-time analytics (IssueStatusHistory), so events no
+-- longer go away with their issue; IssueService deletes them explicitly when an issue is deleted.
+alter table issue_status_events drop constraint if exists issue_status_events_issue_id_fkey;
+
+-- Archiver batches: resolved issues, oldest resolution first
+create index if not exists idx_issues_resolved_date on issues (date_resolved) where status = 'RESOLVED';
@@ -0,0 +1,286 @@
+package com.comunityalert.cas.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AbstractDependsOnBeanFactoryPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.comunityalert.cas.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * End-to-end load test: full application on an embedded PostgreSQL, driven by virtual threads.
+ *
+ * Run with ./mvnw -Ploadtest test. Tunables (system properties):
+ *   cas.load.concurrency   concurrent clients (default 200)
+ *   cas.load.duration      measured seconds (default 30), after cas.load.warmup seconds (default 5)
+ *   cas.load.threshold     allowed regression vs. the baseline, e.g. 0.25 = 25% (default 0.25)
+ *   cas.load.updateBaseline=true  write this run as the new baseline
+ *   cas.load.gate=false    only write the report, without comparing it (default true)
+ *
+ * The report is written to target/load-test-report.json. The test fails if any endpoint's p95 or throughput
+ * regressed beyond the threshold against src/test/resources/load-test-baseline.json, or any endpoint's error
+ * rate exceeds 1%. When that file is missing, the run records it and is only checked for errors; record the
+ * committed baseline on the reference setup (cas.load.updateBaseline=true), since it is machine-specific.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "logging.level.com.comunityalert.cas=WARN",
+    "spring.datasource.hikari.maximum-pool-size=20",
+    "cas.ratelimit.enabled=false",
+    "cas.overload.enabled=false"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ApiLoadTest {
+
+    private static final File BASELINE = new File("src/test/resources/load-test-baseline.json");
+    private static final File REPORT = new File("target/load-test-report.json");
+
+    private static EmbeddedPostgres postgres;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private CapturingEmailService emailService;
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    private HttpClient http;
+    private String baseUrl;
+    private LoadFixture fixture;
+
+    @TestConfiguration
+    static class LoadTestConfig {
+        @Bean
+        @Primary
+        CapturingEmailService capturingEmailService() {
+            return new CapturingEmailService();
+        }
+
+        // Stopped with the context, after the DataSource: its shutdown still writes held notifications
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() {
+            return postgres;
+        }
+
+        @Bean
+        static AbstractDependsOnBeanFactoryPostProcessor dataSourceDependsOnEmbeddedPostgres() {
+            return new AbstractDependsOnBeanFactoryPostProcessor(DataSource.class, "embeddedPostgres") {
+            };
+        }
+    }
+
+    @DynamicPropertySource
+    static void embeddedDatabase(DynamicPropertyRegistry registry) throws Exception {
+        if (postgres == null) {
+            postgres = EmbeddedPostgres.builder().start();
+        }
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @Test
+    void endpointsStayWithinBaseline() throws Exception {
+        int concurrency = Integer.getInteger("cas.load.concurrency", 200);
+        int warmupSeconds = Integer.getInteger("cas.load.warmup", 5);
+        int durationSeconds = Integer.getInteger("cas.load.duration", 30);
+        double threshold = Double.parseDouble(System.getProperty("cas.load.threshold", "0.25"));
+
+        fixture = LoadFixture.seed(context, 50);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            http = HttpClient.newBuilder().executor(clients).connectTimeout(Duration.ofSeconds(5)).build();
+            baseUrl = "http://localhost:" + port;
+
+            drive(clients, concurrency, warmupSeconds, new LatencyRecorder());
+            LatencyRecorder recorder = new LatencyRecorder();
+            long start = System.nanoTime();
+            drive(clients, concurrency, durationSeconds, recorder);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("concurrency", concurrency);
+            report.put("durationSeconds", durationSeconds);
+            report.put("endpoints", recorder.summarize(elapsed));
+            REPORT.getParentFile().mkdirs();
+            json.writerWithDefaultPrettyPrinter().writeValue(REPORT, report);
+            System.out.println("Load test report: " + json.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+            if (Boolean.getBoolean("cas.load.updateBaseline")) {
+                json.writerWithDefaultPrettyPrinter().writeValue(BASELINE, report);
+                System.out.println("Baseline updated: " + BASELINE);
+                return;
+            }
+            if (!Boolean.parseBoolean(System.getProperty("cas.load.gate", "true"))) {
+                return;
+            }
+            if (!BASELINE.exists()) {
+                // First run on this checkout: later runs are held to this one
+                BASELINE.getParentFile().mkdirs();
+                json.writerWithDefaultPrettyPrinter().writeValue(BASELINE, report);
+                System.out.println("No baseline yet; recorded this run as " + BASELINE);
+            }
+            List<String> regressions = compareToBaseline(recorder.summarize(elapsed), threshold);
+            assertTrue(regressions.isEmpty(), "Load test regressions:\n" + String.join("\n", regressions));
+        }
+    }
+
+    /**
+     * Run the weighted scenario mix from `concurrency` clients for `seconds`
+     */
+    private void drive(ExecutorService clients, int concurrency, int seconds, LatencyRecorder recorder) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<java.util.concurrent.Future<?>> running = new ArrayList<>();
+        for (int c = 0; c < concurrency; c++) {
+            running.add(clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    int pick = ThreadLocalRandom.current().nextInt(100);
+                    try {
+                        if (pick < 40) pollDashboard(recorder);
+                        else if (pick < 70) listNotifications(recorder);
+                        else if (pick < 90) createIssue(recorder);
+                        else loginWithOtp(recorder);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        recorder.record("client-error", 0, true);
+                    }
+                }
+            }));
+        }
+        for (var f : running) {
+            f.get();
+        }
+    }
+
+    // ========== Scenarios ==========
+
+    private void pollDashboard(LatencyRecorder recorder) throws Exception {
+        send(recorder, "GET /api/dashboard/stats", get("/api/dashboard/stats", fixture.randomToken()));
+    }
+
+    private void listNotifications(LatencyRecorder recorder) throws Exception {
+        send(recorder, "GET /api/notifications", get("/api/notifications?page=0&size=10", fixture.randomToken()));
+    }
+
+    private void createIssue(LatencyRecorder recorder) throws Exception {
+        User reporter = fixture.randomResident();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("title", "Water pipe burst near the market");
+        body.put("description", "Water has been flowing onto the road since this morning.");
+        body.put("category", "WATER");
+        body.put("locationId", fixture.village.getId());
+        body.put("reportedById", reporter.getId());
+        body.put("tagIds", List.of(fixture.tagIds.get(ThreadLocalRandom.current().nextInt(fixture.tagIds.size()))));
+        send(recorder, "POST /api/issues", post("/api/issues", body));
+    }
+
+    private void loginWithOtp(LatencyRecorder recorder) throws Exception {
+        User user = fixture.randomResident();
+        HttpResponse<String> login = send(recorder, "POST /api/auth/login",
+            post("/api/auth/login", Map.of("email", user.getEmail(), "password", LoadFixture.PASSWORD)));
+        if (login.statusCode() != 200) {
+            return;
+        }
+        String tempToken = json.readTree(login.body()).path("tempToken").asText();
+        String otp = emailService.lastOtpFor(user.getEmail());
+        send(recorder, "POST /api/auth/verify-otp",
+            post("/api/auth/verify-otp", Map.of("tempToken", tempToken, "otpCode", otp == null ? "" : otp)));
+    }
+
+    // ========== Plumbing ==========
+
+    private HttpResponse<String> send(LatencyRecorder recorder, String endpoint, HttpRequest request) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        // 401 on verify-otp is expected when another client logged the same user in meanwhile
+        boolean error = response.statusCode() >= 500
+            || (response.statusCode() >= 400 && !endpoint.endsWith("verify-otp"));
+        recorder.record(endpoint, System.nanoTime() - start, error);
+        return response;
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Authorization", "Bearer " + token)
+            .timeout(Duration.ofSeconds(30))
+            .GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) throws Exception {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofSeconds(30))
+            .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body))).build();
+    }
+
+    private List<String> compareToBaseline(Map<String, Map<String, Number>> current, double threshold) throws Exception {
+        List<String> regressions = new ArrayList<>();
+        current.forEach((endpoint, stats) -> {
+            long requests = stats.get("requests").longValue();
+            long errors = stats.get("errors").longValue();
+            if (requests > 0 && errors > requests / 100) {
+                regressions.add(endpoint + ": " + errors + " errors in " + requests + " requests");
+            }
+        });
+
+        JsonNode baseline = json.readTree(BASELINE).path("endpoints");
+        current.forEach((endpoint, stats) -> {
+            JsonNode base = baseline.path(endpoint);
+            if (base.isMissingNode()) {
+                return;
+            }
+            double p95 = stats.get("p95Ms").doubleValue();
+            double baseP95 = base.path("p95Ms").asDouble();
+            if (baseP95 > 0 && p95 > baseP95 * (1 + threshold)) {
+                regressions.add(String.format("%s: p95 %.2f ms vs baseline %.2f ms", endpoint, p95, baseP95));
+            }
+            double throughput = stats.get("throughputPerSec").doubleValue();
+            double baseThroughput = base.path("throughputPerSec").asDouble();
+            if (baseThroughput > 0 && throughput < baseThroughput * (1 - threshold)) {
+                regressions.add(String.format("%s: throughput %.2f/s vs baseline %.2f/s", endpoint, throughput, baseThroughput));
+            }
+        });
+        return regressions;
+    }
+}
@@ -0,0 +1,27 @@
+package com.comunityalert.cas.load;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.comunityalert.cas.service.EmailService;
+
+/**
+ * EmailService that keeps the last OTP per address so the login scenario can complete verify-otp
+ */
+class CapturingEmailService extends EmailService {
+
+    private final Map<String, String> lastOtp = new ConcurrentHashMap<>();
+
+    @Override
+    public void sendOTP(String to, String otp) {
+        lastOtp.put(to, otp);
+    }
+
+    @Override
+    public void sendPasswordResetEmail(String to, String link) {
+    }
+
+    String lastOtpFor(String email) {
+        return lastOtp.get(email);
+    }
+}
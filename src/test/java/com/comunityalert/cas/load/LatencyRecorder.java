@@ -0,0 +1,66 @@
+package com.comunityalert.cas.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects request latencies per endpoint and turns them into throughput/percentile figures
+ */
+class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, boolean error) {
+        samples.computeIfAbsent(endpoint, k -> new Samples()).add(nanos, error);
+    }
+
+    /**
+     * endpoint -> {requests, errors, throughputPerSec, p50Ms, p95Ms, p99Ms, maxMs}
+     */
+    Map<String, Map<String, Number>> summarize(double elapsedSeconds) {
+        Map<String, Map<String, Number>> out = new TreeMap<>();
+        samples.forEach((endpoint, s) -> out.put(endpoint, s.summarize(elapsedSeconds)));
+        return out;
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long value, boolean error) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            if (error) errors++;
+        }
+
+        synchronized Map<String, Number> summarize(double elapsedSeconds) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            Map<String, Number> m = new LinkedHashMap<>();
+            m.put("requests", size);
+            m.put("errors", errors);
+            m.put("throughputPerSec", round(size / elapsedSeconds));
+            m.put("p50Ms", percentileMs(sorted, 0.50));
+            m.put("p95Ms", percentileMs(sorted, 0.95));
+            m.put("p99Ms", percentileMs(sorted, 0.99));
+            m.put("maxMs", sorted.length == 0 ? 0 : round(sorted[sorted.length - 1] / 1e6));
+            return m;
+        }
+
+        private static double percentileMs(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return round(sorted[Math.max(0, index)] / 1e6);
+        }
+
+        private static double round(double v) {
+            return Math.round(v * 100) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.comunityalert.cas.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.comunityalert.cas.enums.LocationType;
+import com.comunityalert.cas.enums.Role;
+import com.comunityalert.cas.model.Location;
+import com.comunityalert.cas.model.Tag;
+import com.comunityalert.cas.model.User;
+import com.comunityalert.cas.repository.LocationRepository;
+import com.comunityalert.cas.repository.TagRepository;
+import com.comunityalert.cas.repository.UserRepository;
+import com.comunityalert.cas.service.JwtService;
+
+/**
+ * Seed data shared by the load tests: one village, a few tags, an admin and residents with session tokens
+ */
+final class LoadFixture {
+
+    static final String PASSWORD = "loadtest-pass";
+
+    final Location village;
+    final List<String> tagIds = new ArrayList<>();
+    final List<User> residents = new ArrayList<>();
+    final List<String> residentTokens = new ArrayList<>();
+    final String adminToken;
+
+    private LoadFixture(ApplicationContext context, int residentCount) {
+        UserRepository userRepo = context.getBean(UserRepository.class);
+        TagRepository tagRepo = context.getBean(TagRepository.class);
+        JwtService jwtService = context.getBean(JwtService.class);
+
+        Location location = new Location();
+        location.setName("Load Test Village");
+        location.setType(LocationType.VILLAGE);
+        village = context.getBean(LocationRepository.class).save(location);
+
+        for (String name : List.of("urgent", "water", "roads", "night")) {
+            Tag tag = new Tag();
+            tag.setName(name);
+            tagIds.add(tagRepo.save(tag).getId().toString());
+        }
+
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        adminToken = jwtService.generateToken(userRepo.save(newUser("admin@loadtest.rw", Role.ADMIN, hash)));
+        for (int i = 0; i < residentCount; i++) {
+            User resident = userRepo.save(newUser("resident" + i + "@loadtest.rw", Role.RESIDENT, hash));
+            residents.add(resident);
+            residentTokens.add(jwtService.generateToken(resident));
+        }
+    }
+
+    static LoadFixture seed(ApplicationContext context, int residentCount) {
+        return new LoadFixture(context, residentCount);
+    }
+
+    User randomResident() {
+        return residents.get(ThreadLocalRandom.current().nextInt(residents.size()));
+    }
+
+    String randomResidentToken() {
+        return residentTokens.get(ThreadLocalRandom.current().nextInt(residentTokens.size()));
+    }
+
+    /**
+     * Admin one time in ten, otherwise a resident
+     */
+    String randomToken() {
+        return ThreadLocalRandom.current().nextInt(10) == 0 ? adminToken : randomResidentToken();
+    }
+
+    private User newUser(String email, Role role, String passwordHash) {
+        User user = new User();
+        user.setFullName(email.substring(0, email.indexOf('@')));
+        user.setEmail(email);
+        user.setPassword(passwordHash);
+        user.setRole(role);
+        user.setLocation(village);
+        return user;
+    }
+}
@@ -0,0 +1,209 @@
+package com.comunityalert.cas.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.comunityalert.cas.CasApplication;
+import com.comunityalert.cas.dto.CreateIssueDTO;
+import com.comunityalert.cas.service.IssueService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Emergency-spike scenario with and without adaptive load shedding (cas.overload.enabled):
+ * many clients hammering the dashboard (LOW priority) while residents keep reporting issues (CRITICAL),
+ * on a deliberately small connection pool.
+ *
+ * Run with ./mvnw -Ploadtest test -Dtest=OverloadLoadTest. Tunables (system properties):
+ *   cas.load.concurrency [300]   cas.load.duration [20] measured seconds per mode   cas.load.warmup [5]
+ *   cas.load.poolSize [5]        cas.load.issues [1000] issues seeded before the run
+ *
+ * Served requests are recorded per endpoint, shed ones (503) as "<endpoint> shed";
+ * both modes go to target/overload-report.json.
+ */
+@Tag("load")
+class OverloadLoadTest {
+
+    private static final File REPORT = new File("target/overload-report.json");
+    private static final String DASHBOARD = "GET /api/dashboard/stats";
+    private static final String CREATE_ISSUE = "POST /api/issues";
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Test
+    void shedsLowPriorityBeforeIssueCreation() throws Exception {
+        int concurrency = Integer.getInteger("cas.load.concurrency", 300);
+        int warmupSeconds = Integer.getInteger("cas.load.warmup", 5);
+        int durationSeconds = Integer.getInteger("cas.load.duration", 20);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("concurrency", concurrency);
+        report.put("durationSeconds", durationSeconds);
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            for (boolean shedding : new boolean[] {false, true}) {
+                report.put(shedding ? "adaptive" : "unlimited",
+                    runMode(postgres, shedding, concurrency, warmupSeconds, durationSeconds));
+            }
+        }
+
+        REPORT.getParentFile().mkdirs();
+        json.writerWithDefaultPrettyPrinter().writeValue(REPORT, report);
+        System.out.println("Overload report: " + json.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Number>> adaptive = (Map<String, Map<String, Number>>) report.get("adaptive");
+        long created = requests(adaptive, CREATE_ISSUE);
+        assertTrue(created > 0, "No issues were created with load shedding on");
+        double createShed = shedFraction(adaptive, CREATE_ISSUE);
+        double dashboardShed = shedFraction(adaptive, DASHBOARD);
+        assertTrue(createShed <= dashboardShed,
+            "Issue creation was shed more often (" + createShed + ") than the dashboard (" + dashboardShed + ")");
+    }
+
+    private Map<String, Map<String, Number>> runMode(EmbeddedPostgres postgres, boolean shedding, int concurrency,
+                                                     int warmupSeconds, int durationSeconds) throws Exception {
+        // A fresh database per mode, so each run migrates and seeds from scratch
+        String database = shedding ? "adaptive" : "unlimited";
+        try (Connection c = postgres.getPostgresDatabase().getConnection(); Statement s = c.createStatement()) {
+            s.execute("CREATE DATABASE " + database);
+        }
+        // Command-line arguments, so they override application.properties
+        String[] args = {
+            "--server.port=0",
+            "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", database),
+            "--spring.datasource.username=postgres",
+            "--spring.datasource.password=postgres",
+            "--spring.datasource.hikari.maximum-pool-size=" + Integer.getInteger("cas.load.poolSize", 5),
+            "--logging.level.com.comunityalert.cas=WARN",
+            "--cas.sql.slow-query.sample-rate=0",
+            "--cas.ratelimit.enabled=false",
+            "--cas.startup.warmup.enabled=false",
+            "--cas.overload.enabled=" + shedding
+        };
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(CasApplication.class).run(args)) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            LoadFixture fixture = LoadFixture.seed(app, 50);
+            seedIssues(app, fixture, Integer.getInteger("cas.load.issues", 1000));
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient http = HttpClient.newBuilder()
+                    .executor(clients)
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+                String baseUrl = "http://localhost:" + port;
+
+                drive(http, baseUrl, fixture, clients, concurrency, warmupSeconds, new LatencyRecorder());
+                LatencyRecorder recorder = new LatencyRecorder();
+                long start = System.nanoTime();
+                drive(http, baseUrl, fixture, clients, concurrency, durationSeconds, recorder);
+                return recorder.summarize((System.nanoTime() - start) / 1e9);
+            }
+        }
+    }
+
+    private void seedIssues(ConfigurableApplicationContext app, LoadFixture fixture, int count) {
+        IssueService issues = app.getBean(IssueService.class);
+        for (int i = 0; i < count; i++) {
+            issues.createFromDTO(issue(fixture, "Seeded issue " + i, i));
+        }
+    }
+
+    private void drive(HttpClient http, String baseUrl, LoadFixture fixture, ExecutorService clients,
+                       int concurrency, int seconds, LatencyRecorder recorder) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<?>> running = new ArrayList<>();
+        for (int c = 0; c < concurrency; c++) {
+            running.add(clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    int pick = ThreadLocalRandom.current().nextInt(100);
+                    String endpoint;
+                    HttpRequest.Builder request;
+                    if (pick < 70) {
+                        endpoint = DASHBOARD;
+                        request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/dashboard/stats")).GET();
+                    } else {
+                        endpoint = CREATE_ISSUE;
+                        String body;
+                        try {
+                            body = json.writeValueAsString(issue(fixture, "Flooded road", pick));
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                        request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/issues"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body));
+                    }
+                    request.header("Authorization", "Bearer " + fixture.randomResidentToken())
+                        .timeout(Duration.ofSeconds(30));
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 503) {
+                            recorder.record(endpoint + " shed", System.nanoTime() - start, false);
+                            // Honour Retry-After roughly, as a well-behaved client would
+                            Thread.sleep(ThreadLocalRandom.current().nextInt(200, 1000));
+                        } else {
+                            recorder.record(endpoint, System.nanoTime() - start, response.statusCode() >= 400);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        recorder.record(endpoint, System.nanoTime() - start, true);
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : running) {
+            f.get();
+        }
+    }
+
+    private static CreateIssueDTO issue(LoadFixture fixture, String title, int i) {
+        CreateIssueDTO dto = new CreateIssueDTO();
+        dto.setTitle(title);
+        dto.setDescription("Reported during the overload comparison");
+        dto.setCategory(i % 2 == 0 ? "Utilities" : "Infrastructure");
+        dto.setLocationId(fixture.village.getId());
+        dto.setReportedById(fixture.residents.get(i % fixture.residents.size()).getId());
+        dto.setTagIds(List.of(UUID.fromString(fixture.tagIds.get(i % fixture.tagIds.size()))));
+        return dto;
+    }
+
+    private static long requests(Map<String, Map<String, Number>> stats, String endpoint) {
+        Map<String, Number> s = stats.get(endpoint);
+        return s == null ? 0 : s.get("requests").longValue();
+    }
+
+    private static double shedFraction(Map<String, Map<String, Number>> stats, String endpoint) {
+        long shed = requests(stats, endpoint + " shed");
+        long total = shed + requests(stats, endpoint);
+        return total == 0 ? 0 : (double) shed / total;
+    }
+}
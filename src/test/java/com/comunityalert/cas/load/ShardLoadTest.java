@@ -0,0 +1,308 @@
+package com.comunityalert.cas.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.comunityalert.cas.CasApplication;
+import com.comunityalert.cas.dto.CreateIssueDTO;
+import com.comunityalert.cas.enums.LocationType;
+import com.comunityalert.cas.model.Location;
+import com.comunityalert.cas.repository.LocationRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Issue shards (cas.shards.*) on three local PostgreSQL instances: the home database plus a "west" and an
+ * "east" node, with Western and Eastern provinces mapped to them and Kigali left on the home database.
+ * Residents report issues in all three provinces over HTTP; the test then checks by JDBC that every issue
+ * landed on its province's database, and over HTTP that single-issue reads and writes, comments, admin
+ * listings and dashboard totals see every shard.
+ *
+ * Run with ./mvnw -Ploadtest test -Dtest=ShardLoadTest. Tunables (system properties):
+ *   cas.load.issues [600] issues reported   cas.load.concurrency [30]
+ *
+ * Latency per endpoint goes to target/shard-report.json.
+ */
+@Tag("load")
+class ShardLoadTest {
+
+    private static final File REPORT = new File("target/shard-report.json");
+    private static final List<String> PROVINCES = List.of("Kigali", "Western", "Eastern");
+    private static final List<String> SHARDS = List.of("home", "west", "east");
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Test
+    void routesIssuesByProvinceAndGathersAcrossShards() throws Exception {
+        int issueCount = Integer.getInteger("cas.load.issues", 600);
+        int concurrency = Integer.getInteger("cas.load.concurrency", 30);
+
+        try (EmbeddedPostgres home = EmbeddedPostgres.builder().setServerConfig("wal_level", "logical").start();
+             EmbeddedPostgres west = EmbeddedPostgres.builder().start();
+             EmbeddedPostgres east = EmbeddedPostgres.builder().start()) {
+            List<EmbeddedPostgres> databases = List.of(home, west, east);
+            String[] args = {
+                "--server.port=0",
+                "--spring.datasource.url=" + home.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--logging.level.com.comunityalert.cas=WARN",
+                "--cas.sql.slow-query.sample-rate=0",
+                "--cas.ratelimit.enabled=false",
+                "--cas.startup.warmup.enabled=false",
+                "--cas.overload.enabled=false",
+                "--cas.notifications.digest.enabled=false",
+                "--cas.shards.enabled=true",
+                "--cas.shards.nodes.west.url=" + west.getJdbcUrl("postgres", "postgres"),
+                "--cas.shards.nodes.east.url=" + east.getJdbcUrl("postgres", "postgres"),
+                "--cas.shards.provinces.Western=west",
+                "--cas.shards.provinces.Eastern=east",
+                "--cas.shards.replicate-from=host=localhost port=" + home.getPort() + " dbname=postgres user=postgres"
+            };
+            // Nested, so the application is closed (and writes what it holds) before the databases stop
+            try (ConfigurableApplicationContext app = new SpringApplicationBuilder(CasApplication.class).run(args)) {
+                int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                LoadFixture fixture = LoadFixture.seed(app, 20);
+                List<Location> villages = seedProvinces(app.getBean(LocationRepository.class));
+                awaitReplication(databases);
+
+                Map<String, Object> report = new LinkedHashMap<>();
+                report.put("issues", issueCount);
+                report.put("concurrency", concurrency);
+                try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                    HttpClient http = HttpClient.newBuilder()
+                        .executor(clients)
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+                    String baseUrl = "http://localhost:" + port;
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    long start = System.nanoTime();
+
+                    List<UUID> ids = report(http, baseUrl, fixture, villages, clients, concurrency, issueCount, recorder);
+                    assertEquals(issueCount, ids.size(), "Not every issue was created");
+                    Map<String, Long> placement = checkPlacement(databases);
+                    report.put("placement", placement);
+                    assertEquals(issueCount, count(home.getPostgresDatabase(), "SELECT sum(usage_count) FROM tags"),
+                        "Tag usage counts on the home database miss issues");
+
+                    touch(http, baseUrl, fixture, ids, clients, concurrency, recorder);
+                    checkGathered(http, baseUrl, fixture, issueCount, recorder);
+
+                    report.put("endpoints", recorder.summarize((System.nanoTime() - start) / 1e9));
+                }
+                REPORT.getParentFile().mkdirs();
+                json.writerWithDefaultPrettyPrinter().writeValue(REPORT, report);
+                System.out.println("Shard report: " + json.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+            }
+        }
+    }
+
+    /**
+     * One province per shard, each with a district and a village (written on the home database, replicated)
+     */
+    private static List<Location> seedProvinces(LocationRepository locations) {
+        List<Location> villages = new ArrayList<>();
+        for (String name : PROVINCES) {
+            Location province = locations.save(location(name, LocationType.PROVINCE, null));
+            Location district = locations.save(location(name + " District", LocationType.DISTRICT, province));
+            villages.add(locations.save(location(name + " Village", LocationType.VILLAGE, district)));
+        }
+        return villages;
+    }
+
+    private static Location location(String name, LocationType type, Location parent) {
+        Location location = new Location();
+        location.setName(name);
+        location.setType(type);
+        location.setParent(parent);
+        return location;
+    }
+
+    private static void awaitReplication(List<EmbeddedPostgres> databases) throws Exception {
+        long expected = count(databases.get(0).getPostgresDatabase(), "SELECT count(*) FROM users");
+        long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        for (EmbeddedPostgres node : databases.subList(1, databases.size())) {
+            while (count(node.getPostgresDatabase(), "SELECT count(*) FROM users") < expected) {
+                assertTrue(System.nanoTime() < deadline, "Users were not replicated to the shard nodes");
+                Thread.sleep(200);
+            }
+        }
+    }
+
+    private List<UUID> report(HttpClient http, String baseUrl, LoadFixture fixture, List<Location> villages,
+                              ExecutorService clients, int concurrency, int count, LatencyRecorder recorder)
+            throws Exception {
+        List<Future<UUID>> created = new ArrayList<>();
+        Semaphore inFlight = new Semaphore(concurrency);
+        for (int i = 0; i < count; i++) {
+            int n = i;
+            created.add(clients.submit(() -> {
+                inFlight.acquire();
+                try {
+                    CreateIssueDTO dto = new CreateIssueDTO();
+                    dto.setTitle("Sharded issue " + n);
+                    dto.setDescription("Reported in " + PROVINCES.get(n % PROVINCES.size()));
+                    dto.setCategory(n % 2 == 0 ? "Utilities" : "Infrastructure");
+                    dto.setLocationId(villages.get(n % villages.size()).getId());
+                    dto.setReportedById(fixture.residents.get(n % fixture.residents.size()).getId());
+                    dto.setTagIds(List.of(UUID.fromString(fixture.tagIds.get(n % fixture.tagIds.size()))));
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/issues"))
+                        .header("Content-Type", "application/json")
+                        .header("Authorization", "Bearer " + fixture.residentTokens.get(n % fixture.residentTokens.size()))
+                        .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(dto)))
+                        .build();
+                    JsonNode body = send(http, request, "POST /api/issues", recorder);
+                    return UUID.fromString(body.get("id").asText());
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+        List<UUID> ids = new ArrayList<>();
+        for (Future<UUID> f : created) {
+            ids.add(f.get());
+        }
+        return ids;
+    }
+
+    /**
+     * Every database holds exactly the issues of its provinces, with their notifications
+     */
+    private static Map<String, Long> checkPlacement(List<EmbeddedPostgres> databases) throws Exception {
+        Map<String, Long> placement = new LinkedHashMap<>();
+        for (int i = 0; i < databases.size(); i++) {
+            DataSource db = databases.get(i).getPostgresDatabase();
+            String province = PROVINCES.get(i);
+            long total = count(db, "SELECT count(*) FROM issues");
+            long own = count(db, "SELECT count(*) FROM issues WHERE description = 'Reported in " + province + "'");
+            assertTrue(total > 0, SHARDS.get(i) + " holds no issues");
+            assertEquals(total, own, SHARDS.get(i) + " holds issues of other provinces");
+            assertEquals(total, count(db, "SELECT count(DISTINCT issue_id) FROM issue_tags"),
+                SHARDS.get(i) + " is missing tag links of its issues");
+            assertTrue(count(db, "SELECT count(*) FROM notifications WHERE issue_id IS NOT NULL") > 0,
+                SHARDS.get(i) + " holds no notifications for its issues");
+            placement.put(SHARDS.get(i), total);
+        }
+        return placement;
+    }
+
+    /**
+     * Read, update and comment on issues of every shard by id
+     */
+    private void touch(HttpClient http, String baseUrl, LoadFixture fixture, List<UUID> ids, ExecutorService clients,
+                       int concurrency, LatencyRecorder recorder) throws Exception {
+        List<Future<?>> running = new ArrayList<>();
+        Semaphore inFlight = new Semaphore(concurrency);
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+            String resident = fixture.residents.get(i % fixture.residents.size()).getId().toString();
+            running.add(clients.submit(() -> {
+                inFlight.acquire();
+                try {
+                    JsonNode issue = send(http, authorized(fixture, baseUrl + "/api/issues/" + id).GET().build(),
+                        "GET /api/issues/{id}", recorder);
+                    assertEquals(id.toString(), issue.get("id").asText());
+                    assertEquals(1, issue.get("tags").size(), "Tags of " + id + " not read from its shard");
+                    send(http, authorized(fixture, baseUrl + "/api/issues/" + id + "/status?status=IN_PROGRESS")
+                        .PUT(HttpRequest.BodyPublishers.noBody()).build(), "PUT /api/issues/{id}/status", recorder);
+                    send(http, authorized(fixture, baseUrl + "/api/issues/" + id + "/comments")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"message\":\"Seen it too\",\"createdById\":\"" + resident + "\"}")).build(),
+                        "POST /api/issues/{id}/comments", recorder);
+                    JsonNode thread = send(http, authorized(fixture, baseUrl + "/api/issues/" + id + "/comments").GET().build(),
+                        "GET /api/issues/{id}/comments", recorder);
+                    assertEquals(1, thread.get("content").size(), "Comment on " + id + " not read back");
+                    return null;
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+        for (Future<?> f : running) {
+            f.get();
+        }
+    }
+
+    /**
+     * Admin views gather every shard
+     */
+    private void checkGathered(HttpClient http, String baseUrl, LoadFixture fixture, int issueCount,
+                               LatencyRecorder recorder) throws Exception {
+        JsonNode stats = send(http, admin(fixture, baseUrl + "/api/dashboard/stats").GET().build(),
+            "GET /api/dashboard/stats", recorder);
+        assertEquals(issueCount, stats.get("totalIssues").asLong(), "Dashboard total misses a shard");
+        assertEquals(issueCount, stats.get("inProgressIssues").asLong(), "Status counts miss a shard");
+
+        // Second page, so every shard's share of the first two pages has to be merged
+        JsonNode page = send(http, admin(fixture, baseUrl + "/api/issues?page=1&size=25&sort=dateReported&direction=DESC")
+            .GET().build(), "GET /api/issues", recorder);
+        assertEquals(25, page.size());
+        Instant previous = null;
+        for (JsonNode issue : page) {
+            Instant reported = Instant.parse(issue.get("dateReported").asText());
+            assertTrue(previous == null || !previous.isBefore(reported), "Merged page is out of order");
+            previous = reported;
+        }
+    }
+
+    private JsonNode send(HttpClient http, HttpRequest request, String endpoint, LatencyRecorder recorder)
+            throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        boolean error = response.statusCode() >= 400;
+        recorder.record(endpoint, System.nanoTime() - start, error);
+        assertTrue(!error, endpoint + " failed with " + response.statusCode() + ": " + response.body());
+        return json.readTree(response.body());
+    }
+
+    private static HttpRequest.Builder authorized(LoadFixture fixture, String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .header("Authorization", "Bearer " + fixture.randomResidentToken())
+            .timeout(Duration.ofSeconds(30));
+    }
+
+    private static HttpRequest.Builder admin(LoadFixture fixture, String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .header("Authorization", "Bearer " + fixture.adminToken)
+            .timeout(Duration.ofSeconds(30));
+    }
+
+    private static long count(DataSource db, String sql) throws Exception {
+        try (Connection c = db.getConnection(); Statement s = c.createStatement(); ResultSet rs = s.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.comunityalert.cas.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.comunityalert.cas.CasApplication;
+import com.comunityalert.cas.dto.CreateIssueDTO;
+import com.comunityalert.cas.service.IssueService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Platform-thread Tomcat pool vs. virtual threads (spring.threads.virtual.enabled) under the same load:
+ * 1,000 concurrent clients polling the dashboard and listing notifications and issues.
+ *
+ * Run with ./mvnw -Ploadtest test -Dtest=ThreadModelLoadTest. Tunables (system properties):
+ *   cas.load.concurrency [1000]   cas.load.duration [20] measured seconds per mode   cas.load.warmup [5]
+ *   cas.load.poolSize [20] Hikari connections (the same in both modes, so only the thread model differs)
+ *
+ * Throughput and p50/p95/p99 per endpoint for both modes go to target/thread-model-report.json.
+ */
+@Tag("load")
+class ThreadModelLoadTest {
+
+    private static final File REPORT = new File("target/thread-model-report.json");
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Test
+    void compareThreadModels() throws Exception {
+        int concurrency = Integer.getInteger("cas.load.concurrency", 1000);
+        int warmupSeconds = Integer.getInteger("cas.load.warmup", 5);
+        int durationSeconds = Integer.getInteger("cas.load.duration", 20);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("concurrency", concurrency);
+        report.put("durationSeconds", durationSeconds);
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            for (boolean virtual : new boolean[] {false, true}) {
+                report.put(virtual ? "virtual" : "platform",
+                    runMode(postgres, virtual, concurrency, warmupSeconds, durationSeconds));
+            }
+        }
+
+        REPORT.getParentFile().mkdirs();
+        json.writerWithDefaultPrettyPrinter().writeValue(REPORT, report);
+        System.out.println("Thread model report: " + json.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Number>> virtual = (Map<String, Map<String, Number>>) report.get("virtual");
+        assertTrue(virtual.values().stream().anyMatch(s -> s.get("requests").longValue() > 0),
+            "No requests completed in virtual-thread mode");
+    }
+
+    private Map<String, Map<String, Number>> runMode(EmbeddedPostgres postgres, boolean virtual, int concurrency,
+                                                     int warmupSeconds, int durationSeconds) throws Exception {
+        // A fresh database per mode, so each run migrates and seeds from scratch
+        String database = virtual ? "virtual" : "platform";
+        try (Connection c = postgres.getPostgresDatabase().getConnection(); Statement s = c.createStatement()) {
+            s.execute("CREATE DATABASE " + database);
+        }
+        // Command-line arguments, so they override application.properties
+        String[] args = {
+            "--server.port=0",
+            "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", database),
+            "--spring.datasource.username=postgres",
+            "--spring.datasource.password=postgres",
+            "--spring.datasource.hikari.maximum-pool-size=" + Integer.getInteger("cas.load.poolSize", 20),
+            "--logging.level.com.comunityalert.cas=WARN",
+            "--cas.sql.slow-query.sample-rate=0",
+            "--cas.ratelimit.enabled=false",
+            "--cas.overload.enabled=false",
+            "--spring.threads.virtual.enabled=" + virtual
+        };
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(CasApplication.class).run(args)) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            LoadFixture fixture = LoadFixture.seed(app, 50);
+            seedIssues(app, fixture, 200);
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient http = HttpClient.newBuilder()
+                    .executor(clients)
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+                String baseUrl = "http://localhost:" + port;
+
+                drive(http, baseUrl, fixture, clients, concurrency, warmupSeconds, new LatencyRecorder());
+                LatencyRecorder recorder = new LatencyRecorder();
+                long start = System.nanoTime();
+                drive(http, baseUrl, fixture, clients, concurrency, durationSeconds, recorder);
+                return recorder.summarize((System.nanoTime() - start) / 1e9);
+            }
+        }
+    }
+
+    private void seedIssues(ConfigurableApplicationContext app, LoadFixture fixture, int count) {
+        IssueService issues = app.getBean(IssueService.class);
+        for (int i = 0; i < count; i++) {
+            CreateIssueDTO dto = new CreateIssueDTO();
+            dto.setTitle("Seeded issue " + i);
+            dto.setDescription("Created before the thread model comparison");
+            dto.setCategory(i % 2 == 0 ? "Utilities" : "Infrastructure");
+            dto.setLocationId(fixture.village.getId());
+            dto.setReportedById(fixture.residents.get(i % fixture.residents.size()).getId());
+            dto.setTagIds(List.of(UUID.fromString(fixture.tagIds.get(i % fixture.tagIds.size()))));
+            issues.createFromDTO(dto);
+        }
+    }
+
+    private void drive(HttpClient http, String baseUrl, LoadFixture fixture, ExecutorService clients,
+                       int concurrency, int seconds, LatencyRecorder recorder) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<?>> running = new ArrayList<>();
+        for (int c = 0; c < concurrency; c++) {
+            running.add(clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    int pick = ThreadLocalRandom.current().nextInt(100);
+                    String endpoint;
+                    String path;
+                    if (pick < 40) {
+                        endpoint = "GET /api/dashboard/stats";
+                        path = "/api/dashboard/stats";
+                    } else if (pick < 70) {
+                        endpoint = "GET /api/notifications";
+                        path = "/api/notifications?page=0&size=10";
+                    } else {
+                        endpoint = "GET /api/issues";
+                        path = "/api/issues?page=0&size=20";
+                    }
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Authorization", "Bearer " + fixture.randomToken())
+                        .timeout(Duration.ofSeconds(60))
+                        .GET().build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        recorder.record(endpoint, System.nanoTime() - start, response.statusCode() >= 400);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        recorder.record(endpoint, System.nanoTime() - start, true);
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : running) {
+            f.get();
+        }
+    }
+}